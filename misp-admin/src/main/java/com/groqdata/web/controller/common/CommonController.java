@@ -14,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -26,6 +27,7 @@ import com.groqdata.common.utils.basic.StringHelper;
 import com.groqdata.common.utils.file.FileUploadUtils;
 import com.groqdata.common.utils.file.FileUtils;
 import com.groqdata.framework.config.ServerConfig;
+import com.groqdata.framework.manager.ExportJobManager;
 
 /**
  * 通用请求处理控制器
@@ -38,12 +40,14 @@ import com.groqdata.framework.config.ServerConfig;
 public class CommonController {
 	private static final Logger log = LoggerFactory.getLogger(CommonController.class);
 	private final ServerConfig serverConfig;
+	private final ExportJobManager exportJobManager;
 
 	// 常量定义：文件分隔符
 	private static final String FILE_DELIMITER = ",";
 
-	public CommonController(ServerConfig serverConfig) {
+	public CommonController(ServerConfig serverConfig, ExportJobManager exportJobManager) {
 		this.serverConfig = serverConfig;
+		this.exportJobManager = exportJobManager;
 	}
 
 	/**
@@ -89,6 +93,21 @@ public class CommonController {
 		}
 	}
 
+	/**
+	 * 查询异步导出任务
+	 *
+	 * @param jobId 任务ID
+	 * @return 任务状态、已写入行数、预估总数；完成后 fileName 可用于 /common/download 下载
+	 */
+	@GetMapping("/export/{jobId}")
+	public AjaxResult exportJob(@PathVariable String jobId) {
+		Map<String, Object> job = exportJobManager.getJob(jobId);
+		if (job == null) {
+			return AjaxResult.error("导出任务不存在或已过期");
+		}
+		return AjaxResult.success(job);
+	}
+
 	/**
 	 * 通用上传请求（单个文件）
 	 *
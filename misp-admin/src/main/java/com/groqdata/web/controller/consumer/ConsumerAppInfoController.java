@@ -73,9 +73,9 @@ public class ConsumerAppInfoController extends BaseController {
 	@Log(title = "应用信息", businessType = BusinessType.EXPORT)
 	@PostMapping("/export")
 	public void export(HttpServletResponse response, ConsumerAppInfo consumerAppInfo) {
-		List<ConsumerAppInfo> list = consumerAppInfoService.selectConsumerAppInfoList(consumerAppInfo);
 		ExcelUtil<ConsumerAppInfo> util = new ExcelUtil<>(ConsumerAppInfo.class);
-		util.exportExcel(response, list, "应用信息数据");
+		util.exportExcelStream(response,
+				sink -> consumerAppInfoService.selectConsumerAppInfoList(consumerAppInfo, sink), "应用信息数据");
 	}
 
 	/**
@@ -1,7 +1,7 @@
 package com.groqdata.web.controller.monitor;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,16 +12,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.connection.RedisServerCommands;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import com.alibaba.fastjson2.JSON;
 import com.groqdata.common.constant.CacheConstants;
+import com.groqdata.common.core.cache.LocalCacheRegistry;
 import com.groqdata.common.core.domain.AjaxResult;
+import com.groqdata.common.core.redis.RedisCache;
+import com.groqdata.common.core.redis.RedisSerializerStrategy;
+import com.groqdata.common.utils.DictUtils;
 import org.apache.commons.lang3.StringUtils;
+import com.groqdata.framework.config.FastJson2JsonRedisSerializer;
+import com.groqdata.framework.web.service.TokenService;
 import com.groqdata.system.domain.SysCache;
+import com.groqdata.system.service.ISysConfigService;
 
 /**
  * 缓存监控
@@ -39,6 +48,39 @@ public class CacheController {
 		this.redisTemplate = redisTemplate;
 	}
 
+	private RedisCache redisCache;
+
+	@Autowired
+	public void setRedisCache(RedisCache redisCache) {
+		this.redisCache = redisCache;
+	}
+
+	private RedisSerializerStrategy serializerStrategy;
+
+	@Autowired
+	public void setSerializerStrategy(RedisSerializerStrategy serializerStrategy) {
+		this.serializerStrategy = serializerStrategy;
+	}
+
+	private TokenService tokenService;
+
+	@Autowired
+	public void setTokenService(TokenService tokenService) {
+		this.tokenService = tokenService;
+	}
+
+	private ISysConfigService configService;
+
+	@Autowired
+	public void setConfigService(ISysConfigService configService) {
+		this.configService = configService;
+	}
+
+	/**
+	 * 未按前缀配置序列化方式的键使用的JSON序列化器
+	 */
+	private static final RedisSerializer<Object> JSON_SERIALIZER = new FastJson2JsonRedisSerializer<>(Object.class);
+
 	private static final List<SysCache> caches = new ArrayList<>();
 	static {
 		caches.add(new SysCache(CacheConstants.LOGIN_TOKEN_KEY, "用户信息"));
@@ -48,6 +90,7 @@ public class CacheController {
 		caches.add(new SysCache(CacheConstants.REPEAT_SUBMIT_KEY, "防重提交"));
 		caches.add(new SysCache(CacheConstants.RATE_LIMIT_KEY, "限流处理"));
 		caches.add(new SysCache(CacheConstants.PWD_ERR_CNT_KEY, "密码错误次数"));
+		caches.add(new SysCache(CacheConstants.ONLINE_INDEX_KEY, "在线会话索引"));
 	}
 
 	@PreAuthorize("@ss.hasPermit('monitor:cache:list')")
@@ -58,9 +101,10 @@ public class CacheController {
 				.execute((RedisCallback<Object>) connection -> connection.info("commandstats"));
 		Object dbSize = redisTemplate.execute((RedisCallback<Object>) RedisServerCommands::dbSize);
 
-		Map<String, Object> result = HashMap.newHashMap(3);
+		Map<String, Object> result = HashMap.newHashMap(4);
 		result.put("info", info);
 		result.put("dbSize", dbSize);
+		result.put("localCaches", LocalCacheRegistry.stats());
 
 		List<Map<String, String>> pieList = new ArrayList<>();
 		if (commandStats == null || commandStats.isEmpty()) {
@@ -86,14 +130,17 @@ public class CacheController {
 	@PreAuthorize("@ss.hasPermit('monitor:cache:list')")
 	@GetMapping("/getKeys/{cacheName}")
 	public AjaxResult getCacheKeys(@PathVariable String cacheName) {
-		Set<String> cacheKeys = redisTemplate.keys(cacheName + "*");
-		return AjaxResult.success(new TreeSet<>(cacheKeys));
+		Set<String> cacheKeys = new TreeSet<>();
+		redisCache.scan(cacheName + "*", cacheKeys::addAll);
+		return AjaxResult.success(cacheKeys);
 	}
 
 	@PreAuthorize("@ss.hasPermit('monitor:cache:list')")
 	@GetMapping("/getValue/{cacheName}/{cacheKey}")
 	public AjaxResult getCacheValue(@PathVariable String cacheName, @PathVariable String cacheKey) {
-		String cacheValue = redisTemplate.opsForValue().get(cacheKey);
+		byte[] rawValue = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands()
+				.get(cacheKey.getBytes(StandardCharsets.UTF_8)));
+		String cacheValue = rawValue == null ? null : decodeCacheValue(cacheKey, rawValue);
 		SysCache sysCache = new SysCache(cacheName, cacheKey, cacheValue);
 		return AjaxResult.success(sysCache);
 	}
@@ -101,9 +148,16 @@ public class CacheController {
 	@PreAuthorize("@ss.hasPermit('monitor:cache:list')")
 	@DeleteMapping("/clearCacheName/{cacheName}")
 	public AjaxResult clearCacheName(@PathVariable String cacheName) {
-		Collection<String> cacheKeys = redisTemplate.keys(cacheName + "*");
-		if (cacheKeys != null && !cacheKeys.isEmpty()) {
-			redisTemplate.delete(cacheKeys);
+		// 带本地缓存的类型同时失效各节点的本地缓存
+		if (CacheConstants.SYS_CONFIG_KEY.equals(cacheName)) {
+			configService.clearConfigCache();
+		} else if (CacheConstants.SYS_DICT_KEY.equals(cacheName)) {
+			DictUtils.clearDictCache();
+		} else {
+			redisCache.deleteByPattern(cacheName + "*");
+			if (CacheConstants.LOGIN_TOKEN_KEY.equals(cacheName)) {
+				tokenService.clearLocalCache();
+			}
 		}
 		return AjaxResult.success();
 	}
@@ -111,7 +165,17 @@ public class CacheController {
 	@PreAuthorize("@ss.hasPermit('monitor:cache:list')")
 	@DeleteMapping("/clearCacheKey/{cacheKey}")
 	public AjaxResult clearCacheKey(@PathVariable String cacheKey) {
-		if (StringUtils.isNotBlank(cacheKey)) {
+		if (StringUtils.isBlank(cacheKey)) {
+			return AjaxResult.success();
+		}
+		// 带本地缓存的类型同时失效各节点的本地缓存
+		if (cacheKey.startsWith(CacheConstants.LOGIN_TOKEN_KEY)) {
+			tokenService.delLoginUser(StringUtils.removeStart(cacheKey, CacheConstants.LOGIN_TOKEN_KEY));
+		} else if (cacheKey.startsWith(CacheConstants.SYS_CONFIG_KEY)) {
+			configService.removeConfigCache(StringUtils.removeStart(cacheKey, CacheConstants.SYS_CONFIG_KEY));
+		} else if (cacheKey.startsWith(CacheConstants.SYS_DICT_KEY)) {
+			DictUtils.removeDictCache(StringUtils.removeStart(cacheKey, CacheConstants.SYS_DICT_KEY));
+		} else {
 			redisTemplate.delete(cacheKey);
 		}
 		return AjaxResult.success();
@@ -120,10 +184,24 @@ public class CacheController {
 	@PreAuthorize("@ss.hasPermit('monitor:cache:list')")
 	@DeleteMapping("/clearCacheAll")
 	public AjaxResult clearCacheAll() {
-		Collection<String> cacheKeys = redisTemplate.keys("*");
-		if (cacheKeys != null && !cacheKeys.isEmpty()) {
-			redisTemplate.delete(cacheKeys);
-		}
+		redisCache.deleteByPattern("*");
+		// redis已清空，只需失效各节点的本地缓存
+		tokenService.clearLocalCache();
+		configService.clearConfigCache();
+		DictUtils.clearDictCache();
 		return AjaxResult.success();
 	}
+
+	/**
+	 * 按键前缀选择序列化器解析缓存值（JSONB等二进制格式），以JSON文本展示；无法解析时按原始文本展示
+	 */
+	private String decodeCacheValue(String cacheKey, byte[] rawValue) {
+		RedisSerializer<Object> serializer = serializerStrategy.resolve(cacheKey);
+		try {
+			Object value = (serializer != null ? serializer : JSON_SERIALIZER).deserialize(rawValue);
+			return value instanceof String str ? str : JSON.toJSONString(value);
+		} catch (Exception e) {
+			return new String(rawValue, StandardCharsets.UTF_8);
+		}
+	}
 }
@@ -55,9 +55,9 @@ public class SysLogininforController extends BaseController {
 	@PreAuthorize("@ss.hasPermit('monitor:logininfor:export')")
 	@PostMapping("/export")
 	public void export(HttpServletResponse response, SysLogininfor logininfor) {
-		List<SysLogininfor> list = logininforService.selectLogininforList(logininfor);
 		ExcelUtil<SysLogininfor> util = new ExcelUtil<>(SysLogininfor.class);
-		util.exportExcel(response, list, "登录日志");
+		util.exportExcelStream(response, sink -> logininforService.selectLogininforList(logininfor, sink),
+				"登录日志");
 	}
 
 	@PreAuthorize("@ss.hasPermit('monitor:logininfor:remove')")
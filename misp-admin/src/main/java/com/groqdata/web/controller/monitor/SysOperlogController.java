@@ -15,7 +15,10 @@ import com.groqdata.common.core.controller.BaseController;
 import com.groqdata.common.core.domain.AjaxResult;
 import com.groqdata.common.core.page.TableDataInfo;
 import com.groqdata.common.enums.BusinessType;
+import com.groqdata.common.utils.PageUtils;
 import com.groqdata.common.utils.poi.ExcelUtil;
+import com.groqdata.framework.manager.AsyncLogManager;
+import com.groqdata.framework.manager.ExportJobManager;
 import com.groqdata.system.domain.SysOperLog;
 import com.groqdata.system.service.ISysOperLogService;
 
@@ -35,6 +38,20 @@ public class SysOperlogController extends BaseController {
 		this.operLogService = operLogService;
 	}
 
+	private AsyncLogManager asyncLogManager;
+
+	@Autowired
+	public void setAsyncLogManager(AsyncLogManager asyncLogManager) {
+		this.asyncLogManager = asyncLogManager;
+	}
+
+	private ExportJobManager exportJobManager;
+
+	@Autowired
+	public void setExportJobManager(ExportJobManager exportJobManager) {
+		this.exportJobManager = exportJobManager;
+	}
+
 	@PreAuthorize("@ss.hasPermit('monitor:operlog:list')")
 	@GetMapping("/list")
 	public TableDataInfo<SysOperLog> list(SysOperLog operLog) {
@@ -47,9 +64,21 @@ public class SysOperlogController extends BaseController {
 	@PreAuthorize("@ss.hasPermit('monitor:operlog:export')")
 	@PostMapping("/export")
 	public void export(HttpServletResponse response, SysOperLog operLog) {
-		List<SysOperLog> list = operLogService.selectOperLogList(operLog);
 		ExcelUtil<SysOperLog> util = new ExcelUtil<>(SysOperLog.class);
-		util.exportExcel(response, list, "操作日志");
+		util.exportExcelStream(response, sink -> operLogService.selectOperLogList(operLog, sink), "操作日志");
+	}
+
+	/**
+	 * 提交异步导出任务，通过 /common/export/{jobId} 查询进度
+	 */
+	@Log(title = "操作日志", businessType = BusinessType.EXPORT)
+	@PreAuthorize("@ss.hasPermit('monitor:operlog:export')")
+	@PostMapping("/exportAsync")
+	public AjaxResult exportAsync(SysOperLog operLog) {
+		long total = PageUtils.count(() -> operLogService.selectOperLogList(operLog));
+		String jobId = exportJobManager.submit(SysOperLog.class, "操作日志", total,
+				sink -> operLogService.selectOperLogList(operLog, sink));
+		return success().put("jobId", jobId);
 	}
 
 	@Log(title = "操作日志", businessType = BusinessType.DELETE)
@@ -66,4 +95,13 @@ public class SysOperlogController extends BaseController {
 		operLogService.cleanOperLog();
 		return success();
 	}
+
+	/**
+	 * 日志批量写入队列运行指标
+	 */
+	@PreAuthorize("@ss.hasPermit('monitor:operlog:list')")
+	@GetMapping("/metrics")
+	public AjaxResult metrics() {
+		return success(asyncLogManager.metrics());
+	}
 }
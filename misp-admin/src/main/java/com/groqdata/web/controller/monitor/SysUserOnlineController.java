@@ -1,11 +1,8 @@
 package com.groqdata.web.controller.monitor;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,14 +12,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.groqdata.common.annotation.Log;
-import com.groqdata.common.constant.CacheConstants;
+import com.groqdata.common.constant.HttpStatus;
 import com.groqdata.common.core.controller.BaseController;
 import com.groqdata.common.core.domain.AjaxResult;
 import com.groqdata.common.core.domain.model.LoginUser;
+import com.groqdata.common.core.page.PageDomain;
 import com.groqdata.common.core.page.TableDataInfo;
-import com.groqdata.common.core.redis.RedisCache;
+import com.groqdata.common.core.page.TableSupport;
 import com.groqdata.common.enums.BusinessType;
-import com.groqdata.common.utils.basic.StringHelper;
+import com.groqdata.framework.web.service.TokenService;
 import com.groqdata.system.domain.SysUserOnline;
 import com.groqdata.system.service.ISysUserOnlineService;
 
@@ -42,33 +40,30 @@ public class SysUserOnlineController extends BaseController {
 		this.userOnlineService = userOnlineService;
 	}
 
-	private RedisCache redisCache;
+	private TokenService tokenService;
 
 	@Autowired
-	public void setRedisCache(RedisCache redisCache) {
-		this.redisCache = redisCache;
+	public void setTokenService(TokenService tokenService) {
+		this.tokenService = tokenService;
 	}
 
 	@PreAuthorize("@ss.hasPermit('monitor:online:list')")
 	@GetMapping("/list")
 	public TableDataInfo<SysUserOnline> list(String ipaddr, String userName) {
-		Collection<String> keys = redisCache.keys(CacheConstants.LOGIN_TOKEN_KEY + "*");
+		PageDomain pageDomain = TableSupport.buildPageRequest();
 		List<SysUserOnline> userOnlineList = new ArrayList<>();
-		for (String key : keys) {
-			LoginUser user = redisCache.getCacheObject(key);
-			if (StringUtils.isNotEmpty(ipaddr) && StringUtils.isNotEmpty(userName)) {
-				userOnlineList.add(userOnlineService.selectOnlineByInfo(ipaddr, userName, user));
-			} else if (StringUtils.isNotEmpty(ipaddr)) {
-				userOnlineList.add(userOnlineService.selectOnlineByIpaddr(ipaddr, user));
-			} else if (StringUtils.isNotEmpty(userName) && StringHelper.isNotNull(user.getUser())) {
-				userOnlineList.add(userOnlineService.selectOnlineByUserName(userName, user));
-			} else {
-				userOnlineList.add(userOnlineService.loginUserToUserOnline(user));
+		for (LoginUser user : tokenService.selectOnlineUsers(ipaddr, userName, pageDomain.getPageNum(),
+				pageDomain.getPageSize())) {
+			SysUserOnline userOnline = userOnlineService.loginUserToUserOnline(user);
+			if (userOnline != null) {
+				userOnlineList.add(userOnline);
 			}
 		}
-		Collections.reverse(userOnlineList);
-		userOnlineList.removeAll(Collections.singleton(null));
-		return getDataTable(userOnlineList);
+		TableDataInfo<SysUserOnline> rspData = new TableDataInfo<>(userOnlineList,
+				tokenService.countOnlineUsers(ipaddr, userName));
+		rspData.setCode(HttpStatus.SUCCESS);
+		rspData.setMsg("查询成功");
+		return rspData;
 	}
 
 	/**
@@ -78,7 +73,7 @@ public class SysUserOnlineController extends BaseController {
 	@Log(title = "在线用户", businessType = BusinessType.FORCE)
 	@DeleteMapping("/{tokenId}")
 	public AjaxResult forceLogout(@PathVariable String tokenId) {
-		redisCache.deleteObject(CacheConstants.LOGIN_TOKEN_KEY + tokenId);
+		tokenService.delLoginUser(tokenId);
 		return success();
 	}
 }
@@ -1,6 +1,5 @@
 package com.groqdata.web.controller.system;
 
-import java.util.List;
 import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,7 +8,6 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import com.groqdata.common.constant.Constants;
 import com.groqdata.common.core.domain.AjaxResult;
-import com.groqdata.common.core.domain.entity.SysMenu;
 import com.groqdata.common.core.domain.entity.SysUser;
 import com.groqdata.common.core.domain.model.LoginBody;
 import com.groqdata.common.utils.SecurityUtils;
@@ -88,8 +86,7 @@ public class SysLoginController {
 	 */
 	@GetMapping("getRouters")
 	public AjaxResult getRouters() {
-		Long userId = SecurityUtils.getUserId();
-		List<SysMenu> menus = menuService.selectMenuTreeByUserId(userId);
-		return AjaxResult.success(menuService.buildMenus(menus));
+		SysUser user = SecurityUtils.getLoginUser().getUser();
+		return AjaxResult.success(menuService.selectRoutersByUser(user));
 	}
 }
@@ -28,9 +28,12 @@ import com.groqdata.common.core.domain.entity.SysRole;
 import com.groqdata.common.core.domain.entity.SysUser;
 import com.groqdata.common.core.page.TableDataInfo;
 import com.groqdata.common.enums.BusinessType;
+import com.groqdata.common.exception.ServiceException;
+import com.groqdata.common.utils.PageUtils;
 import com.groqdata.common.utils.SecurityUtils;
 import com.groqdata.common.utils.basic.StringHelper;
 import com.groqdata.common.utils.poi.ExcelUtil;
+import com.groqdata.framework.manager.ExportJobManager;
 import com.groqdata.system.service.ISysDeptService;
 import com.groqdata.system.service.ISysPostService;
 import com.groqdata.system.service.ISysRoleService;
@@ -75,6 +78,13 @@ public class SysUserController extends BaseController {
 		this.postService = postService;
 	}
 
+	private ExportJobManager exportJobManager;
+
+	@Autowired
+	public void setExportJobManager(ExportJobManager exportJobManager) {
+		this.exportJobManager = exportJobManager;
+	}
+
 	/**
 	 * 获取用户列表
 	 */
@@ -90,19 +100,37 @@ public class SysUserController extends BaseController {
 	@PreAuthorize("@ss.hasPermit('system:user:export')")
 	@PostMapping("/export")
 	public void export(HttpServletResponse response, SysUser user) {
-		List<SysUser> list = userService.selectUserList(user);
 		ExcelUtil<SysUser> util = new ExcelUtil<>(SysUser.class);
-		util.exportExcel(response, list, "用户数据");
+		util.exportExcelStream(response, sink -> userService.selectUserList(user, sink), "用户数据");
+	}
+
+	/**
+	 * 提交异步导出任务，通过 /common/export/{jobId} 查询进度
+	 */
+	@Log(title = "用户管理", businessType = BusinessType.EXPORT)
+	@PreAuthorize("@ss.hasPermit('system:user:export')")
+	@PostMapping("/exportAsync")
+	public AjaxResult exportAsync(SysUser user) {
+		long total = PageUtils.count(() -> userService.selectUserList(user));
+		String jobId = exportJobManager.submit(SysUser.class, "用户数据", total,
+				sink -> userService.selectUserList(user, sink));
+		return success().put("jobId", jobId);
 	}
 
 	@Log(title = "用户管理", businessType = BusinessType.IMPORT)
 	@PreAuthorize("@ss.hasPermit('system:user:import')")
 	@PostMapping("/importData")
-	public AjaxResult importData(MultipartFile file, boolean updateSupport) throws IOException {
+	public AjaxResult importData(MultipartFile file, boolean updateSupport) {
 		ExcelUtil<SysUser> util = new ExcelUtil<>(SysUser.class);
-		List<SysUser> userList = util.importExcel(file.getInputStream());
 		String operName = getUsername();
-		String message = userService.importUser(userList, updateSupport, operName);
+		// 逐行解析并导入，不在内存中汇总全部行
+		String message = userService.importUser(consumer -> {
+			try {
+				util.importExcelStream(file.getInputStream(), consumer);
+			} catch (IOException e) {
+				throw new ServiceException("读取导入文件失败：" + e.getMessage());
+			}
+		}, updateSupport, operName);
 		return success(message);
 	}
 
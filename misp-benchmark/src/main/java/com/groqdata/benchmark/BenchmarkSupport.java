@@ -0,0 +1,59 @@
+package com.groqdata.benchmark;
+
+import java.lang.reflect.Field;
+
+/**
+ * 基准测试辅助方法：脱离Spring容器构造组件时，为 @Value 注入的私有字段赋值
+ *
+ * @author MISP TEAM
+ */
+public class BenchmarkSupport {
+
+	private BenchmarkSupport() {
+		throw new IllegalStateException("工具类不可实例化");
+	}
+
+	/**
+	 * 设置对象（含父类）中的私有字段
+	 *
+	 * @param target 目标对象
+	 * @param name 字段名
+	 * @param value 字段值
+	 */
+	public static void setField(Object target, String name, Object value) {
+		try {
+			findField(target.getClass(), name).set(target, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 读取对象（含父类）中的私有字段
+	 *
+	 * @param target 目标对象
+	 * @param name 字段名
+	 * @return 字段值
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T getField(Object target, String name) {
+		try {
+			return (T) findField(target.getClass(), name).get(target);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Field findField(Class<?> type, String name) {
+		for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+			try {
+				Field field = current.getDeclaredField(name);
+				field.setAccessible(true);
+				return field;
+			} catch (NoSuchFieldException e) {
+				// 继续查找父类
+			}
+		}
+		throw new IllegalArgumentException(type.getName() + " 中不存在字段 " + name);
+	}
+}
@@ -0,0 +1,220 @@
+package com.groqdata.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 部门子树查询：sys_dept_closure 闭包表 与 改造前的 find_in_set(dept_id, ancestors)，需要PostgreSQL
+ * <p>
+ * 在独立的 misp_bench 模式中按每个父部门8个子部门生成部门、每个部门20个用户，闭包表按
+ * 升级脚本（sql/升级-sys_dept_closure.sql）的方式由 ancestors 回填，结束后删除该模式。
+ * 查询语句与 SysUserMapper.selectUserList、SysDeptMapper.selectChildrenDeptById 改造前后一致，
+ * 每次调用轮流查询第二级的各个部门。
+ * 运行：java -Dbench.jdbc.url=jdbc:postgresql://127.0.0.1:5432/misp -Dbench.jdbc.username=postgres
+ * -Dbench.jdbc.password=*** -jar misp-benchmark/target/benchmarks.jar DeptSubtreeQueryBenchmark
+ *
+ * @author MISP TEAM
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeptSubtreeQueryBenchmark {
+	private static final String SCHEMA = "misp_bench";
+
+	private static final int FAN_OUT = 8;
+
+	private static final int USERS_PER_DEPT = 20;
+
+	private static final String USER_FIND_IN_SET = "select count(*) from sys_user u where u.del_flag = '0'"
+			+ " and (u.dept_id = ? or u.dept_id in (select t.dept_id from sys_dept t where find_in_set(?, ancestors)))";
+
+	private static final String USER_CLOSURE = "select count(*) from sys_user u where u.del_flag = '0'"
+			+ " and u.dept_id in (select c.descendant_id from sys_dept_closure c where c.ancestor_id = ?)";
+
+	private static final String CHILDREN_FIND_IN_SET = "select * from sys_dept where find_in_set(?, ancestors)";
+
+	private static final String CHILDREN_CLOSURE = "select d.* from sys_dept d"
+			+ " inner join sys_dept_closure c on d.dept_id = c.descendant_id where c.ancestor_id = ? and c.depth > 0";
+
+	@Param({"1000", "10000"})
+	private int deptCount;
+
+	private Connection connection;
+
+	private PreparedStatement userFindInSet;
+
+	private PreparedStatement userClosure;
+
+	private PreparedStatement childrenFindInSet;
+
+	private PreparedStatement childrenClosure;
+
+	private long[] queryDeptIds;
+
+	private int cursor;
+
+	@Setup
+	public void setUp() throws SQLException {
+		connection = DriverManager.getConnection(
+				System.getProperty("bench.jdbc.url", "jdbc:postgresql://127.0.0.1:5432/misp"),
+				System.getProperty("bench.jdbc.username", "postgres"),
+				System.getProperty("bench.jdbc.password", "postgres"));
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("drop schema if exists " + SCHEMA + " cascade");
+			statement.execute("create schema " + SCHEMA);
+			statement.execute("set search_path to " + SCHEMA);
+			statement.execute("create table sys_dept (dept_id int8 primary key, parent_id int8 default 0,"
+					+ " ancestors varchar(50), dept_name varchar(30), order_num int4, status char(1) default '0',"
+					+ " del_flag char(1) default '0')");
+			statement.execute("create table sys_user (user_id int8 primary key, dept_id int8,"
+					+ " user_name varchar(30), del_flag char(1) default '0')");
+			statement.execute("create index idx_sys_user_dept on sys_user (dept_id)");
+			statement.execute("create table sys_dept_closure (ancestor_id int8 not null, descendant_id int8 not null,"
+					+ " depth int4 not null, primary key (ancestor_id, descendant_id))");
+			statement.execute("create index idx_sys_dept_closure_descendant on sys_dept_closure (descendant_id, ancestor_id)");
+			// 与 sql/第一步-postgresql.sql 中的 find_in_set 函数一致
+			statement.execute("create or replace function find_in_set(int8, varchar) returns bool as $$"
+					+ " declare pos integer; begin"
+					+ " select position(',' || $1 || ',' in ',' || $2 || ',') into pos; return pos > 0;"
+					+ " end; $$ language plpgsql");
+		}
+		insertDepts();
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("insert into sys_dept_closure (ancestor_id, descendant_id, depth)"
+					+ " select dept_id, dept_id, 0 from sys_dept");
+			statement.execute("insert into sys_dept_closure (ancestor_id, descendant_id, depth)"
+					+ " select a.ancestor::int8, d.dept_id, cardinality(string_to_array(d.ancestors, ',')) - a.ord + 1"
+					+ " from sys_dept d cross join lateral unnest(string_to_array(d.ancestors, ','))"
+					+ " with ordinality as a(ancestor, ord) where a.ancestor <> '0'");
+			statement.execute("analyze sys_dept");
+			statement.execute("analyze sys_user");
+			statement.execute("analyze sys_dept_closure");
+		}
+		userFindInSet = connection.prepareStatement(USER_FIND_IN_SET);
+		userClosure = connection.prepareStatement(USER_CLOSURE);
+		childrenFindInSet = connection.prepareStatement(CHILDREN_FIND_IN_SET);
+		childrenClosure = connection.prepareStatement(CHILDREN_CLOSURE);
+	}
+
+	/**
+	 * 部门 100 为根，部门 id 的父部门为 (id - 101) / FAN_OUT + 100
+	 */
+	private void insertDepts() throws SQLException {
+		String[] ancestors = new String[deptCount];
+		List<Long> secondLevel = new ArrayList<>();
+		try (PreparedStatement dept = connection.prepareStatement(
+				"insert into sys_dept (dept_id, parent_id, ancestors, dept_name, order_num) values (?, ?, ?, ?, ?)");
+				PreparedStatement user = connection.prepareStatement(
+						"insert into sys_user (user_id, dept_id, user_name) values (?, ?, ?)")) {
+			long userId = 1;
+			for (int i = 0; i < deptCount; i++) {
+				long deptId = 100L + i;
+				long parentId = i == 0 ? 0 : (deptId - 101) / FAN_OUT + 100;
+				ancestors[i] = i == 0 ? "0" : ancestors[(int) (parentId - 100)] + "," + parentId;
+				if (parentId == 100) {
+					secondLevel.add(deptId);
+				}
+				dept.setLong(1, deptId);
+				dept.setLong(2, parentId);
+				dept.setString(3, ancestors[i]);
+				dept.setString(4, "部门" + deptId);
+				dept.setInt(5, i % FAN_OUT);
+				dept.addBatch();
+				for (int u = 0; u < USERS_PER_DEPT; u++) {
+					user.setLong(1, userId);
+					user.setLong(2, deptId);
+					user.setString(3, "user" + userId);
+					user.addBatch();
+					userId++;
+				}
+				if (i % 500 == 499) {
+					dept.executeBatch();
+					user.executeBatch();
+				}
+			}
+			dept.executeBatch();
+			user.executeBatch();
+		}
+		queryDeptIds = secondLevel.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("drop schema if exists " + SCHEMA + " cascade");
+		} finally {
+			connection.close();
+		}
+	}
+
+	@Benchmark
+	public long userListFindInSet() throws SQLException {
+		long deptId = nextDeptId();
+		userFindInSet.setLong(1, deptId);
+		userFindInSet.setLong(2, deptId);
+		return count(userFindInSet);
+	}
+
+	@Benchmark
+	public long userListClosure() throws SQLException {
+		userClosure.setLong(1, nextDeptId());
+		return count(userClosure);
+	}
+
+	@Benchmark
+	public long childrenFindInSet() throws SQLException {
+		childrenFindInSet.setLong(1, nextDeptId());
+		return rows(childrenFindInSet);
+	}
+
+	@Benchmark
+	public long childrenClosure() throws SQLException {
+		childrenClosure.setLong(1, nextDeptId());
+		return rows(childrenClosure);
+	}
+
+	private long nextDeptId() {
+		cursor = cursor + 1 == queryDeptIds.length ? 0 : cursor + 1;
+		return queryDeptIds[cursor];
+	}
+
+	private static long count(PreparedStatement statement) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery()) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+
+	private static long rows(PreparedStatement statement) throws SQLException {
+		long rows = 0;
+		try (ResultSet resultSet = statement.executeQuery()) {
+			while (resultSet.next()) {
+				rows++;
+			}
+		}
+		return rows;
+	}
+}
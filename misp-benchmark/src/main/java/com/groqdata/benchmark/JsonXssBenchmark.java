@@ -0,0 +1,98 @@
+package com.groqdata.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.groqdata.common.utils.html.EscapeUtil;
+import com.groqdata.common.utils.html.JsonXssCleaner;
+
+/**
+ * 1MB JSON请求体的XSS过滤：JsonXssCleaner 字节扫描 与 改造前的整段文本过滤
+ * <p>
+ * 改造前为 IOUtils.toString、EscapeUtil.clean、getBytes 三步，改造后为 IOUtils.toByteArray 与 JsonXssCleaner.clean，
+ * 两者都从输入流读取，包含读取请求体的开销。请求体为固定随机种子生成的对象数组（中英文混合的字符串、数字、布尔值），
+ * tagPercent 为包含HTML标签的字符串所占百分比。
+ * 运行：java -jar misp-benchmark/target/benchmarks.jar JsonXssBenchmark
+ *
+ * @author MISP TEAM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonXssBenchmark {
+	private static final int BODY_SIZE = 1024 * 1024;
+
+	private static final String[] WORDS = {"订单", "客户", "备注", "order", "status", "remark", "深圳市南山区", "description"};
+
+	private static final String[] TAGS = {"<b>粗体</b>", "<script>alert(1)</script>", "<img src=javascript:alert(1)>",
+			"\\u003cscript\\u003ealert(1)\\u003c/script\\u003e"};
+
+	@Param({"0", "1", "10"})
+	private int tagPercent;
+
+	private byte[] body;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		StringBuilder sb = new StringBuilder(BODY_SIZE + 256).append('[');
+		int id = 0;
+		while (sb.length() < BODY_SIZE) {
+			if (id > 0) {
+				sb.append(',');
+			}
+			sb.append("{\"id\":").append(id++)
+					.append(",\"name\":\"").append(text(random))
+					.append("\",\"remark\":\"").append(text(random))
+					.append("\",\"amount\":").append(random.nextInt(100000) / 100.0)
+					.append(",\"enabled\":").append(random.nextBoolean()).append('}');
+		}
+		body = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private String text(Random random) {
+		StringBuilder sb = new StringBuilder();
+		int words = 2 + random.nextInt(6);
+		for (int i = 0; i < words; i++) {
+			sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		if (random.nextInt(100) < tagPercent) {
+			sb.append(TAGS[random.nextInt(TAGS.length)]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 改造前 XssHttpServletRequestWrapper.getInputStream 的实现
+	 */
+	@Benchmark
+	public byte[] escapeUtil() throws IOException {
+		String json = IOUtils.toString(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+		json = EscapeUtil.clean(json).trim();
+		return json.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public byte[] jsonXssCleaner() throws IOException {
+		return JsonXssCleaner.clean(IOUtils.toByteArray(new ByteArrayInputStream(body)));
+	}
+}
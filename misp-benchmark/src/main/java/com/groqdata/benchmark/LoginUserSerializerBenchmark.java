@@ -0,0 +1,148 @@
+package com.groqdata.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.groqdata.common.core.domain.entity.SysDept;
+import com.groqdata.common.core.domain.entity.SysRole;
+import com.groqdata.common.core.domain.entity.SysUser;
+import com.groqdata.common.core.domain.model.LoginUser;
+import com.groqdata.framework.config.FastJson2JsonRedisSerializer;
+import com.groqdata.framework.config.JsonbRedisSerializer;
+
+/**
+ * 登录用户在redis中的序列化体积与编解码耗时：JSON文本 与 JSONB（压缩阈值取默认的1024字节，及不压缩）
+ * <p>
+ * 样本为3个角色、300个权限标识的普通用户，序列化后的字节数在初始化时输出。
+ * 运行：java -jar misp-benchmark/target/benchmarks.jar LoginUserSerializerBenchmark
+ *
+ * @author MISP TEAM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginUserSerializerBenchmark {
+
+	/**
+	 * json：FastJson2JsonRedisSerializer；jsonb：JsonbRedisSerializer不压缩；jsonb-deflate：超过1024字节时压缩
+	 */
+	@Param({"json", "jsonb", "jsonb-deflate"})
+	private String format;
+
+	private RedisSerializer<Object> serializer;
+
+	private LoginUser loginUser;
+
+	private byte[] payload;
+
+	@Setup
+	public void setUp() {
+		serializer = switch (format) {
+			case "json" -> new FastJson2JsonRedisSerializer<>(Object.class);
+			case "jsonb" -> new JsonbRedisSerializer<>(Object.class, 0);
+			default -> new JsonbRedisSerializer<>(Object.class, 1024);
+		};
+		loginUser = newLoginUser();
+		payload = serializer.serialize(loginUser);
+		if (!(serializer.deserialize(payload) instanceof LoginUser)) {
+			throw new IllegalStateException("反序列化结果不是LoginUser");
+		}
+		System.out.printf("%n[%s] 登录用户序列化后 %d 字节%n", format, payload.length);
+	}
+
+	@Benchmark
+	public byte[] serialize() {
+		return serializer.serialize(loginUser);
+	}
+
+	@Benchmark
+	public Object deserialize() {
+		return serializer.deserialize(payload);
+	}
+
+	private static LoginUser newLoginUser() {
+		SysDept dept = new SysDept();
+		dept.setDeptId(105L);
+		dept.setParentId(101L);
+		dept.setAncestors("0,100,101");
+		dept.setDeptName("测试部门");
+		dept.setOrderNum(3);
+		dept.setLeader("若依");
+		dept.setStatus("0");
+
+		List<SysRole> roles = new ArrayList<>();
+		for (long i = 1; i <= 3; i++) {
+			SysRole role = new SysRole();
+			role.setRoleId(i + 1);
+			role.setRoleName("角色" + i);
+			role.setRoleKey("role_" + i);
+			role.setRoleSort((int) i);
+			role.setDataScope("4");
+			role.setStatus("0");
+			roles.add(role);
+		}
+
+		SysUser user = new SysUser();
+		user.setUserId(2L);
+		user.setDeptId(105L);
+		user.setUserName("zhangsan");
+		user.setNickName("张三");
+		user.setEmail("zhangsan@example.com");
+		user.setPhonenumber("15888888888");
+		user.setSex("0");
+		user.setAvatar("/profile/avatar/2024/01/01/avatar.png");
+		user.setPassword("$2a$10$7JB720yubVSZvUI0rEqK/.VqGOZTH.ulu33dHOiBE8ByOhJIrdAu2");
+		user.setStatus("0");
+		user.setDelFlag("0");
+		user.setLoginIp("192.168.1.10");
+		user.setLoginDate(new Date());
+		user.setCreateBy("admin");
+		user.setCreateTime(new Date());
+		user.setRemark("测试员");
+		user.setDept(dept);
+		user.setRoles(roles);
+
+		String[] modules = {"system", "monitor", "tool", "business"};
+		String[] entities = {"user", "role", "menu", "dept", "post", "dict", "config", "notice", "job", "order",
+			"customer", "contract", "invoice", "product", "supplier"};
+		String[] actions = {"list", "query", "add", "edit", "remove"};
+		Set<String> permissions = new HashSet<>();
+		for (String module : modules) {
+			for (String entity : entities) {
+				for (String action : actions) {
+					permissions.add(module + ":" + entity + ":" + action);
+				}
+			}
+		}
+
+		LoginUser loginUser = new LoginUser(2L, 105L, user, permissions);
+		loginUser.setToken("5f0c7d2b-3c9a-4e59-9f5a-0d3b7a6c1e42");
+		loginUser.setLoginTime(System.currentTimeMillis());
+		loginUser.setExpireTime(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(30));
+		loginUser.setIpaddr("192.168.1.10");
+		loginUser.setLoginLocation("内网IP");
+		loginUser.setBrowser("Chrome 12");
+		loginUser.setOs("Windows 10");
+		return loginUser;
+	}
+}
@@ -0,0 +1,152 @@
+package com.groqdata.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.groqdata.common.annotation.RateLimiter;
+import com.groqdata.common.enums.LimitAlgorithm;
+import com.groqdata.framework.config.FastJson2JsonRedisSerializer;
+import com.groqdata.framework.config.RedisConfig;
+import com.groqdata.framework.manager.RateLimitManager;
+
+/**
+ * 限流算法吞吐量：每次请求执行Lua脚本（REDIS） 与 本地令牌桶、滑动窗口、批量租用（HYBRID），需要本地redis
+ * <p>
+ * 8个线程争用同一个限流key，脚本取自 RedisConfig，RedisTemplate 的序列化方式与生产配置一致。
+ * 限流为每秒100万次：REDIS 达不到该上限，全部为放行路径；本地算法超过上限后同时包含拒绝路径。
+ * 滑动窗口按 count 预分配时间戳数组，count 不宜再调大。
+ * 测试数据写入 redis.database 指定的库（默认15），结束后按前缀删除。
+ * 运行：java -Dredis.host=127.0.0.1 -Dredis.port=6379 -jar misp-benchmark/target/benchmarks.jar RateLimitBenchmark
+ *
+ * @author MISP TEAM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimitBenchmark {
+	private static final String PREFIX = "bench:rate_limit:";
+
+	private LettuceConnectionFactory connectionFactory;
+
+	private RedisTemplate<Object, Object> redisTemplate;
+
+	private RateLimitManager rateLimitManager;
+
+	private RateLimiter redis;
+
+	private RateLimiter tokenBucket;
+
+	private RateLimiter slidingWindow;
+
+	private RateLimiter hybrid;
+
+	@Setup
+	public void setUp() {
+		RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+				System.getProperty("redis.host", "127.0.0.1"), Integer.getInteger("redis.port", 6379));
+		configuration.setDatabase(Integer.getInteger("redis.database", 15));
+		connectionFactory = new LettuceConnectionFactory(configuration);
+		connectionFactory.afterPropertiesSet();
+
+		redisTemplate = new RedisTemplate<>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.setKeySerializer(new StringRedisSerializer());
+		redisTemplate.setValueSerializer(new FastJson2JsonRedisSerializer<>(Object.class));
+		redisTemplate.afterPropertiesSet();
+		deleteKeys();
+
+		RedisConfig redisConfig = new RedisConfig();
+		rateLimitManager = new RateLimitManager();
+		BenchmarkSupport.setField(rateLimitManager, "localMaxKeys", 10000);
+		BenchmarkSupport.setField(rateLimitManager, "redisRetryInterval", 5000L);
+		rateLimitManager.setRedisTemplate(redisTemplate);
+		rateLimitManager.setLimitScript(redisConfig.limitScript());
+		rateLimitManager.setLimitLeaseScript(redisConfig.limitLeaseScript());
+		rateLimitManager.init();
+
+		redis = limiter("redisLimited");
+		tokenBucket = limiter("tokenBucketLimited");
+		slidingWindow = limiter("slidingWindowLimited");
+		hybrid = limiter("hybridLimited");
+	}
+
+	@TearDown
+	public void tearDown() {
+		deleteKeys();
+		connectionFactory.destroy();
+	}
+
+	@Benchmark
+	public boolean redisScript() {
+		return rateLimitManager.tryAcquire(PREFIX + "redis", redis);
+	}
+
+	@Benchmark
+	public boolean tokenBucket() {
+		return rateLimitManager.tryAcquire(PREFIX + "token_bucket", tokenBucket);
+	}
+
+	@Benchmark
+	public boolean slidingWindow() {
+		return rateLimitManager.tryAcquire(PREFIX + "sliding_window", slidingWindow);
+	}
+
+	@Benchmark
+	public boolean hybrid() {
+		return rateLimitManager.tryAcquire(PREFIX + "hybrid", hybrid);
+	}
+
+	private void deleteKeys() {
+		Set<Object> keys = redisTemplate.keys(PREFIX + "*");
+		if (keys != null && !keys.isEmpty()) {
+			redisTemplate.delete(keys);
+		}
+	}
+
+	private static RateLimiter limiter(String methodName) {
+		try {
+			Method method = RateLimitBenchmark.class.getDeclaredMethod(methodName);
+			return method.getAnnotation(RateLimiter.class);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@RateLimiter(count = 1000000, time = 1)
+	static void redisLimited() {
+	}
+
+	@RateLimiter(count = 1000000, time = 1, algorithm = LimitAlgorithm.TOKEN_BUCKET)
+	static void tokenBucketLimited() {
+	}
+
+	@RateLimiter(count = 1000000, time = 1, algorithm = LimitAlgorithm.SLIDING_WINDOW)
+	static void slidingWindowLimited() {
+	}
+
+	@RateLimiter(count = 1000000, time = 1, algorithm = LimitAlgorithm.HYBRID, batch = 100)
+	static void hybridLimited() {
+	}
+}
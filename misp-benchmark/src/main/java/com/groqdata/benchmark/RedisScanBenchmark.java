@@ -0,0 +1,148 @@
+package com.groqdata.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.groqdata.common.core.redis.RedisCache;
+import com.groqdata.common.core.redis.RedisSerializerStrategy;
+
+/**
+ * KEYS 与 SCAN 游标迭代的对比，需要本地redis
+ * <p>
+ * 每组两个线程：一个线程按模式取键（KEYS 或 RedisCache.keys 的 SCAN 迭代），另一个线程同时执行GET，
+ * 以GET的延迟分布衡量取键对其他请求的阻塞。测试数据写入 redis.database 指定的库（默认15），结束后按前缀删除。
+ * 运行：java -Dredis.host=127.0.0.1 -Dredis.port=6379 -jar misp-benchmark/target/benchmarks.jar RedisScanBenchmark
+ *
+ * @author MISP TEAM
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RedisScanBenchmark {
+	private static final String PREFIX = "bench:scan:";
+
+	private static final String MATCH_PATTERN = PREFIX + "login_tokens:*";
+
+	private static final String PROBE_KEY = PREFIX + "probe";
+
+	/**
+	 * 库中的键总数，其中1%匹配取键模式
+	 */
+	@Param({"100000", "1000000"})
+	private int totalKeys;
+
+	private LettuceConnectionFactory connectionFactory;
+
+	private RedisTemplate<String, Object> redisTemplate;
+
+	private RedisCache redisCache;
+
+	/**
+	 * GET线程独占的连接，避免与取键线程共享Lettuce的同一条连接而在客户端排队
+	 */
+	private LettuceConnectionFactory probeConnectionFactory;
+
+	private RedisConnection probeConnection;
+
+	@Setup
+	public void setUp() {
+		RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+				System.getProperty("redis.host", "127.0.0.1"), Integer.getInteger("redis.port", 6379));
+		configuration.setDatabase(Integer.getInteger("redis.database", 15));
+		connectionFactory = new LettuceConnectionFactory(configuration);
+		connectionFactory.afterPropertiesSet();
+		probeConnectionFactory = new LettuceConnectionFactory(configuration);
+		probeConnectionFactory.setShareNativeConnection(false);
+		probeConnectionFactory.afterPropertiesSet();
+
+		redisTemplate = new RedisTemplate<>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.setKeySerializer(new StringRedisSerializer());
+		redisTemplate.setValueSerializer(new StringRedisSerializer());
+		redisTemplate.afterPropertiesSet();
+		redisCache = new RedisCache(redisTemplate, new RedisSerializerStrategy());
+
+		redisCache.deleteByPattern(PREFIX + "*");
+		byte[] value = "1".getBytes(StandardCharsets.UTF_8);
+		int batch = 10000;
+		for (int start = 0; start < totalKeys; start += batch) {
+			int from = start;
+			int to = Math.min(totalKeys, start + batch);
+			redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+				for (int i = from; i < to; i++) {
+					String key = i % 100 == 0 ? PREFIX + "login_tokens:" + i : PREFIX + "other:" + i;
+					connection.set(key.getBytes(StandardCharsets.UTF_8), value);
+				}
+				return null;
+			});
+		}
+		redisTemplate.opsForValue().set(PROBE_KEY, "1");
+		probeConnection = probeConnectionFactory.getConnection();
+	}
+
+	@TearDown
+	public void tearDown() {
+		probeConnection.close();
+		probeConnectionFactory.destroy();
+		redisCache.deleteByPattern(PREFIX + "*");
+		connectionFactory.destroy();
+	}
+
+	@Benchmark
+	@Group("keys")
+	@GroupThreads(1)
+	public Set<String> keysCommand() {
+		return redisTemplate.keys(MATCH_PATTERN);
+	}
+
+	@Benchmark
+	@Group("keys")
+	@GroupThreads(1)
+	public Object getDuringKeys() {
+		return get();
+	}
+
+	@Benchmark
+	@Group("scan")
+	@GroupThreads(1)
+	public Collection<String> scanIteration() {
+		return redisCache.keys(MATCH_PATTERN);
+	}
+
+	@Benchmark
+	@Group("scan")
+	@GroupThreads(1)
+	public Object getDuringScan() {
+		return get();
+	}
+
+	private Object get() {
+		return probeConnection.get(PROBE_KEY.getBytes(StandardCharsets.UTF_8));
+	}
+}
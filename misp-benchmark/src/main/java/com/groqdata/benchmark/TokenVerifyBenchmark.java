@@ -0,0 +1,122 @@
+package com.groqdata.benchmark;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.groqdata.common.constant.Constants;
+import com.groqdata.common.core.domain.entity.SysUser;
+import com.groqdata.common.core.domain.model.LoginUser;
+import com.groqdata.framework.web.service.TokenService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * 认证过滤器解析令牌的开销：已验签令牌缓存命中 与 每次请求都做HS512验签（改造前的路径）
+ * <p>
+ * 登录用户预先放入本地缓存，两条路径都不访问redis，差值即为验签缓存节省的开销。
+ * 运行：java -jar misp-benchmark/target/benchmarks.jar TokenVerifyBenchmark
+ *
+ * @author MISP TEAM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TokenVerifyBenchmark {
+	private static final String HEADER = "Authorization";
+
+	private static final String SECRET = "abcdefghijklmnopqrstuvwxyz";
+
+	/**
+	 * 同时在线的令牌数
+	 */
+	@Param({"1", "1000"})
+	private int tokenCount;
+
+	private TokenService tokenService;
+
+	private Cache<String, LoginUser> localCache;
+
+	private String[] tokens;
+
+	private MockHttpServletRequest[] requests;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		tokenService = new TokenService(null, new RedisMessageListenerContainer(), null, null);
+		BenchmarkSupport.setField(tokenService, "header", HEADER);
+		BenchmarkSupport.setField(tokenService, "secret", SECRET);
+		BenchmarkSupport.setField(tokenService, "expireTime", 30);
+		BenchmarkSupport.setField(tokenService, "localCacheMaxSize", tokenCount * 2);
+		BenchmarkSupport.setField(tokenService, "localCacheExpireSeconds", 3600);
+		BenchmarkSupport.setField(tokenService, "verifiedCacheMaxSize", tokenCount * 2);
+		tokenService.init();
+		localCache = BenchmarkSupport.getField(tokenService, "localCache");
+
+		tokens = new String[tokenCount];
+		requests = new MockHttpServletRequest[tokenCount];
+		for (int i = 0; i < tokenCount; i++) {
+			String uuid = "uuid-" + i;
+			LoginUser loginUser = new LoginUser((long) i, 100L, new SysUser(), new HashSet<>());
+			loginUser.setToken(uuid);
+			loginUser.setExpireTime(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+			localCache.put(uuid, loginUser);
+			tokens[i] = Jwts.builder()
+					.setClaims(Map.of(Constants.LOGIN_USER_KEY, uuid))
+					.signWith(SignatureAlgorithm.HS512, SECRET).compact();
+			requests[i] = new MockHttpServletRequest();
+			requests[i].addHeader(HEADER, Constants.TOKEN_PREFIX + tokens[i]);
+		}
+	}
+
+	@Benchmark
+	public LoginUser withVerifiedCache(ThreadCursor cursor) {
+		return tokenService.getLoginUser(requests[cursor.next(tokenCount)]);
+	}
+
+	@Benchmark
+	public LoginUser withoutVerifiedCache(ThreadCursor cursor) {
+		String token = tokens[cursor.next(tokenCount)];
+		String uuid = (String) Jwts.parser()
+				.setSigningKey(SECRET)
+				.parseClaimsJws(token)
+				.getBody()
+				.get(Constants.LOGIN_USER_KEY);
+		return localCache.getIfPresent(uuid);
+	}
+
+	/**
+	 * 每个线程轮流使用不同的令牌
+	 */
+	@State(Scope.Thread)
+	public static class ThreadCursor {
+		private int index;
+
+		int next(int size) {
+			index = index + 1 == size ? 0 : index + 1;
+			return index;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.groqdata.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.groqdata.common.core.domain.entity.SysDept;
+import com.groqdata.common.utils.TreeUtils;
+
+/**
+ * 部门树构建：TreeUtils 按父节点索引的线性算法 与 改造前逐层扫描全表的递归算法
+ * <p>
+ * 部门按每个父部门8个子部门生成。递归算法在5万部门时单次需数秒，因此迭代次数较少。
+ * 运行：java -jar misp-benchmark/target/benchmarks.jar TreeBuildBenchmark
+ *
+ * @author MISP TEAM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TreeBuildBenchmark {
+
+	@Param({"1000", "10000", "50000"})
+	private int deptCount;
+
+	private List<SysDept> depts;
+
+	@Setup
+	public void setUp() {
+		depts = new ArrayList<>(deptCount);
+		for (long id = 100; id < 100 + deptCount; id++) {
+			SysDept dept = new SysDept();
+			dept.setDeptId(id);
+			dept.setParentId(id == 100 ? 0L : (id - 101) / 8 + 100);
+			dept.setDeptName("部门" + id);
+			depts.add(dept);
+		}
+	}
+
+	@Benchmark
+	public List<SysDept> treeUtils() {
+		return TreeUtils.buildTree(depts, SysDept::getDeptId, SysDept::getParentId, SysDept::setChildren);
+	}
+
+	@Benchmark
+	public List<SysDept> recursive() {
+		return buildDeptTree(depts);
+	}
+
+	/**
+	 * 改造前 SysDeptServiceImpl.buildDeptTree 的实现
+	 */
+	private static List<SysDept> buildDeptTree(List<SysDept> depts) {
+		List<SysDept> returnList = new ArrayList<>();
+		List<Long> tempList = depts.stream().map(SysDept::getDeptId).toList();
+		for (SysDept dept : depts) {
+			// 如果是顶级节点, 遍历该父节点的所有子节点
+			if (!tempList.contains(dept.getParentId())) {
+				recursionFn(depts, dept);
+				returnList.add(dept);
+			}
+		}
+		if (returnList.isEmpty()) {
+			returnList = depts;
+		}
+		return returnList;
+	}
+
+	private static void recursionFn(List<SysDept> list, SysDept t) {
+		List<SysDept> childList = getChildList(list, t);
+		t.setChildren(childList);
+		for (SysDept tChild : childList) {
+			if (hasChild(list, tChild)) {
+				recursionFn(list, tChild);
+			}
+		}
+	}
+
+	private static List<SysDept> getChildList(List<SysDept> list, SysDept t) {
+		List<SysDept> tlist = new ArrayList<>();
+		for (SysDept n : list) {
+			if (n.getParentId() != null && n.getParentId().longValue() == t.getDeptId().longValue()) {
+				tlist.add(n);
+			}
+		}
+		return tlist;
+	}
+
+	private static boolean hasChild(List<SysDept> list, SysDept t) {
+		return !getChildList(list, t).isEmpty();
+	}
+}
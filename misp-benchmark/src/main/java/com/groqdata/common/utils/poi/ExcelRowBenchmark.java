@@ -0,0 +1,404 @@
+package com.groqdata.common.utils.poi;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.groqdata.common.annotation.Excel;
+import com.groqdata.common.annotation.Excels;
+import com.groqdata.common.core.domain.entity.SysDept;
+import com.groqdata.common.utils.reflect.ReflectUtils;
+
+/**
+ * 20列实体的Excel逐行开销（结果按每行计）
+ * <p>
+ * readRow/writeRow 对比改造前逐单元格反射（Field.get、getDeclaredField、ReflectUtils.invokeSetter）与
+ * {@link ExcelClassMeta} 预先解析的 MethodHandle；exportRows 为包含POI写入的完整导出。
+ * 位于 ExcelClassMeta 同包以便直接访问。
+ * 运行：java -jar misp-benchmark/target/benchmarks.jar ExcelRowBenchmark
+ *
+ * @author MISP TEAM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExcelRowBenchmark {
+	private static final int ROWS = 1000;
+
+	private List<Row20> rows;
+
+	private List<ExcelClassMeta.Column> columns;
+
+	private Object[] cellValues;
+
+	@Setup
+	public void setUp() throws Exception {
+		rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			rows.add(Row20.sample(i));
+		}
+		columns = ExcelClassMeta.of(Row20.class).columns();
+		if (columns.size() != 20) {
+			throw new IllegalStateException("样本实体应为20列，实际" + columns.size());
+		}
+		// 改造前在创建ExcelUtil时对字段 setAccessible
+		for (ExcelClassMeta.Column column : columns) {
+			column.field().setAccessible(true);
+		}
+		// 导入时单元格解析后的值，按列顺序
+		Row20 sample = rows.get(0);
+		cellValues = new Object[columns.size()];
+		for (int i = 0; i < columns.size(); i++) {
+			ExcelClassMeta.Column column = columns.get(i);
+			if (StringUtils.isEmpty(column.attr().targetAttr())) {
+				cellValues[i] = ExcelClassMeta.get(sample, column.field());
+			}
+		}
+	}
+
+	/**
+	 * 改造前：逐单元格 Field.get，targetAttr 每次 getDeclaredField
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void readRowReflection(Blackhole blackhole) throws Exception {
+		for (Row20 row : rows) {
+			for (ExcelClassMeta.Column column : columns) {
+				Field field = column.field();
+				Object value = field.get(row);
+				String target = column.attr().targetAttr();
+				if (StringUtils.isNotEmpty(target) && value != null) {
+					Field targetField = value.getClass().getDeclaredField(target);
+					targetField.setAccessible(true);
+					value = targetField.get(value);
+				}
+				blackhole.consume(value);
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void readRowMethodHandle(Blackhole blackhole) throws Exception {
+		for (Row20 row : rows) {
+			for (ExcelClassMeta.Column column : columns) {
+				Object value = ExcelClassMeta.get(row, column.field());
+				String target = column.attr().targetAttr();
+				if (StringUtils.isNotEmpty(target) && value != null) {
+					value = ExcelClassMeta.of(value.getClass()).get(value, target);
+				}
+				blackhole.consume(value);
+			}
+		}
+	}
+
+	/**
+	 * 改造前：Class.newInstance 后逐单元格 ReflectUtils.invokeSetter
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void writeRowReflection(Blackhole blackhole) throws Exception {
+		for (int r = 0; r < ROWS; r++) {
+			Row20 entity = Row20.class.getDeclaredConstructor().newInstance();
+			for (int i = 0; i < cellValues.length; i++) {
+				if (cellValues[i] != null) {
+					ReflectUtils.invokeSetter(entity, columns.get(i).field().getName(), cellValues[i]);
+				}
+			}
+			blackhole.consume(entity);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void writeRowMethodHandle(Blackhole blackhole) throws Exception {
+		ExcelClassMeta meta = ExcelClassMeta.of(Row20.class);
+		for (int r = 0; r < ROWS; r++) {
+			Object entity = meta.newInstance();
+			for (int i = 0; i < cellValues.length; i++) {
+				if (cellValues[i] != null) {
+					meta.set(entity, columns.get(i).field().getName(), cellValues[i]);
+				}
+			}
+			blackhole.consume(entity);
+		}
+	}
+
+	/**
+	 * 完整导出：单元格样式、类型转换与POI写入
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int exportRows() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		new ExcelUtil<>(Row20.class).exportExcel(response, rows, "benchmark");
+		return response.getContentAsByteArray().length;
+	}
+
+	/**
+	 * 20列样本实体：18个普通列与2个关联属性列
+	 */
+	public static class Row20 {
+		@Excel(name = "编号", cellType = Excel.ColumnType.NUMERIC)
+		private Long id;
+
+		@Excel(name = "登录名")
+		private String userName;
+
+		@Excel(name = "昵称")
+		private String nickName;
+
+		@Excel(name = "邮箱")
+		private String email;
+
+		@Excel(name = "手机号")
+		private String phone;
+
+		@Excel(name = "性别", readConverterExp = "0=男,1=女,2=未知")
+		private String sex;
+
+		@Excel(name = "状态", readConverterExp = "0=正常,1=停用")
+		private String status;
+
+		@Excel(name = "年龄", cellType = Excel.ColumnType.NUMERIC)
+		private Integer age;
+
+		@Excel(name = "积分", cellType = Excel.ColumnType.NUMERIC)
+		private Long points;
+
+		@Excel(name = "余额", scale = 2)
+		private BigDecimal balance;
+
+		@Excel(name = "授信额度", scale = 2)
+		private BigDecimal creditLimit;
+
+		@Excel(name = "注册时间", width = 30, dateFormat = "yyyy-MM-dd HH:mm:ss")
+		private Date createTime;
+
+		@Excel(name = "最后登录", width = 30, dateFormat = "yyyy-MM-dd HH:mm:ss")
+		private Date loginDate;
+
+		@Excel(name = "登录IP")
+		private String loginIp;
+
+		@Excel(name = "省份")
+		private String province;
+
+		@Excel(name = "城市")
+		private String city;
+
+		@Excel(name = "地址")
+		private String address;
+
+		@Excel(name = "备注")
+		private String remark;
+
+		@Excels({
+			@Excel(name = "部门名称", targetAttr = "deptName"),
+			@Excel(name = "部门负责人", targetAttr = "leader")
+		})
+		private SysDept dept;
+
+		static Row20 sample(int i) {
+			SysDept dept = new SysDept();
+			dept.setDeptId(100L + i % 10);
+			dept.setDeptName("部门" + i % 10);
+			dept.setLeader("负责人" + i % 10);
+
+			Row20 row = new Row20();
+			row.setId((long) i);
+			row.setUserName("user" + i);
+			row.setNickName("用户" + i);
+			row.setEmail("user" + i + "@example.com");
+			row.setPhone("1580000" + String.format("%04d", i % 10000));
+			row.setSex(String.valueOf(i % 3));
+			row.setStatus(String.valueOf(i % 2));
+			row.setAge(20 + i % 40);
+			row.setPoints(i * 13L);
+			row.setBalance(BigDecimal.valueOf(i * 101L, 2));
+			row.setCreditLimit(BigDecimal.valueOf(500000L + i, 2));
+			row.setCreateTime(new Date());
+			row.setLoginDate(new Date());
+			row.setLoginIp("192.168.1." + i % 255);
+			row.setProvince("广东省");
+			row.setCity("深圳市");
+			row.setAddress("南山区科技园" + i + "号");
+			row.setRemark("备注" + i);
+			row.setDept(dept);
+			return row;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getUserName() {
+			return userName;
+		}
+
+		public void setUserName(String userName) {
+			this.userName = userName;
+		}
+
+		public String getNickName() {
+			return nickName;
+		}
+
+		public void setNickName(String nickName) {
+			this.nickName = nickName;
+		}
+
+		public String getEmail() {
+			return email;
+		}
+
+		public void setEmail(String email) {
+			this.email = email;
+		}
+
+		public String getPhone() {
+			return phone;
+		}
+
+		public void setPhone(String phone) {
+			this.phone = phone;
+		}
+
+		public String getSex() {
+			return sex;
+		}
+
+		public void setSex(String sex) {
+			this.sex = sex;
+		}
+
+		public String getStatus() {
+			return status;
+		}
+
+		public void setStatus(String status) {
+			this.status = status;
+		}
+
+		public Integer getAge() {
+			return age;
+		}
+
+		public void setAge(Integer age) {
+			this.age = age;
+		}
+
+		public Long getPoints() {
+			return points;
+		}
+
+		public void setPoints(Long points) {
+			this.points = points;
+		}
+
+		public BigDecimal getBalance() {
+			return balance;
+		}
+
+		public void setBalance(BigDecimal balance) {
+			this.balance = balance;
+		}
+
+		public BigDecimal getCreditLimit() {
+			return creditLimit;
+		}
+
+		public void setCreditLimit(BigDecimal creditLimit) {
+			this.creditLimit = creditLimit;
+		}
+
+		public Date getCreateTime() {
+			return createTime;
+		}
+
+		public void setCreateTime(Date createTime) {
+			this.createTime = createTime;
+		}
+
+		public Date getLoginDate() {
+			return loginDate;
+		}
+
+		public void setLoginDate(Date loginDate) {
+			this.loginDate = loginDate;
+		}
+
+		public String getLoginIp() {
+			return loginIp;
+		}
+
+		public void setLoginIp(String loginIp) {
+			this.loginIp = loginIp;
+		}
+
+		public String getProvince() {
+			return province;
+		}
+
+		public void setProvince(String province) {
+			this.province = province;
+		}
+
+		public String getCity() {
+			return city;
+		}
+
+		public void setCity(String city) {
+			this.city = city;
+		}
+
+		public String getAddress() {
+			return address;
+		}
+
+		public void setAddress(String address) {
+			this.address = address;
+		}
+
+		public String getRemark() {
+			return remark;
+		}
+
+		public void setRemark(String remark) {
+			this.remark = remark;
+		}
+
+		public SysDept getDept() {
+			return dept;
+		}
+
+		public void setDept(SysDept dept) {
+			this.dept = dept;
+		}
+	}
+}
@@ -6,6 +6,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import com.groqdata.common.constant.CacheConstants;
+import com.groqdata.common.enums.LimitAlgorithm;
 import com.groqdata.common.enums.LimitType;
 
 /**
@@ -36,4 +37,14 @@ public @interface RateLimiter {
 	 * 限流类型
 	 */
 	public LimitType limitType() default LimitType.DEFAULT;
+
+	/**
+	 * 限流算法
+	 */
+	public LimitAlgorithm algorithm() default LimitAlgorithm.REDIS;
+
+	/**
+	 * HYBRID 算法每次从Redis租用的许可数，0表示取限流次数的1/10
+	 */
+	public int batch() default 0;
 }
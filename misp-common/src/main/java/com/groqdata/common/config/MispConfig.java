@@ -26,6 +26,12 @@ public class MispConfig {
 	/** 获取地址开关 */
 	private static boolean addressEnabled;
 
+	/** 离线IP地址库文件路径 */
+	private static String addressDbPath;
+
+	/** 离线地址库未命中时是否调用远程接口查询 */
+	private static boolean addressRemoteEnabled;
+
 	/** 验证码类型 */
 	private static String captchaType;
 
@@ -69,6 +75,22 @@ public class MispConfig {
 		MispConfig.addressEnabled = addressEnabled;
 	}
 
+	public static String getAddressDbPath() {
+		return addressDbPath;
+	}
+
+	public void setAddressDbPath(String addressDbPath) {
+		MispConfig.addressDbPath = addressDbPath;
+	}
+
+	public static boolean isAddressRemoteEnabled() {
+		return addressRemoteEnabled;
+	}
+
+	public void setAddressRemoteEnabled(boolean addressRemoteEnabled) {
+		MispConfig.addressRemoteEnabled = addressRemoteEnabled;
+	}
+
 	public static String getCaptchaType() {
 		return captchaType;
 	}
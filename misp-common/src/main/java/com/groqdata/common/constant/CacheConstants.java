@@ -47,4 +47,49 @@ public class CacheConstants {
 	 * 登录账户密码错误次数 redis key
 	 */
 	public static final String PWD_ERR_CNT_KEY = "pwd_err_cnt:";
+
+	/**
+	 * 在线会话索引 redis key
+	 */
+	public static final String ONLINE_INDEX_KEY = "online_index:";
+
+	/**
+	 * 异步导出任务 redis key
+	 */
+	public static final String EXPORT_JOB_KEY = "export_job:";
+
+	/**
+	 * 用户进行中（含排队）的异步导出任务ID集合 redis key
+	 */
+	public static final String EXPORT_RUNNING_KEY = "export_running:";
+
+	/**
+	 * 异步导出节点心跳 redis key，节点停止后其未完成的任务不再计入用户并发数
+	 */
+	public static final String EXPORT_NODE_KEY = "export_node:";
+
+	/**
+	 * 登录用户本地缓存失效通知 channel
+	 */
+	public static final String LOGIN_TOKEN_EVICT_TOPIC = "topic:login_tokens_evict";
+
+	/**
+	 * 字典本地缓存失效通知 channel
+	 */
+	public static final String SYS_DICT_EVICT_TOPIC = "topic:sys_dict_evict";
+
+	/**
+	 * 参数本地缓存失效通知 channel
+	 */
+	public static final String SYS_CONFIG_EVICT_TOPIC = "topic:sys_config_evict";
+
+	/**
+	 * 菜单路由本地缓存失效通知 channel
+	 */
+	public static final String SYS_MENU_EVICT_TOPIC = "topic:sys_menu_evict";
+
+	/**
+	 * 数据权限失效通知 channel
+	 */
+	public static final String DATA_SCOPE_EVICT_TOPIC = "topic:data_scope_evict";
 }
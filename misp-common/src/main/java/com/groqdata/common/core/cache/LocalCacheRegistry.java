@@ -0,0 +1,52 @@
+package com.groqdata.common.core.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * 进程内本地缓存登记处，统一输出命中率等监控指标
+ *
+ * @author MISP TEAM
+ */
+public class LocalCacheRegistry {
+
+	private static final Map<String, Cache<?, ?>> CACHES = new ConcurrentHashMap<>();
+
+	private LocalCacheRegistry() {
+		throw new IllegalStateException("工具类不能被实例化");
+	}
+
+	/**
+	 * 登记本地缓存
+	 *
+	 * @param name  缓存名称
+	 * @param cache 本地缓存（需开启recordStats）
+	 */
+	public static void register(String name, Cache<?, ?> cache) {
+		CACHES.put(name, cache);
+	}
+
+	/**
+	 * 获取所有本地缓存的统计信息
+	 *
+	 * @return 缓存名称 -> 统计指标
+	 */
+	public static Map<String, Map<String, Object>> stats() {
+		Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+		CACHES.forEach((name, cache) -> {
+			CacheStats stats = cache.stats();
+			Map<String, Object> data = new LinkedHashMap<>();
+			data.put("size", cache.estimatedSize());
+			data.put("hitCount", stats.hitCount());
+			data.put("missCount", stats.missCount());
+			data.put("hitRate", stats.hitRate());
+			data.put("evictionCount", stats.evictionCount());
+			result.put(name, data);
+		});
+		return result;
+	}
+}
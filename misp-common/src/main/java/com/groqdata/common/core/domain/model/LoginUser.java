@@ -6,7 +6,11 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * 登录用户身份权限
@@ -71,6 +75,11 @@ public class LoginUser implements UserDetails {
 	 */
 	private SysUser user;
 
+	/**
+	 * 数据权限缓存，key 为权限字符；只保存在本节点内存中，不随令牌序列化
+	 */
+	private transient Map<String, UserDataScope> dataScopes = new ConcurrentHashMap<>();
+
 	public LoginUser() {
 	}
 
@@ -227,6 +236,30 @@ public class LoginUser implements UserDetails {
 		this.user = user;
 	}
 
+	/**
+	 * 获取缓存的数据权限
+	 *
+	 * @param permission 权限字符
+	 * @return 数据权限，未缓存时返回null
+	 */
+	public UserDataScope getDataScope(String permission) {
+		Map<String, UserDataScope> scopes = dataScopes;
+		return scopes == null ? null : scopes.get(StringUtils.defaultString(permission));
+	}
+
+	/**
+	 * 缓存数据权限
+	 *
+	 * @param permission 权限字符
+	 * @param dataScope 数据权限
+	 */
+	public void putDataScope(String permission, UserDataScope dataScope) {
+		if (dataScopes == null) {
+			dataScopes = new ConcurrentHashMap<>();
+		}
+		dataScopes.put(StringUtils.defaultString(permission), dataScope);
+	}
+
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
 		return Collections.emptyList();
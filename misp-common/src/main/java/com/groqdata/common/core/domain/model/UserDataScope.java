@@ -0,0 +1,15 @@
+package com.groqdata.common.core.domain.model;
+
+/**
+ * 用户在某个权限字符下的有效数据范围
+ * <p>
+ * 由用户角色的数据权限展开而来，缓存在 {@link LoginUser} 中；角色部门或部门树变更后版本号递增，旧的结果随之失效。
+ *
+ * @param version 计算时的数据权限版本号
+ * @param all 是否拥有全部数据权限
+ * @param deptIds 可见的部门ID（自定义、本部门、本部门及以下合并去重）
+ * @param self 是否可见本人数据
+ * @author MISP TEAM
+ */
+public record UserDataScope(long version, boolean all, Long[] deptIds, boolean self) {
+}
@@ -1,15 +1,28 @@
 package com.groqdata.common.core.redis;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.core.BoundSetOperations;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
 /**
@@ -23,8 +36,17 @@ public class RedisCache {
 
 	private final RedisTemplate redisTemplate;
 
-	public RedisCache(RedisTemplate redisTemplate) {
+	private final RedisSerializerStrategy serializerStrategy;
+
+	/**
+	 * SCAN每次迭代的COUNT提示值，同时作为批量读取、删除的批次大小
+	 */
+	@Value("${redis.scan.count:1000}")
+	private int scanCount = 1000;
+
+	public RedisCache(RedisTemplate redisTemplate, RedisSerializerStrategy serializerStrategy) {
 		this.redisTemplate = redisTemplate;
+		this.serializerStrategy = serializerStrategy;
 	}
 
 	/**
@@ -34,7 +56,13 @@ public class RedisCache {
 	 * @param value 缓存的值
 	 */
 	public <T> void setCacheObject(final String key, final T value) {
-		redisTemplate.opsForValue().set(key, value);
+		RedisSerializer<Object> serializer = serializerStrategy.resolve(key);
+		if (serializer == null) {
+			redisTemplate.opsForValue().set(key, value);
+			return;
+		}
+		byte[] rawValue = serializer.serialize(value);
+		redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.set(rawKey(key), rawValue));
 	}
 
 	/**
@@ -46,7 +74,35 @@ public class RedisCache {
 	 * @param timeUnit 时间颗粒度
 	 */
 	public <T> void setCacheObject(final String key, final T value, final Integer timeout, final TimeUnit timeUnit) {
-		redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
+		RedisSerializer<Object> serializer = serializerStrategy.resolve(key);
+		if (serializer == null) {
+			redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
+			return;
+		}
+		byte[] rawValue = serializer.serialize(value);
+		redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.set(rawKey(key), rawValue,
+				Expiration.from(timeout, timeUnit), RedisStringCommands.SetOption.upsert()));
+	}
+
+	/**
+	 * 键不存在时缓存对象（SET NX PX），一次往返完成判断与写入
+	 *
+	 * @param key      缓存的键值
+	 * @param value    缓存的值
+	 * @param timeout  时间
+	 * @param timeUnit 时间颗粒度
+	 * @return true 写入成功，false 键已存在
+	 */
+	public <T> boolean setCacheObjectIfAbsent(final String key, final T value, final long timeout,
+			final TimeUnit timeUnit) {
+		RedisSerializer<Object> serializer = serializerStrategy.resolve(key);
+		if (serializer == null) {
+			return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, timeout, timeUnit));
+		}
+		byte[] rawValue = serializer.serialize(value);
+		Boolean result = (Boolean) redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.set(
+				rawKey(key), rawValue, Expiration.from(timeout, timeUnit), RedisStringCommands.SetOption.ifAbsent()));
+		return Boolean.TRUE.equals(result);
 	}
 
 	/**
@@ -170,6 +226,30 @@ public class RedisCache {
 		return redisTemplate.opsForSet().members(key);
 	}
 
+	/**
+	 * 向Set添加成员
+	 *
+	 * @param key     Redis键
+	 * @param members 成员
+	 * @return 新增的数量
+	 */
+	public long sAdd(final String key, final Object... members) {
+		Long count = redisTemplate.opsForSet().add(key, members);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * 从Set删除成员
+	 *
+	 * @param key     Redis键
+	 * @param members 成员
+	 * @return 删除的数量
+	 */
+	public long sRemove(final String key, final Object... members) {
+		Long count = redisTemplate.opsForSet().remove(key, members);
+		return count == null ? 0 : count;
+	}
+
 	/**
 	 * 缓存Map
 	 *
@@ -238,12 +318,192 @@ public class RedisCache {
 	}
 
 	/**
-	 * 获得缓存的基本对象列表
+	 * 向有序集合添加成员，成员已存在时更新分数
+	 *
+	 * @param key    Redis键
+	 * @param member 成员
+	 * @param score  分数
+	 */
+	public <T> void zAdd(final String key, final T member, final double score) {
+		redisTemplate.opsForZSet().add(key, member, score);
+	}
+
+	/**
+	 * 从有序集合删除成员
+	 *
+	 * @param key     Redis键
+	 * @param members 成员
+	 * @return 删除的数量
+	 */
+	public long zRemove(final String key, final Object... members) {
+		Long count = redisTemplate.opsForZSet().remove(key, members);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * 删除有序集合中分数在指定区间内的成员
+	 *
+	 * @param key Redis键
+	 * @param min 最小分数
+	 * @param max 最大分数
+	 * @return 删除的数量
+	 */
+	public long zRemoveRangeByScore(final String key, final double min, final double max) {
+		Long count = redisTemplate.opsForZSet().removeRangeByScore(key, min, max);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * 在一次管道中执行多条命令，减少网络往返（命令结果不返回）
+	 *
+	 * @param operations 管道内执行的命令
+	 */
+	public void executePipelined(final Consumer<RedisOperations<String, Object>> operations) {
+		redisTemplate.executePipelined(new SessionCallback<Object>() {
+			@Override
+			public <K, V> Object execute(RedisOperations<K, V> redisOperations) {
+				// redisTemplate 的 key 统一为 String，value 为 Object
+				operations.accept((RedisOperations<String, Object>) redisOperations);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * 获取有序集合的成员数
+	 *
+	 * @param key Redis键
+	 * @return 成员数
+	 */
+	public long zCard(final String key) {
+		Long count = redisTemplate.opsForZSet().zCard(key);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * 按分数从高到低获取有序集合指定下标区间的成员
+	 *
+	 * @param key   Redis键
+	 * @param start 开始下标
+	 * @param end   结束下标，-1表示最后一个
+	 * @return 成员集合
+	 */
+	public <T> Set<T> zReverseRange(final String key, final long start, final long end) {
+		return redisTemplate.opsForZSet().reverseRange(key, start, end);
+	}
+
+	/**
+	 * 获得缓存的基本对象列表（基于SCAN游标迭代，不会阻塞redis）
 	 *
 	 * @param pattern 字符串前缀
 	 * @return 对象列表
 	 */
 	public Collection<String> keys(final String pattern) {
-		return redisTemplate.keys(pattern);
+		List<String> keys = new ArrayList<>();
+		scan(pattern, keys::addAll);
+		return keys;
+	}
+
+	/**
+	 * 按游标分批迭代匹配的键
+	 *
+	 * @param pattern       匹配模式
+	 * @param batchConsumer 每批键的处理逻辑，批次大小不超过 redis.scan.count
+	 */
+	public void scan(final String pattern, final Consumer<List<String>> batchConsumer) {
+		ScanOptions options = ScanOptions.scanOptions().match(pattern).count(scanCount).build();
+		redisTemplate.execute((RedisCallback<Void>) connection -> {
+			Cursor<byte[]> cursor = connection.scan(options);
+			try {
+				List<String> batch = new ArrayList<>(scanCount);
+				while (cursor.hasNext()) {
+					batch.add(new String(cursor.next(), StandardCharsets.UTF_8));
+					if (batch.size() >= scanCount) {
+						batchConsumer.accept(batch);
+						batch = new ArrayList<>(scanCount);
+					}
+				}
+				if (!batch.isEmpty()) {
+					batchConsumer.accept(batch);
+				}
+			} finally {
+				closeCursor(cursor);
+			}
+			return null;
+		});
+	}
+
+	private static void closeCursor(final AutoCloseable cursor) {
+		try {
+			cursor.close();
+		} catch (Exception e) {
+			throw new IllegalStateException("关闭SCAN游标失败", e);
+		}
+	}
+
+	/**
+	 * 按游标分批删除匹配的键，每批一次DEL
+	 *
+	 * @param pattern 匹配模式
+	 * @return 删除的键数量
+	 */
+	public long deleteByPattern(final String pattern) {
+		long[] count = new long[1];
+		scan(pattern, batch -> {
+			Long deleted = redisTemplate.delete(batch);
+			count[0] += deleted == null ? 0 : deleted;
+		});
+		return count[0];
+	}
+
+	/**
+	 * 批量获取缓存对象，按批次使用MGET
+	 *
+	 * @param keys 缓存键值
+	 * @return 与键顺序一致的对象列表，不存在的键对应null
+	 */
+	public <T> List<T> getMultiCacheObject(final Collection<String> keys) {
+		List<T> values = new ArrayList<>(keys.size());
+		List<String> batch = new ArrayList<>(Math.min(keys.size(), scanCount));
+		for (String key : keys) {
+			batch.add(key);
+			if (batch.size() >= scanCount) {
+				values.addAll(multiGet(batch));
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			values.addAll(multiGet(batch));
+		}
+		return values;
+	}
+
+	private <T> List<T> multiGet(final List<String> keys) {
+		List<T> values = redisTemplate.opsForValue().multiGet(keys);
+		if (values == null) {
+			values = new ArrayList<>(keys.size());
+			for (int i = 0; i < keys.size(); i++) {
+				values.add(null);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * 键统一使用StringRedisSerializer（UTF-8）序列化
+	 */
+	private byte[] rawKey(final String key) {
+		return key.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * 发布消息（消息体按UTF-8字符串原样发送，不经过值序列化器）
+	 *
+	 * @param channel 频道
+	 * @param message 消息
+	 */
+	public void publish(final String channel, final String message) {
+		redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(
+				channel.getBytes(StandardCharsets.UTF_8), message.getBytes(StandardCharsets.UTF_8)));
 	}
 }
@@ -0,0 +1,43 @@
+package com.groqdata.common.core.redis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * 按缓存键前缀选择值序列化方式，未匹配的键使用RedisTemplate默认的序列化器
+ *
+ * @author MISP TEAM
+ */
+public class RedisSerializerStrategy {
+
+	private final Map<String, RedisSerializer<Object>> prefixSerializers = new LinkedHashMap<>();
+
+	/**
+	 * 为指定键前缀设置序列化器
+	 *
+	 * @param prefix     键前缀，如 CacheConstants.LOGIN_TOKEN_KEY
+	 * @param serializer 序列化器
+	 * @return 当前对象
+	 */
+	public RedisSerializerStrategy register(String prefix, RedisSerializer<Object> serializer) {
+		prefixSerializers.put(prefix, serializer);
+		return this;
+	}
+
+	/**
+	 * 获取键对应的序列化器
+	 *
+	 * @param key 缓存键
+	 * @return 序列化器，无匹配时返回null
+	 */
+	public RedisSerializer<Object> resolve(String key) {
+		for (Map.Entry<String, RedisSerializer<Object>> entry : prefixSerializers.entrySet()) {
+			if (key.startsWith(entry.getKey())) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+}
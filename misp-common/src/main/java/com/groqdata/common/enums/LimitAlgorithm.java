@@ -0,0 +1,28 @@
+package com.groqdata.common.enums;
+
+/**
+ * 限流算法
+ *
+ * @author MISP TEAM
+ */
+public enum LimitAlgorithm {
+	/**
+	 * 每次请求执行Redis脚本（固定窗口计数），集群内精确；Redis不可用时降级为本地令牌桶
+	 */
+	REDIS,
+
+	/**
+	 * 本地令牌桶，容量为限流次数，按限流时间匀速补充
+	 */
+	TOKEN_BUCKET,
+
+	/**
+	 * 本地滑动窗口日志，任意限流时间内的请求数不超过限流次数
+	 */
+	SLIDING_WINDOW,
+
+	/**
+	 * 从Redis按批租用许可，批内请求在本地扣减，集群内总量不超过限流次数
+	 */
+	HYBRID
+}
@@ -0,0 +1,49 @@
+package com.groqdata.common.filter;
+
+import java.io.ByteArrayInputStream;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+/**
+ * 基于已缓存请求体的输入流，每次读取请求体时新建，多个包装类共用同一个字节数组
+ *
+ * @author MISP TEAM
+ */
+class CachedBodyInputStream extends ServletInputStream {
+	private final ByteArrayInputStream bais;
+
+	CachedBodyInputStream(byte[] body) {
+		this.bais = new ByteArrayInputStream(body);
+	}
+
+	@Override
+	public int read() {
+		return bais.read();
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) {
+		return bais.read(b, off, len);
+	}
+
+	@Override
+	public int available() {
+		return bais.available();
+	}
+
+	@Override
+	public boolean isFinished() {
+		return bais.available() == 0;
+	}
+
+	@Override
+	public boolean isReady() {
+		return true;
+	}
+
+	@Override
+	public void setReadListener(ReadListener readListener) {
+		// 请求体已全部缓存，不支持异步读取
+	}
+}
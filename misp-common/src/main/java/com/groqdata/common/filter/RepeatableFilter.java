@@ -9,6 +9,7 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import org.springframework.http.MediaType;
+import org.springframework.web.util.WebUtils;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -28,7 +29,11 @@ public class RepeatableFilter implements Filter {
 		ServletRequest requestWrapper = null;
 		if (request instanceof HttpServletRequest httpServletRequest
 				&& StringUtils.startsWithIgnoreCase(request.getContentType(), MediaType.APPLICATION_JSON_VALUE)) {
-			requestWrapper = new RepeatedlyRequestWrapper(httpServletRequest, response);
+			// XSS过滤后的请求体已缓存，直接共用
+			XssHttpServletRequestWrapper xssRequest = WebUtils.getNativeRequest(httpServletRequest,
+					XssHttpServletRequestWrapper.class);
+			byte[] body = xssRequest != null && xssRequest.isJsonRequest() ? xssRequest.getBody() : null;
+			requestWrapper = new RepeatedlyRequestWrapper(httpServletRequest, response, body);
 		}
 		if (null == requestWrapper) {
 			chain.doFilter(request, response);
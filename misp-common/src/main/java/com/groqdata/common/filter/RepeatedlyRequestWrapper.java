@@ -1,16 +1,14 @@
 package com.groqdata.common.filter;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
-import com.groqdata.common.utils.http.HttpHelper;
+import org.apache.commons.io.IOUtils;
 import com.groqdata.common.constant.Constants;
 
 /**
@@ -22,46 +20,35 @@ public class RepeatedlyRequestWrapper extends HttpServletRequestWrapper {
 	private final byte[] body;
 
 	public RepeatedlyRequestWrapper(HttpServletRequest request, ServletResponse response) throws IOException {
+		this(request, response, null);
+	}
+
+	/**
+	 * @param body 已缓存的请求体（如XSS过滤后的请求体），直接共用不再拷贝；为null时从request读取
+	 */
+	public RepeatedlyRequestWrapper(HttpServletRequest request, ServletResponse response, byte[] body)
+			throws IOException {
 		super(request);
 		request.setCharacterEncoding(Constants.UTF8);
 		response.setCharacterEncoding(Constants.UTF8);
 
-		body = HttpHelper.getBodyString(request).getBytes(StandardCharsets.UTF_8);
+		this.body = body != null ? body : IOUtils.toByteArray(request.getInputStream());
+	}
+
+	/**
+	 * 获取缓存的请求体（只读，不要修改返回的数组）
+	 */
+	public byte[] getBody() {
+		return body;
 	}
 
 	@Override
 	public BufferedReader getReader() throws IOException {
-		return new BufferedReader(new InputStreamReader(getInputStream()));
+		return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
 	}
 
 	@Override
 	public ServletInputStream getInputStream() throws IOException {
-		final ByteArrayInputStream bais = new ByteArrayInputStream(body);
-		return new ServletInputStream() {
-			@Override
-			public int read() throws IOException {
-				return bais.read();
-			}
-
-			@Override
-			public int available() throws IOException {
-				return body.length;
-			}
-
-			@Override
-			public boolean isFinished() {
-				return false;
-			}
-
-			@Override
-			public boolean isReady() {
-				return false;
-			}
-
-			@Override
-			public void setReadListener(ReadListener readListener) {
-				// 与父级相同
-			}
-		};
+		return new CachedBodyInputStream(body);
 	}
 }
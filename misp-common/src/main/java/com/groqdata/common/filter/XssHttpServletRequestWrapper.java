@@ -1,9 +1,9 @@
 package com.groqdata.common.filter;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
@@ -12,13 +12,21 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.apache.commons.lang3.StringUtils;
 import com.groqdata.common.utils.html.EscapeUtil;
+import com.groqdata.common.utils.html.JsonXssCleaner;
 
 /**
  * XSS过滤处理
+ * <p>
+ * json请求体只读取一次，过滤后缓存，可重复读取，并与 {@link RepeatedlyRequestWrapper} 共用。
  * 
  * @author MISP TEAM
  */
 public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
+	/**
+	 * 过滤后的json请求体，首次读取时初始化
+	 */
+	private byte[] body;
+
 	/**
 	 * @param request
 	 */
@@ -47,43 +55,26 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 		if (!isJsonRequest()) {
 			return super.getInputStream();
 		}
+		return new CachedBodyInputStream(getBody());
+	}
 
-		// 为空，直接返回
-		String json = IOUtils.toString(super.getInputStream(), StandardCharsets.UTF_8);
-		if (StringUtils.isEmpty(json)) {
-			return super.getInputStream();
+	@Override
+	public BufferedReader getReader() throws IOException {
+		if (!isJsonRequest()) {
+			return super.getReader();
 		}
+		return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+	}
 
-		// xss过滤
-		json = EscapeUtil.clean(json).trim();
-		byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
-		final ByteArrayInputStream bis = new ByteArrayInputStream(jsonBytes);
-		return new ServletInputStream() {
-			@Override
-			public boolean isFinished() {
-				return true;
-			}
-
-			@Override
-			public boolean isReady() {
-				return true;
-			}
-
-			@Override
-			public int available() throws IOException {
-				return jsonBytes.length;
-			}
-
-			@Override
-			public void setReadListener(ReadListener readListener) {
-				// 与父级相同
-			}
-
-			@Override
-			public int read() throws IOException {
-				return bis.read();
-			}
-		};
+	/**
+	 * 获取xss过滤后的json请求体（只读，不要修改返回的数组）
+	 */
+	public byte[] getBody() throws IOException {
+		if (body == null) {
+			// xss过滤，只清理json中的字符串
+			body = JsonXssCleaner.clean(IOUtils.toByteArray(super.getInputStream()));
+		}
+		return body;
 	}
 
 	/**
@@ -94,4 +85,4 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 		String header = super.getHeader(HttpHeaders.CONTENT_TYPE);
 		return StringUtils.startsWithIgnoreCase(header, MediaType.APPLICATION_JSON_VALUE);
 	}
-}
\ No newline at end of file
+}
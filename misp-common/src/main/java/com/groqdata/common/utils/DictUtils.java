@@ -1,10 +1,17 @@
 package com.groqdata.common.utils;
 
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-import com.groqdata.common.utils.basic.StringHelper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.groqdata.common.core.cache.LocalCacheRegistry;
 import org.apache.commons.lang3.StringUtils;
 
 import com.alibaba.fastjson2.JSONArray;
@@ -27,6 +34,29 @@ public class DictUtils {
 	 */
 	public static final String SEPARATOR = ",";
 
+	/**
+	 * 全部字典失效的通知消息
+	 */
+	public static final String EVICT_ALL = "*";
+
+	/**
+	 * 本地字典快照，按字典类型缓存，兜底过期时间用于防止失效通知丢失
+	 */
+	private static final Cache<String, DictSnapshot> SNAPSHOTS = Caffeine.newBuilder()
+			.maximumSize(2000)
+			.expireAfterWrite(10, TimeUnit.MINUTES)
+			.recordStats()
+			.build();
+
+	/**
+	 * 快照版本号，每次失效时递增，用于丢弃失效前开始加载的快照
+	 */
+	private static final AtomicLong VERSION = new AtomicLong();
+
+	static {
+		LocalCacheRegistry.register("dict", SNAPSHOTS);
+	}
+
 	/**
 	 * 设置字典缓存
 	 * 
@@ -35,6 +65,7 @@ public class DictUtils {
 	 */
 	public static void setDictCache(String key, List<SysDictData> dictDatas) {
 		SpringUtils.getBean(RedisCache.class).setCacheObject(getCacheKey(key), dictDatas);
+		publishEvict(key);
 	}
 
 	/**
@@ -44,13 +75,42 @@ public class DictUtils {
 	 * @return dictDatas 字典数据列表
 	 */
 	public static List<SysDictData> getDictCache(String key) {
-		JSONArray arrayCache = SpringUtils.getBean(RedisCache.class).getCacheObject(getCacheKey(key));
-		if (StringHelper.isNotNull(arrayCache)) {
+		return getSnapshot(key).datas;
+	}
+
+	/**
+	 * 从redis读取字典缓存
+	 */
+	private static List<SysDictData> loadDictCache(String key) {
+		Object cache = SpringUtils.getBean(RedisCache.class).getCacheObject(getCacheKey(key));
+		if (cache instanceof JSONArray arrayCache) {
 			return arrayCache.toList(SysDictData.class);
 		}
+		// JSONB格式反序列化结果不一定是JSONArray
+		if (cache instanceof List<?> listCache) {
+			return new JSONArray(listCache).toList(SysDictData.class);
+		}
 		return Collections.emptyList();
 	}
 
+	/**
+	 * 获取本地字典快照，未命中时从redis加载
+	 */
+	private static DictSnapshot getSnapshot(String dictType) {
+		DictSnapshot snapshot = SNAPSHOTS.getIfPresent(dictType);
+		if (snapshot != null) {
+			return snapshot;
+		}
+		long version = VERSION.get();
+		snapshot = new DictSnapshot(loadDictCache(dictType));
+		SNAPSHOTS.put(dictType, snapshot);
+		// 加载期间发生过失效，丢弃可能过期的快照
+		if (version != VERSION.get()) {
+			SNAPSHOTS.invalidate(dictType);
+		}
+		return snapshot;
+	}
+
 	/**
 	 * 根据字典类型和字典值获取字典标签
 	 * 
@@ -91,35 +151,24 @@ public class DictUtils {
 		if (StringUtils.isEmpty(dictValue)) {
 			return StringUtils.EMPTY;
 		}
-		List<SysDictData> datas = getDictCache(dictType);
-		if (StringHelper.isNull(datas)) {
+		DictSnapshot snapshot = getSnapshot(dictType);
+		if (snapshot.datas.isEmpty()) {
 			return StringUtils.EMPTY;
 		}
 
 		if (StringUtils.containsAny(separator, dictValue)) {
-			return getMultiDictLabel(datas, dictValue, separator);
+			return getMultiDictLabel(snapshot.datas, dictValue, separator);
 		} else {
-			return getSingleDictLabel(datas, dictValue);
+			return snapshot.valueToLabel.getOrDefault(dictValue, StringUtils.EMPTY);
 		}
 	}
 
-	private static String getSingleDictLabel(List<SysDictData> datas, String dictValue) {
-		for (SysDictData dict : datas) {
-			if (dictValue.equals(dict.getDictValue())) {
-				return dict.getDictLabel();
-			}
-		}
-		return StringUtils.EMPTY;
-	}
-
 	private static String getMultiDictLabel(List<SysDictData> datas, String dictValue, String separator) {
+		Set<String> values = new HashSet<>(List.of(dictValue.split(separator)));
 		StringBuilder propertyString = new StringBuilder();
 		for (SysDictData dict : datas) {
-			for (String value : dictValue.split(separator)) {
-				if (value.equals(dict.getDictValue())) {
-					propertyString.append(dict.getDictLabel()).append(separator);
-					break;
-				}
+			if (values.contains(dict.getDictValue())) {
+				propertyString.append(dict.getDictLabel()).append(separator);
 			}
 		}
 		return StringUtils.stripEnd(propertyString.toString(), separator);
@@ -134,35 +183,24 @@ public class DictUtils {
 	 * @return 字典值
 	 */
 	public static String getDictValue(String dictType, String dictLabel, String separator) {
-		List<SysDictData> datas = getDictCache(dictType);
-		if (StringHelper.isNull(datas)) {
+		DictSnapshot snapshot = getSnapshot(dictType);
+		if (snapshot.datas.isEmpty()) {
 			return StringUtils.EMPTY;
 		}
 
 		if (StringUtils.containsAny(separator, dictLabel)) {
-			return getMultiDictValue(datas, dictLabel, separator);
+			return getMultiDictValue(snapshot.datas, dictLabel, separator);
 		} else {
-			return getSingleDictValue(datas, dictLabel);
-		}
-	}
-
-	private static String getSingleDictValue(List<SysDictData> datas, String dictLabel) {
-		for (SysDictData dict : datas) {
-			if (dictLabel.equals(dict.getDictLabel())) {
-				return dict.getDictValue();
-			}
+			return snapshot.labelToValue.getOrDefault(dictLabel, StringUtils.EMPTY);
 		}
-		return StringUtils.EMPTY;
 	}
 
 	private static String getMultiDictValue(List<SysDictData> datas, String dictLabel, String separator) {
+		Set<String> labels = new HashSet<>(List.of(dictLabel.split(separator)));
 		StringBuilder propertyString = new StringBuilder();
 		for (SysDictData dict : datas) {
-			for (String label : dictLabel.split(separator)) {
-				if (label.equals(dict.getDictLabel())) {
-					propertyString.append(dict.getDictValue()).append(separator);
-					break;
-				}
+			if (labels.contains(dict.getDictLabel())) {
+				propertyString.append(dict.getDictValue()).append(separator);
 			}
 		}
 		return StringUtils.stripEnd(propertyString.toString(), separator);
@@ -175,15 +213,7 @@ public class DictUtils {
 	 * @return 字典值
 	 */
 	public static String getDictValues(String dictType) {
-		StringBuilder propertyString = new StringBuilder();
-		List<SysDictData> datas = getDictCache(dictType);
-		if (StringHelper.isNull(datas)) {
-			return StringUtils.EMPTY;
-		}
-		for (SysDictData dict : datas) {
-			propertyString.append(dict.getDictValue()).append(SEPARATOR);
-		}
-		return StringUtils.stripEnd(propertyString.toString(), SEPARATOR);
+		return getSnapshot(dictType).values;
 	}
 
 	/**
@@ -193,15 +223,7 @@ public class DictUtils {
 	 * @return 字典值
 	 */
 	public static String getDictLabels(String dictType) {
-		StringBuilder propertyString = new StringBuilder();
-		List<SysDictData> datas = getDictCache(dictType);
-		if (StringHelper.isNull(datas)) {
-			return StringUtils.EMPTY;
-		}
-		for (SysDictData dict : datas) {
-			propertyString.append(dict.getDictLabel()).append(SEPARATOR);
-		}
-		return StringUtils.stripEnd(propertyString.toString(), SEPARATOR);
+		return getSnapshot(dictType).labels;
 	}
 
 	/**
@@ -211,14 +233,37 @@ public class DictUtils {
 	 */
 	public static void removeDictCache(String key) {
 		SpringUtils.getBean(RedisCache.class).deleteObject(getCacheKey(key));
+		publishEvict(key);
 	}
 
 	/**
 	 * 清空字典缓存
 	 */
 	public static void clearDictCache() {
-		Collection<String> keys = SpringUtils.getBean(RedisCache.class).keys(CacheConstants.SYS_DICT_KEY + "*");
-		SpringUtils.getBean(RedisCache.class).deleteObject(keys);
+		SpringUtils.getBean(RedisCache.class).deleteByPattern(CacheConstants.SYS_DICT_KEY + "*");
+		publishEvict(EVICT_ALL);
+	}
+
+	/**
+	 * 失效本地字典快照（接收跨节点失效通知时调用）
+	 *
+	 * @param key 字典类型，{@link #EVICT_ALL} 表示全部
+	 */
+	public static void evictLocalDictCache(String key) {
+		VERSION.incrementAndGet();
+		if (EVICT_ALL.equals(key)) {
+			SNAPSHOTS.invalidateAll();
+		} else {
+			SNAPSHOTS.invalidate(key);
+		}
+	}
+
+	/**
+	 * 失效本节点快照并通知其他节点
+	 */
+	private static void publishEvict(String key) {
+		evictLocalDictCache(key);
+		SpringUtils.getBean(RedisCache.class).publish(CacheConstants.SYS_DICT_EVICT_TOPIC, key);
 	}
 
 	/**
@@ -230,4 +275,42 @@ public class DictUtils {
 	public static String getCacheKey(String configKey) {
 		return CacheConstants.SYS_DICT_KEY + configKey;
 	}
+
+	/**
+	 * 单个字典类型的只读快照，预先建立值与标签的双向索引
+	 */
+	private static class DictSnapshot {
+		private final List<SysDictData> datas;
+
+		private final Map<String, String> valueToLabel;
+
+		private final Map<String, String> labelToValue;
+
+		private final String values;
+
+		private final String labels;
+
+		DictSnapshot(List<SysDictData> datas) {
+			this.datas = Collections.unmodifiableList(datas);
+			Map<String, String> valueMap = new HashMap<>(datas.size() * 2);
+			Map<String, String> labelMap = new HashMap<>(datas.size() * 2);
+			StringBuilder valueString = new StringBuilder();
+			StringBuilder labelString = new StringBuilder();
+			for (SysDictData dict : datas) {
+				// 与原有线性查找保持一致，重复时以第一条为准
+				if (dict.getDictValue() != null) {
+					valueMap.putIfAbsent(dict.getDictValue(), dict.getDictLabel());
+				}
+				if (dict.getDictLabel() != null) {
+					labelMap.putIfAbsent(dict.getDictLabel(), dict.getDictValue());
+				}
+				valueString.append(dict.getDictValue()).append(SEPARATOR);
+				labelString.append(dict.getDictLabel()).append(SEPARATOR);
+			}
+			this.valueToLabel = valueMap;
+			this.labelToValue = labelMap;
+			this.values = StringUtils.stripEnd(valueString.toString(), SEPARATOR);
+			this.labels = StringUtils.stripEnd(labelString.toString(), SEPARATOR);
+		}
+	}
 }
@@ -0,0 +1,93 @@
+package com.groqdata.common.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 树结构构建工具类
+ * <p>
+ * 先按父节点ID建立一次索引，再为每个节点挂载子节点，整体为线性复杂度；子节点保持输入列表中的顺序。
+ * 菜单、部门等实体通过ID、父ID与子节点设置方法接入，
+ * 构建结果可直接转换为 {@link com.groqdata.common.core.domain.TreeSelect}。
+ *
+ * @author MISP TEAM
+ */
+public class TreeUtils {
+	private TreeUtils() {
+		throw new IllegalStateException("工具类不可实例化");
+	}
+
+	/**
+	 * 构建树结构，父节点不在列表中的节点作为顶级节点
+	 *
+	 * @param nodes 节点列表
+	 * @param idGetter 节点ID
+	 * @param parentIdGetter 父节点ID
+	 * @param childrenSetter 子节点设置方法
+	 * @return 顶级节点列表，不存在顶级节点时返回不含子节点的原列表
+	 */
+	public static <T> List<T> buildTree(List<T> nodes, Function<T, Long> idGetter, Function<T, Long> parentIdGetter,
+			BiConsumer<T, List<T>> childrenSetter) {
+		Set<Long> ids = HashSet.newHashSet(nodes.size());
+		for (T node : nodes) {
+			ids.add(idGetter.apply(node));
+		}
+		List<T> roots = new ArrayList<>();
+		for (T node : nodes) {
+			if (!ids.contains(parentIdGetter.apply(node))) {
+				roots.add(node);
+			}
+		}
+		if (roots.isEmpty()) {
+			// 所有节点的父节点都在列表中说明存在环，不挂载子节点，按平铺列表返回
+			for (T node : nodes) {
+				childrenSetter.accept(node, new ArrayList<>());
+			}
+			return nodes;
+		}
+		linkChildren(nodes, idGetter, parentIdGetter, childrenSetter);
+		return roots;
+	}
+
+	/**
+	 * 构建树结构，返回指定父节点下的子树
+	 *
+	 * @param nodes 节点列表
+	 * @param rootParentId 顶级节点的父节点ID
+	 * @param idGetter 节点ID
+	 * @param parentIdGetter 父节点ID
+	 * @param childrenSetter 子节点设置方法
+	 * @return 父节点ID为 rootParentId 的节点列表
+	 */
+	public static <T> List<T> buildTree(List<T> nodes, Long rootParentId, Function<T, Long> idGetter,
+			Function<T, Long> parentIdGetter, BiConsumer<T, List<T>> childrenSetter) {
+		Map<Long, List<T>> childrenMap = linkChildren(nodes, idGetter, parentIdGetter, childrenSetter);
+		List<T> roots = childrenMap.get(rootParentId);
+		return roots == null ? new ArrayList<>() : new ArrayList<>(roots);
+	}
+
+	/**
+	 * 按父节点ID分组并为每个节点设置子节点列表（无子节点时设置为空列表）
+	 */
+	private static <T> Map<Long, List<T>> linkChildren(List<T> nodes, Function<T, Long> idGetter,
+			Function<T, Long> parentIdGetter, BiConsumer<T, List<T>> childrenSetter) {
+		Map<Long, List<T>> childrenMap = HashMap.newHashMap(nodes.size());
+		for (T node : nodes) {
+			Long parentId = parentIdGetter.apply(node);
+			if (parentId != null) {
+				childrenMap.computeIfAbsent(parentId, key -> new ArrayList<>()).add(node);
+			}
+		}
+		for (T node : nodes) {
+			List<T> children = childrenMap.get(idGetter.apply(node));
+			childrenSetter.accept(node, children == null ? new ArrayList<>() : children);
+		}
+		return childrenMap;
+	}
+}
@@ -103,11 +103,26 @@ public final class HTMLFilter {
 	 * becomes "<b> text </b>"). If set to false, unbalanced angle brackets will be html escaped.
 	 */
 	private final boolean alwaysMakeTags;
+	/**
+	 * 属性值两侧的引号是否按JSON转义为 \"（输入为整段JSON文本时使用）；
+	 * 为false时输出普通引号，属性值中的引号编码为 &amp;quot;
+	 */
+	private final boolean escapeAttributeQuotes;
 
 	/**
 	 * Default constructor.
 	 */
 	public HTMLFilter() {
+		this(true);
+	}
+
+	/**
+	 * 默认配置
+	 *
+	 * @param escapeAttributeQuotes 属性值两侧的引号是否按JSON转义，输入为已解码的文本时传false
+	 */
+	public HTMLFilter(final boolean escapeAttributeQuotes) {
+		this.escapeAttributeQuotes = escapeAttributeQuotes;
 		vAllowed = new HashMap<>();
 
 		final ArrayList<String> hrefAttributes = new ArrayList<>();
@@ -184,6 +199,8 @@ public final class HTMLFilter {
 		stripComment = !conf.containsKey("stripComment") || (Boolean) conf.get("stripComment");
 		encodeQuotes = !conf.containsKey("encodeQuotes") || (Boolean) conf.get("encodeQuotes");
 		alwaysMakeTags = !conf.containsKey("alwaysMakeTags") || (Boolean) conf.get("alwaysMakeTags");
+		escapeAttributeQuotes = !conf.containsKey("escapeAttributeQuotes")
+				|| (Boolean) conf.get("escapeAttributeQuotes");
 	}
 
 	private void reset() {
@@ -372,7 +389,12 @@ public final class HTMLFilter {
 				if (inArray(paramName, vProtocolAtts)) {
 					paramValue = processParamProtocol(paramValue);
 				}
-				params.append(' ').append(paramName).append("=\\\"").append(paramValue).append("\\\"");
+				if (escapeAttributeQuotes) {
+					params.append(' ').append(paramName).append("=\\\"").append(paramValue).append("\\\"");
+				} else {
+					params.append(' ').append(paramName).append("=\"")
+							.append(regexReplace(P_QUOTE, "&quot;", paramValue)).append('"');
+				}
 			}
 		}
 
@@ -0,0 +1,181 @@
+package com.groqdata.common.utils.html;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * JSON请求体XSS过滤工具类
+ * <p>
+ * 直接在UTF-8字节上单次扫描JSON，只对字符串（键与值）做清理，数字、结构符号原样保留。
+ * 不含尖括号且没有 \\u 转义的字符串无需解码（HTMLFilter对这类文本不做任何修改），
+ * 整个请求体都无需修改时返回原数组，不产生任何拷贝。
+ *
+ * @author MISP TEAM
+ */
+public class JsonXssCleaner {
+	private JsonXssCleaner() {
+		throw new IllegalStateException("工具类不可实例化");
+	}
+
+	/**
+	 * 清理JSON中字符串里的HTML标签
+	 *
+	 * @param json UTF-8编码的JSON
+	 * @return 清理后的JSON，未修改时返回原数组
+	 */
+	public static byte[] clean(byte[] json) {
+		int length = json.length;
+		ByteArrayOutputStream out = null;
+		// 已写入out的原始字节位置
+		int copied = 0;
+		int i = 0;
+		while (i < length) {
+			if (json[i] != '"') {
+				i++;
+				continue;
+			}
+			int start = i + 1;
+			int end = start;
+			boolean suspicious = false;
+			while (end < length && json[end] != '"') {
+				byte b = json[end];
+				if (b == '\\') {
+					if (end + 1 < length && json[end + 1] == 'u') {
+						suspicious = true;
+					}
+					end += 2;
+					continue;
+				}
+				if (b == '<' || b == '>') {
+					suspicious = true;
+				}
+				end++;
+			}
+			if (end >= length) {
+				// 未闭合的字符串原样保留，由JSON解析报错
+				break;
+			}
+			if (suspicious) {
+				String value = decode(json, start, end);
+				if (StringUtils.containsAny(value, '<', '>')) {
+					// 字符串已解码，属性引号不再按JSON转义，由 encode 统一转义
+					String cleaned = new HTMLFilter(false).filter(value);
+					if (!cleaned.equals(value)) {
+						if (out == null) {
+							out = new ByteArrayOutputStream(length + 64);
+						}
+						out.write(json, copied, start - copied);
+						out.writeBytes(encode(cleaned));
+						copied = end;
+					}
+				}
+			}
+			i = end + 1;
+		}
+		if (out == null) {
+			return json;
+		}
+		out.write(json, copied, length - copied);
+		return out.toByteArray();
+	}
+
+	/**
+	 * 解码JSON字符串内容（不含两侧引号）
+	 */
+	private static String decode(byte[] json, int start, int end) {
+		StringBuilder sb = new StringBuilder(end - start);
+		int run = start;
+		int i = start;
+		while (i < end) {
+			if (json[i] != '\\') {
+				i++;
+				continue;
+			}
+			sb.append(new String(json, run, i - run, StandardCharsets.UTF_8));
+			char escape = i + 1 < end ? (char) json[i + 1] : '\\';
+			int next = i + 2;
+			switch (escape) {
+				case 'b' -> sb.append('\b');
+				case 'f' -> sb.append('\f');
+				case 'n' -> sb.append('\n');
+				case 'r' -> sb.append('\r');
+				case 't' -> sb.append('\t');
+				case 'u' -> {
+					int code = hex(json, i + 2, end);
+					if (code < 0) {
+						sb.append("\\u");
+					} else {
+						sb.append((char) code);
+						next = i + 6;
+					}
+				}
+				default -> sb.append(escape);
+			}
+			i = next;
+			run = next;
+		}
+		if (run < end) {
+			sb.append(new String(json, run, end - run, StandardCharsets.UTF_8));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 解析4位十六进制数，不合法时返回-1
+	 */
+	private static int hex(byte[] json, int start, int end) {
+		if (start + 4 > end) {
+			return -1;
+		}
+		int code = 0;
+		for (int i = start; i < start + 4; i++) {
+			int digit = Character.digit(json[i], 16);
+			if (digit < 0) {
+				return -1;
+			}
+			code = (code << 4) | digit;
+		}
+		return code;
+	}
+
+	/**
+	 * 编码为JSON字符串内容（不含两侧引号）
+	 */
+	private static byte[] encode(String value) {
+		StringBuilder sb = new StringBuilder(value.length() + 16);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"' -> sb.append("\\\"");
+				case '\\' -> sb.append("\\\\");
+				case '\n' -> sb.append("\\n");
+				case '\r' -> sb.append("\\r");
+				case '\t' -> sb.append("\\t");
+				case '\b' -> sb.append("\\b");
+				case '\f' -> sb.append("\\f");
+				default -> {
+					// 不成对的代理字符无法编码为UTF-8，保留原来的 \\u 转义
+					if (c < 0x20 || isLoneSurrogate(value, i)) {
+						sb.append(String.format("\\u%04x", (int) c));
+					} else {
+						sb.append(c);
+					}
+				}
+			}
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static boolean isLoneSurrogate(String value, int i) {
+		char c = value.charAt(i);
+		if (Character.isHighSurrogate(c)) {
+			return i + 1 >= value.length() || !Character.isLowSurrogate(value.charAt(i + 1));
+		}
+		if (Character.isLowSurrogate(c)) {
+			return i == 0 || !Character.isHighSurrogate(value.charAt(i - 1));
+		}
+		return false;
+	}
+}
@@ -69,6 +69,19 @@ public class HttpUtils {
 	 * @return 所代表远程资源的响应结果
 	 */
 	public static String sendGet(String url, String param, String contentType) {
+		return sendGet(url, param, contentType, 0);
+	}
+
+	/**
+	 * 向指定 URL 发送GET方法的请求
+	 *
+	 * @param url 发送请求的 URL
+	 * @param param 请求参数，请求参数应该是 name1=value1&name2=value2 的形式。
+	 * @param contentType 编码类型
+	 * @param timeoutMillis 连接与读取超时（毫秒），0表示不限制
+	 * @return 所代表远程资源的响应结果
+	 */
+	public static String sendGet(String url, String param, String contentType, int timeoutMillis) {
 		StringBuilder result = new StringBuilder();
 		String urlNameString = StringUtils.isNotBlank(param) ? url + "?" + param : url;
 		log.info("Sending GET request to URL: {}", urlNameString);
@@ -77,6 +90,8 @@ public class HttpUtils {
 			URL realUrl = URI.create(urlNameString).toURL();
 			URLConnection connection = realUrl.openConnection();
 			setCommonRequestProperties(connection);
+			connection.setConnectTimeout(timeoutMillis);
+			connection.setReadTimeout(timeoutMillis);
 			connection.connect();
 
 			try (BufferedReader in = new BufferedReader(
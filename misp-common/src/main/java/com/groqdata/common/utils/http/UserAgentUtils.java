@@ -0,0 +1,42 @@
+package com.groqdata.common.utils.http;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.groqdata.common.core.cache.LocalCacheRegistry;
+
+import eu.bitwalker.useragentutils.UserAgent;
+
+/**
+ * User-Agent 解析工具类，按原始字符串缓存解析结果
+ *
+ * @author MISP TEAM
+ */
+public class UserAgentUtils {
+
+	/**
+	 * User-Agent -> 解析结果 本地缓存，客户端种类有限，命中率很高
+	 */
+	private static final Cache<String, UserAgent> CACHE = Caffeine.newBuilder()
+			.maximumSize(2000)
+			.recordStats()
+			.build();
+
+	static {
+		LocalCacheRegistry.register("userAgent", CACHE);
+	}
+
+	private UserAgentUtils() {
+		throw new IllegalStateException("工具类不能被实例化");
+	}
+
+	/**
+	 * 解析User-Agent
+	 *
+	 * @param userAgentString 请求头中的User-Agent
+	 * @return 解析结果
+	 */
+	public static UserAgent parse(String userAgentString) {
+		String key = userAgentString == null ? "" : userAgentString;
+		return CACHE.get(key, UserAgent::parseUserAgentString);
+	}
+}
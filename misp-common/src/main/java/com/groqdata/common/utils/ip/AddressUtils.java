@@ -1,17 +1,29 @@
 package com.groqdata.common.utils.ip;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.groqdata.common.config.MispConfig;
 import com.groqdata.common.constant.Constants;
+import com.groqdata.common.core.cache.LocalCacheRegistry;
 import org.apache.commons.lang3.StringUtils;
 import com.groqdata.common.utils.http.HttpUtils;
 
 /**
  * 获取地址类
- * 
+ * <p>
+ * 优先查询离线地址库（{@code misp.addressDbPath}），文件变更后自动重新加载；
+ * 未命中且开启 {@code misp.addressRemoteEnabled} 时才调用远程接口。查询结果经本地LRU缓存。
+ *
  * @author MISP TEAM
  */
 public class AddressUtils {
@@ -26,26 +38,130 @@ public class AddressUtils {
 	// 未知地址
 	public static final String UNKNOWN = "XX XX";
 
+	// 内网地址
+	public static final String INTERNAL = "内网IP";
+
+	/**
+	 * 远程查询超时（毫秒）
+	 */
+	private static final int REMOTE_TIMEOUT = 3000;
+
+	/**
+	 * 地址库文件变更检查间隔（毫秒）
+	 */
+	private static final long RELOAD_CHECK_INTERVAL = 60_000;
+
+	/**
+	 * IP -> 地址 本地缓存
+	 */
+	private static final Cache<String, String> CACHE = Caffeine.newBuilder()
+			.maximumSize(10_000)
+			.expireAfterWrite(Duration.ofHours(1))
+			.recordStats()
+			.build();
+
+	private static volatile IpRegionDatabase database;
+
+	private static volatile String loadedPath;
+
+	private static volatile long loadedModified;
+
+	private static volatile long nextCheckTime;
+
+	private static volatile boolean missingWarned;
+
+	static {
+		LocalCacheRegistry.register("ipRegion", CACHE);
+	}
+
 	public static String getRealAddressByIP(String ip) {
 		// 内网不查询
 		if (IpUtils.internalIp(ip)) {
-			return "内网IP";
-		}
-		if (MispConfig.isAddressEnabled()) {
-			try {
-				String rspStr = HttpUtils.sendGet(IP_URL, "ip=" + ip + "&json=true", Constants.GBK);
-				if (StringUtils.isEmpty(rspStr)) {
-					log.error("获取地理位置异常 {}", ip);
-					return UNKNOWN;
-				}
-				JSONObject obj = JSON.parseObject(rspStr);
-				String region = obj.getString("pro");
-				String city = obj.getString("city");
-				return String.format("%s %s", region, city);
-			} catch (Exception e) {
-				log.error("获取地理位置异常 {}", ip);
+			return INTERNAL;
+		}
+		if (!MispConfig.isAddressEnabled() || StringUtils.isBlank(ip)) {
+			return UNKNOWN;
+		}
+		// 地址库重新加载会清空缓存，需在缓存计算之外进行
+		IpRegionDatabase db = currentDatabase();
+		// 远程查询失败时返回null，不进入缓存，下次重试
+		String address = CACHE.get(ip, key -> lookup(key, db));
+		return address == null ? UNKNOWN : address;
+	}
+
+	private static String lookup(String ip, IpRegionDatabase db) {
+		if (db != null) {
+			String address = db.lookup(ip);
+			if (address != null) {
+				return address;
 			}
 		}
+		if (MispConfig.isAddressRemoteEnabled()) {
+			return lookupRemote(ip);
+		}
 		return UNKNOWN;
 	}
+
+	private static String lookupRemote(String ip) {
+		try {
+			String rspStr = HttpUtils.sendGet(IP_URL, "ip=" + ip + "&json=true", Constants.GBK, REMOTE_TIMEOUT);
+			if (StringUtils.isEmpty(rspStr)) {
+				log.error("获取地理位置异常 {}", ip);
+				return null;
+			}
+			JSONObject obj = JSON.parseObject(rspStr);
+			String region = obj.getString("pro");
+			String city = obj.getString("city");
+			return String.format("%s %s", region, city);
+		} catch (Exception e) {
+			log.error("获取地理位置异常 {}", ip);
+		}
+		return null;
+	}
+
+	/**
+	 * 获取当前离线地址库，按检查间隔比对文件修改时间，变更后重新加载
+	 */
+	private static IpRegionDatabase currentDatabase() {
+		String path = MispConfig.getAddressDbPath();
+		if (StringUtils.isBlank(path)) {
+			return null;
+		}
+		if (System.currentTimeMillis() >= nextCheckTime) {
+			reload(path);
+		}
+		return database;
+	}
+
+	private static synchronized void reload(String path) {
+		long now = System.currentTimeMillis();
+		if (now < nextCheckTime) {
+			return;
+		}
+		nextCheckTime = now + RELOAD_CHECK_INTERVAL;
+		Path file = Paths.get(path);
+		try {
+			if (!Files.isRegularFile(file)) {
+				// 文件暂时缺失（如替换过程中）时沿用已加载的数据
+				if (!missingWarned) {
+					missingWarned = true;
+					log.warn("离线IP地址库文件不存在 {}", path);
+				}
+				return;
+			}
+			missingWarned = false;
+			long modified = Files.getLastModifiedTime(file).toMillis();
+			if (path.equals(loadedPath) && modified == loadedModified) {
+				return;
+			}
+			IpRegionDatabase loaded = IpRegionDatabase.load(file);
+			database = loaded;
+			loadedPath = path;
+			loadedModified = modified;
+			CACHE.invalidateAll();
+			log.info("离线IP地址库加载完成 {}，共{}条，耗时{}ms", path, loaded.size(), System.currentTimeMillis() - now);
+		} catch (IOException e) {
+			log.error("离线IP地址库加载失败 {}", path, e);
+		}
+	}
 }
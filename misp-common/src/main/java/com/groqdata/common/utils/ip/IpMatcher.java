@@ -0,0 +1,237 @@
+package com.groqdata.common.utils.ip;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * 预编译的IP过滤规则，编译后不可变，可在多线程间共享
+ * <p>
+ * 支持精确IP、后缀'*'通配（如 10.10.*.*）、网段（如 10.10.10.1-10.10.10.99）以及CIDR（如 10.10.0.0/16），
+ * 多条规则以';'或','分隔。通配、网段、CIDR统一编译为合并后的有序区间，匹配时二分查找。
+ *
+ * @author MISP TEAM
+ */
+public final class IpMatcher {
+
+	/**
+	 * 空规则，不匹配任何IP
+	 */
+	public static final IpMatcher EMPTY = new IpMatcher(StringUtils.EMPTY, Collections.emptySet(), new long[0],
+			new long[0]);
+
+	/**
+	 * 按规则字符串缓存编译结果，规则变更后自然生成新的匹配器
+	 */
+	private static final Cache<String, IpMatcher> COMPILED = Caffeine.newBuilder().maximumSize(1000).build();
+
+	private final String source;
+
+	private final Set<String> exactIps;
+
+	private final long[] starts;
+
+	private final long[] ends;
+
+	private IpMatcher(String source, Set<String> exactIps, long[] starts, long[] ends) {
+		this.source = source;
+		this.exactIps = exactIps;
+		this.starts = starts;
+		this.ends = ends;
+	}
+
+	/**
+	 * 获取规则对应的匹配器，相同规则只编译一次
+	 *
+	 * @param filter 过滤IP列表
+	 * @return 匹配器
+	 */
+	public static IpMatcher of(String filter) {
+		if (StringUtils.isBlank(filter)) {
+			return EMPTY;
+		}
+		return COMPILED.get(filter, IpMatcher::compile);
+	}
+
+	/**
+	 * 编译过滤规则
+	 *
+	 * @param filter 过滤IP列表
+	 * @return 匹配器
+	 */
+	public static IpMatcher compile(String filter) {
+		if (StringUtils.isBlank(filter)) {
+			return EMPTY;
+		}
+		Set<String> exactIps = new HashSet<>();
+		List<long[]> ranges = new ArrayList<>();
+		for (String rule : StringUtils.split(filter, ";,")) {
+			String item = rule.trim();
+			if (item.isEmpty()) {
+				continue;
+			}
+			long[] range = toRange(item);
+			if (range != null) {
+				ranges.add(range);
+			} else {
+				exactIps.add(item);
+			}
+		}
+		return merge(filter, exactIps, ranges);
+	}
+
+	/**
+	 * 校验ip是否符合过滤规则
+	 *
+	 * @param ip 校验IP地址
+	 * @return 结果
+	 */
+	public boolean matches(String ip) {
+		if (StringUtils.isEmpty(ip)) {
+			return false;
+		}
+		if (exactIps.contains(ip)) {
+			return true;
+		}
+		if (starts.length == 0) {
+			return false;
+		}
+		long value = toLong(ip);
+		if (value < 0) {
+			return false;
+		}
+		// 查找起点不大于value的最后一个区间
+		int idx = Arrays.binarySearch(starts, value);
+		if (idx < 0) {
+			idx = -idx - 2;
+		}
+		return idx >= 0 && value <= ends[idx];
+	}
+
+	/**
+	 * 编译时使用的原始规则
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * 将通配、网段、CIDR规则转换为数值区间，其他规则返回null
+	 */
+	private static long[] toRange(String item) {
+		int slash = item.indexOf('/');
+		if (slash > 0) {
+			long base = toLong(item.substring(0, slash));
+			int prefix = parsePrefix(item.substring(slash + 1));
+			if (base < 0 || prefix < 0) {
+				return null;
+			}
+			long mask = prefix == 0 ? 0L : (0xFFFFFFFFL << (32 - prefix)) & 0xFFFFFFFFL;
+			long start = base & mask;
+			return new long[]{start, start | (~mask & 0xFFFFFFFFL)};
+		}
+		int dash = item.indexOf('-');
+		if (dash > 0) {
+			long start = toLong(item.substring(0, dash));
+			long end = toLong(item.substring(dash + 1));
+			if (start < 0 || end < 0) {
+				return null;
+			}
+			return start <= end ? new long[]{start, end} : new long[]{end, start};
+		}
+		if (item.indexOf('*') >= 0 && IpUtils.isIpWildCard(item)) {
+			String[] parts = item.split("\\.");
+			long start = 0;
+			long end = 0;
+			for (String part : parts) {
+				if ("*".equals(part)) {
+					start = start << 8;
+					end = end << 8 | 0xFF;
+				} else {
+					int seg = Integer.parseInt(part);
+					start = start << 8 | seg;
+					end = end << 8 | seg;
+				}
+			}
+			return new long[]{start, end};
+		}
+		return null;
+	}
+
+	/**
+	 * 合并重叠区间
+	 */
+	private static IpMatcher merge(String source, Set<String> exactIps, List<long[]> ranges) {
+		ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+		List<long[]> merged = new ArrayList<>(ranges.size());
+		for (long[] range : ranges) {
+			long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+			if (last != null && range[0] <= last[1] + 1) {
+				last[1] = Math.max(last[1], range[1]);
+			} else {
+				merged.add(new long[]{range[0], range[1]});
+			}
+		}
+		long[] starts = new long[merged.size()];
+		long[] ends = new long[merged.size()];
+		for (int i = 0; i < merged.size(); i++) {
+			starts[i] = merged.get(i)[0];
+			ends[i] = merged.get(i)[1];
+		}
+		return new IpMatcher(source, Collections.unmodifiableSet(exactIps), starts, ends);
+	}
+
+	/**
+	 * 将点分十进制IPv4地址转换为数值，格式不合法时返回-1
+	 */
+	static long toLong(String ip) {
+		long value = 0;
+		int segments = 0;
+		int seg = -1;
+		for (int i = 0, len = ip.length(); i < len; i++) {
+			char c = ip.charAt(i);
+			if (c >= '0' && c <= '9') {
+				seg = (seg < 0 ? 0 : seg * 10) + (c - '0');
+				if (seg > 255) {
+					return -1;
+				}
+			} else if (c == '.' && seg >= 0 && segments < 3) {
+				value = value << 8 | seg;
+				segments++;
+				seg = -1;
+			} else {
+				return -1;
+			}
+		}
+		if (seg < 0 || segments != 3) {
+			return -1;
+		}
+		return value << 8 | seg;
+	}
+
+	/**
+	 * 解析CIDR前缀长度，格式不合法时返回-1
+	 */
+	private static int parsePrefix(String text) {
+		if (text.isEmpty() || text.length() > 2) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value > 32 ? -1 : value;
+	}
+}
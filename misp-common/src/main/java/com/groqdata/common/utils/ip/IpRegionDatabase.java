@@ -0,0 +1,162 @@
+package com.groqdata.common.utils.ip;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 离线IP地址库（仅IPv4）
+ * <p>
+ * 数据文件为文本格式，每行一个区间：{@code 起始IP|结束IP|地址字段1|地址字段2|...}，
+ * 兼容 ip2region 的 txt 源数据（如 {@code 1.0.1.0|1.0.3.255|中国|0|福建省|福州市|电信}），
+ * 地址字段中的空值与 "0" 会被忽略，其余以空格拼接。以 # 开头的行为注释。
+ * <p>
+ * 区间按起始地址排序后存放在基本类型数组中，查询为一次二分查找；地址文本去重后按下标引用。
+ *
+ * @author MISP TEAM
+ */
+public final class IpRegionDatabase {
+	/**
+	 * 无符号IPv4地址映射到有符号int的偏移，使int的自然顺序与地址顺序一致
+	 */
+	private static final long SIGN_OFFSET = 0x80000000L;
+
+	private static final int INITIAL_CAPACITY = 1 << 16;
+
+	private final int[] starts;
+
+	private final int[] ends;
+
+	private final int[] regionIndexes;
+
+	private final String[] regions;
+
+	private IpRegionDatabase(int[] starts, int[] ends, int[] regionIndexes, String[] regions) {
+		this.starts = starts;
+		this.ends = ends;
+		this.regionIndexes = regionIndexes;
+		this.regions = regions;
+	}
+
+	/**
+	 * 从文件加载地址库
+	 *
+	 * @param path 数据文件路径
+	 * @return 地址库
+	 * @throws IOException 读取失败
+	 */
+	public static IpRegionDatabase load(Path path) throws IOException {
+		long[] keys = new long[INITIAL_CAPACITY];
+		int[] endValues = new int[INITIAL_CAPACITY];
+		int[] regionValues = new int[INITIAL_CAPACITY];
+		Map<String, Integer> regionIds = new HashMap<>();
+		int size = 0;
+		boolean sorted = true;
+		long previous = Long.MIN_VALUE;
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty() || line.charAt(0) == '#') {
+					continue;
+				}
+				String[] fields = StringUtils.splitPreserveAllTokens(line, '|');
+				if (fields.length < 3) {
+					continue;
+				}
+				long start = IpMatcher.toLong(fields[0].trim());
+				long end = IpMatcher.toLong(fields[1].trim());
+				if (start < 0 || end < start) {
+					continue;
+				}
+				if (size == keys.length) {
+					keys = Arrays.copyOf(keys, size << 1);
+					endValues = Arrays.copyOf(endValues, size << 1);
+					regionValues = Arrays.copyOf(regionValues, size << 1);
+				}
+				// 高32位为偏移后的起始地址，低32位为行号，排序后仍可找回对应的结束地址与地址文本
+				keys[size] = (start - SIGN_OFFSET) << 32 | size;
+				endValues[size] = (int) (end - SIGN_OFFSET);
+				regionValues[size] = regionIds.computeIfAbsent(toRegion(fields), k -> regionIds.size());
+				sorted &= start >= previous;
+				previous = start;
+				size++;
+			}
+		}
+		if (!sorted) {
+			Arrays.sort(keys, 0, size);
+		}
+		int[] starts = new int[size];
+		int[] ends = new int[size];
+		int[] regionIndexes = new int[size];
+		for (int i = 0; i < size; i++) {
+			int row = (int) (keys[i] & 0xFFFFFFFFL);
+			starts[i] = (int) (keys[i] >> 32);
+			ends[i] = endValues[row];
+			regionIndexes[i] = regionValues[row];
+		}
+		String[] regions = new String[regionIds.size()];
+		regionIds.forEach((region, id) -> regions[id] = region);
+		return new IpRegionDatabase(starts, ends, regionIndexes, regions);
+	}
+
+	private static String toRegion(String[] fields) {
+		StringBuilder region = new StringBuilder();
+		for (int i = 2; i < fields.length; i++) {
+			String field = fields[i].trim();
+			if (field.isEmpty() || "0".equals(field)) {
+				continue;
+			}
+			if (!region.isEmpty()) {
+				region.append(' ');
+			}
+			region.append(field);
+		}
+		return region.toString();
+	}
+
+	/**
+	 * 查询IP所属地址
+	 *
+	 * @param ip IPv4地址
+	 * @return 地址，未收录或非IPv4时返回null
+	 */
+	public String lookup(String ip) {
+		long value = ip == null ? -1 : IpMatcher.toLong(ip.trim());
+		if (value < 0) {
+			return null;
+		}
+		int key = (int) (value - SIGN_OFFSET);
+		// 找到最后一个起始地址 <= key 的区间
+		int low = 0;
+		int high = starts.length - 1;
+		int found = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] <= key) {
+				found = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		if (found < 0 || key > ends[found]) {
+			return null;
+		}
+		String region = regions[regionIndexes[found]];
+		return region.isEmpty() ? null : region;
+	}
+
+	/**
+	 * 区间条数
+	 */
+	public int size() {
+		return starts.length;
+	}
+}
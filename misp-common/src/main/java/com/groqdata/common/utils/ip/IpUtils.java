@@ -325,7 +325,7 @@ public class IpUtils {
 	/**
 	 * 校验ip是否符合过滤串规则
 	 *
-	 * @param filter 过滤IP列表,支持后缀'*'通配,支持网段如:`10.10.10.1-10.10.10.99`
+	 * @param filter 过滤IP列表,支持后缀'*'通配,支持网段如:`10.10.10.1-10.10.10.99`,支持CIDR如:`10.10.0.0/16`
 	 * @param ip 校验IP地址
 	 * @return boolean 结果
 	 */
@@ -333,16 +333,7 @@ public class IpUtils {
 		if (StringUtils.isEmpty(filter) || StringUtils.isEmpty(ip)) {
 			return false;
 		}
-
-		String[] ips = filter.split(";");
-		for (String iStr : ips) {
-			if (iStr.equals(ip)
-					|| (isIpWildCard(iStr) && ipIsInWildCardNoCheck(iStr, ip))
-					|| (isIPSegment(iStr) && ipIsInNetNoCheck(iStr, ip))) {
-				return true;
-			}
-		}
-		return false;
+		return IpMatcher.of(filter).matches(ip);
 	}
 
 }
@@ -0,0 +1,299 @@
+package com.groqdata.common.utils.poi;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.groqdata.common.annotation.Excel;
+import com.groqdata.common.annotation.Excels;
+import com.groqdata.common.utils.reflect.ReflectUtils;
+
+/**
+ * 实体类的Excel元数据
+ * <p>
+ * 每个类只解析一次并在各请求间共享：带注解的列、字段读取与setter写入均预先解析为 {@link MethodHandle}，
+ * 导入导出时不再逐单元格查找字段与方法。
+ *
+ * @author MISP TEAM
+ */
+final class ExcelClassMeta {
+	private static final Logger log = LoggerFactory.getLogger(ExcelClassMeta.class);
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	private static final ClassValue<ExcelClassMeta> CACHE = new ClassValue<>() {
+		@Override
+		protected ExcelClassMeta computeValue(Class<?> type) {
+			return new ExcelClassMeta(type);
+		}
+	};
+
+	/**
+	 * 注解列
+	 *
+	 * @param field 字段
+	 * @param attr 注解
+	 * @param multiple 是否来自 {@link Excels}
+	 * @param subListGetter 集合字段的getter，非集合字段为null
+	 * @param subFields 集合元素类中带 {@link Excel} 的字段，非集合字段为null
+	 */
+	record Column(Field field, Excel attr, boolean multiple, MethodHandle subListGetter, List<Field> subFields) {
+	}
+
+	/**
+	 * setter及其参数类型
+	 */
+	private record Setter(MethodHandle handle, Class<?> type) {
+	}
+
+	private final List<Column> columns;
+
+	private final List<Field> excelFields;
+
+	private final Map<String, MethodHandle> getters = new HashMap<>();
+
+	private final Map<String, Setter> setters = new HashMap<>();
+
+	private final MethodHandle constructor;
+
+	private ExcelClassMeta(Class<?> clazz) {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		this.constructor = resolveConstructor(clazz, lookup);
+		for (Field field : clazz.getDeclaredFields()) {
+			if (!Modifier.isStatic(field.getModifiers()) && makeAccessible(field)) {
+				try {
+					getters.put(field.getName(), lookup.unreflectGetter(field).asType(GETTER_TYPE));
+				} catch (IllegalAccessException e) {
+					log.warn("无法读取字段 {}.{}: {}", clazz.getName(), field.getName(), e.getMessage());
+				}
+			}
+		}
+
+		List<Field> declared = new ArrayList<>();
+		if (clazz.getSuperclass() != null) {
+			declared.addAll(Arrays.asList(clazz.getSuperclass().getDeclaredFields()));
+		}
+		declared.addAll(Arrays.asList(clazz.getDeclaredFields()));
+		List<Column> columnList = new ArrayList<>();
+		for (Field field : declared) {
+			Excel attr = field.getAnnotation(Excel.class);
+			if (attr != null) {
+				makeAccessible(field);
+				columnList.add(createColumn(clazz, field, attr, lookup));
+				if (StringUtils.isEmpty(attr.targetAttr())) {
+					resolveSetter(clazz, field.getName(), lookup);
+				}
+			}
+			Excels attrs = field.getAnnotation(Excels.class);
+			if (attrs != null) {
+				for (Excel excel : attrs.value()) {
+					columnList.add(new Column(field, excel, true, null, null));
+				}
+			}
+		}
+		this.columns = Collections.unmodifiableList(columnList);
+
+		List<Field> fieldList = FieldUtils.getFieldsListWithAnnotation(clazz, Excel.class);
+		fieldList.forEach(ExcelClassMeta::makeAccessible);
+		this.excelFields = Collections.unmodifiableList(fieldList);
+	}
+
+	/**
+	 * 获取类的元数据，首次访问时解析
+	 */
+	static ExcelClassMeta of(Class<?> clazz) {
+		return CACHE.get(clazz);
+	}
+
+	/**
+	 * 父类与本类声明的注解列，按声明顺序
+	 */
+	List<Column> columns() {
+		return columns;
+	}
+
+	/**
+	 * 类及其父类中带 {@link Excel} 的字段
+	 */
+	List<Field> excelFields() {
+		return excelFields;
+	}
+
+	/**
+	 * 通过无参构造方法创建实例
+	 */
+	Object newInstance() throws NoSuchMethodException {
+		if (constructor == null) {
+			throw new NoSuchMethodException("无参构造方法不可用");
+		}
+		try {
+			return (Object) constructor.invokeExact();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 读取字段值
+	 *
+	 * @param bean 对象实例
+	 * @param field 字段
+	 * @return 字段值
+	 */
+	static Object get(Object bean, Field field) throws NoSuchFieldException {
+		return of(field.getDeclaringClass()).get(bean, field.getName());
+	}
+
+	/**
+	 * 读取本类声明的字段值
+	 *
+	 * @param bean 对象实例
+	 * @param fieldName 字段名称
+	 * @return 字段值
+	 */
+	Object get(Object bean, String fieldName) throws NoSuchFieldException {
+		MethodHandle getter = getters.get(fieldName);
+		if (getter == null) {
+			throw new NoSuchFieldException(fieldName);
+		}
+		try {
+			return (Object) getter.invokeExact(bean);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 调用属性的setter，参数类型不一致时按 {@link ReflectUtils#convertArgument} 转换；
+	 * 多级属性或未预先解析的属性回退到 {@link ReflectUtils#invokeSetter}
+	 *
+	 * @param bean 对象实例
+	 * @param propertyName 属性名称
+	 * @param value 值
+	 */
+	void set(Object bean, String propertyName, Object value) {
+		Setter setter = setters.get(propertyName);
+		if (setter == null) {
+			ReflectUtils.invokeSetter(bean, propertyName, value);
+			return;
+		}
+		Object arg = value;
+		if (arg != null && arg.getClass() != setter.type()) {
+			arg = ReflectUtils.convertArgument(setter.type(), arg);
+		}
+		try {
+			setter.handle().invokeExact(bean, arg);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 读取集合字段的值
+	 *
+	 * @param column 集合列
+	 * @param bean 对象实例
+	 * @return 集合值，无法读取时返回空集合
+	 */
+	static Collection<?> getSubList(Column column, Object bean) {
+		if (column == null || column.subListGetter() == null) {
+			return new ArrayList<>();
+		}
+		try {
+			return (Collection<?>) (Object) column.subListGetter().invokeExact(bean);
+		} catch (Throwable e) {
+			return new ArrayList<>();
+		}
+	}
+
+	private static Column createColumn(Class<?> clazz, Field field, Excel attr, MethodHandles.Lookup lookup) {
+		if (!Collection.class.isAssignableFrom(field.getType())) {
+			return new Column(field, attr, false, null, null);
+		}
+		MethodHandle subListGetter = null;
+		try {
+			Method method = clazz.getMethod("get" + StringUtils.capitalize(field.getName()));
+			subListGetter = lookup.unreflect(method).asType(GETTER_TYPE);
+		} catch (Exception e) {
+			log.error("获取对象异常{}", e.getMessage());
+		}
+		ParameterizedType pt = (ParameterizedType) field.getGenericType();
+		Class<?> subClass = (Class<?>) pt.getActualTypeArguments()[0];
+		// 元素类可能与当前类相同（如树形children），此处不能递归取元数据
+		List<Field> subFields = FieldUtils.getFieldsListWithAnnotation(subClass, Excel.class);
+		subFields.forEach(ExcelClassMeta::makeAccessible);
+		return new Column(field, attr, false, subListGetter, Collections.unmodifiableList(subFields));
+	}
+
+	private static MethodHandle resolveConstructor(Class<?> clazz, MethodHandles.Lookup lookup) {
+		if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+			return null;
+		}
+		try {
+			Constructor<?> ctor = clazz.getDeclaredConstructor();
+			ctor.setAccessible(true);
+			return lookup.unreflectConstructor(ctor).asType(CONSTRUCTOR_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException | InaccessibleObjectException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 按名称查找setter（沿父类向上，只匹配方法名与参数个数，与 ReflectUtils.invokeSetter 一致）
+	 */
+	private void resolveSetter(Class<?> clazz, String propertyName, MethodHandles.Lookup lookup) {
+		String methodName = "set" + StringUtils.capitalize(propertyName);
+		for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+			for (Method method : type.getDeclaredMethods()) {
+				if (method.getName().equals(methodName) && method.getParameterCount() == 1) {
+					try {
+						ReflectUtils.makeAccessible(method);
+						setters.put(propertyName, new Setter(lookup.unreflect(method).asType(SETTER_TYPE),
+								method.getParameterTypes()[0]));
+					} catch (IllegalAccessException | InaccessibleObjectException e) {
+						log.warn("无法调用方法 {}.{}: {}", type.getName(), methodName, e.getMessage());
+					}
+					return;
+				}
+			}
+		}
+	}
+
+	private static boolean makeAccessible(Field field) {
+		try {
+			field.setAccessible(true);
+			return true;
+		} catch (InaccessibleObjectException e) {
+			log.warn("无法直接访问字段 {}: {}", field.getName(), e.getMessage());
+			return false;
+		}
+	}
+}
@@ -59,6 +59,11 @@ public class ExcelConstants {
 
 	public static final int DEFAULT_MAX_SHEET_SIZE = 65536;
 
+	/**
+	 * 并行导出时每批转换的行数，列表导出超过该行数时启用并行转换
+	 */
+	public static final int PARALLEL_CHUNK_SIZE = 1000;
+
 	private ExcelConstants() {
 		// 私有构造函数防止实例化
 	}
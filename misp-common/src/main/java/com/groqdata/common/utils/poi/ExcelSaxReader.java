@@ -0,0 +1,299 @@
+package com.groqdata.common.utils.poi;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.DecimalFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.PictureData;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.CTDrawing;
+import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.CTMarker;
+import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.CTOneCellAnchor;
+import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.CTPicture;
+import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.CTTwoCellAnchor;
+import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.WsDrDocument;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.groqdata.common.exception.file.ExcelException;
+
+/**
+ * 基于SAX事件的xlsx读取器
+ * <p>
+ * 上传流先写入临时文件再以只读方式打开，工作表XML逐行解析，不构建整个工作簿对象；
+ * 图片仅在调用 {@link #getPictures()} 时才从绘图部件中读取，且图片内容在使用时才加载。
+ *
+ * @author MISP TEAM
+ */
+final class ExcelSaxReader implements Closeable {
+
+	/**
+	 * 逐行回调
+	 */
+	interface RowHandler {
+		/**
+		 * @param rowNum 行号（从0开始）
+		 * @param cells 列号 -> 单元格值（日期为Date，小数为BigDecimal，其余为String）
+		 */
+		void handleRow(int rowNum, Map<Integer, Object> cells);
+	}
+
+	private final File tempFile;
+
+	private final OPCPackage pkg;
+
+	private final XSSFReader reader;
+
+	private PackagePart sheetPart;
+
+	private Map<String, PictureData> pictures;
+
+	ExcelSaxReader(InputStream inputStream) throws ExcelException {
+		try {
+			tempFile = Files.createTempFile("misp-import-", ".xlsx").toFile();
+		} catch (IOException e) {
+			throw new ExcelException("创建Excel临时文件失败", e);
+		}
+		try {
+			Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			pkg = OPCPackage.open(tempFile, PackageAccess.READ);
+			reader = new XSSFReader(pkg);
+		} catch (Exception e) {
+			close();
+			throw new ExcelException("读取Excel文件失败", e);
+		}
+	}
+
+	/**
+	 * 选择工作表
+	 *
+	 * @param sheetName 工作表名称，为空时取第一个
+	 */
+	void selectSheet(String sheetName) throws ExcelException {
+		try {
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				try (InputStream ignored = sheets.next()) {
+					if (StringUtils.isEmpty(sheetName) || sheetName.equals(sheets.getSheetName())) {
+						sheetPart = sheets.getSheetPart();
+						return;
+					}
+				}
+			}
+		} catch (Exception e) {
+			throw new ExcelException("读取Excel工作表失败", e);
+		}
+		throw new ExcelException("指定的Sheet不存在");
+	}
+
+	/**
+	 * 逐行读取已选择的工作表
+	 *
+	 * @param handler 逐行回调
+	 */
+	void readRows(RowHandler handler) throws ExcelException {
+		try (InputStream sheetStream = sheetPart.getInputStream()) {
+			StylesTable styles = reader.getStylesTable();
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+			TypedValueFormatter formatter = new TypedValueFormatter();
+			XMLReader parser = SAXHelper.newXMLReader();
+			parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+					new RowCollector(handler, formatter), formatter, false));
+			parser.parse(new InputSource(sheetStream));
+		} catch (ExcelException e) {
+			throw e;
+		} catch (IOException | SAXException | ParserConfigurationException | OpenXML4JException e) {
+			throw new ExcelException("解析Excel工作表失败", e);
+		}
+	}
+
+	/**
+	 * 已选择工作表中的图片，key 为 行号_列号，与 {@link ExcelUtil#getSheetPictures07} 一致
+	 *
+	 * @return 图片集合
+	 */
+	Map<String, PictureData> getPictures() {
+		if (pictures == null) {
+			pictures = loadPictures();
+		}
+		return pictures;
+	}
+
+	private Map<String, PictureData> loadPictures() {
+		Map<String, PictureData> result = new HashMap<>();
+		try {
+			for (PackageRelationship rel : sheetPart.getRelationshipsByType(XSSFRelation.DRAWINGS.getRelation())) {
+				PackagePart drawingPart = sheetPart.getRelatedPart(rel);
+				CTDrawing drawing;
+				try (InputStream in = drawingPart.getInputStream()) {
+					drawing = WsDrDocument.Factory.parse(in).getWsDr();
+				}
+				for (CTTwoCellAnchor anchor : drawing.getTwoCellAnchorList()) {
+					putPicture(result, drawingPart, anchor.getFrom(), anchor.getPic());
+				}
+				for (CTOneCellAnchor anchor : drawing.getOneCellAnchorList()) {
+					putPicture(result, drawingPart, anchor.getFrom(), anchor.getPic());
+				}
+			}
+		} catch (Exception e) {
+			throw new ExcelException("读取Excel图片失败", e);
+		}
+		return result.isEmpty() ? Collections.emptyMap() : result;
+	}
+
+	private static void putPicture(Map<String, PictureData> result, PackagePart drawingPart, CTMarker from,
+			CTPicture pic) throws Exception {
+		if (from == null || pic == null || pic.getBlipFill() == null || pic.getBlipFill().getBlip() == null) {
+			return;
+		}
+		PackageRelationship imageRel = drawingPart.getRelationship(pic.getBlipFill().getBlip().getEmbed());
+		if (imageRel != null) {
+			PackagePart imagePart = drawingPart.getRelatedPart(imageRel);
+			result.put(from.getRow() + "_" + from.getCol(), new PartPictureData(imagePart));
+		}
+	}
+
+	@Override
+	public void close() {
+		if (pkg != null) {
+			pkg.revert();
+		}
+		if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+			tempFile.deleteOnExit();
+		}
+	}
+
+	/**
+	 * 收集一行的单元格，行结束时交给回调
+	 */
+	private static final class RowCollector implements SheetContentsHandler {
+		private final RowHandler handler;
+
+		private final TypedValueFormatter formatter;
+
+		private Map<Integer, Object> cells = new HashMap<>();
+
+		private int column = -1;
+
+		RowCollector(RowHandler handler, TypedValueFormatter formatter) {
+			this.handler = handler;
+			this.formatter = formatter;
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			cells = new HashMap<>();
+			column = -1;
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			handler.handleRow(rowNum, cells);
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			column = cellReference == null ? column + 1 : new CellReference(cellReference).getCol();
+			Object typed = formatter.takeLastValue();
+			Object value = typed != null ? typed : formattedValue;
+			if (value != null && !"".equals(value)) {
+				cells.put(column, value);
+			}
+		}
+
+		@Override
+		public void headerFooter(String text, boolean isHeader, String tagName) {
+			// 页眉页脚不参与导入
+		}
+	}
+
+	/**
+	 * 保留数值单元格的原始类型，使结果与按DOM读取时一致：日期为Date，小数为BigDecimal，整数为不带小数点的字符串
+	 */
+	private static final class TypedValueFormatter extends DataFormatter {
+		private final DecimalFormat integerFormat = new DecimalFormat("0");
+
+		private Object lastValue;
+
+		@Override
+		public String formatRawCellContents(double value, int formatIndex, String formatString,
+				boolean use1904Windowing) {
+			if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+				lastValue = DateUtil.getJavaDate(value, use1904Windowing);
+			} else if (value % 1 != 0) {
+				lastValue = new BigDecimal(Double.toString(value));
+			} else {
+				lastValue = integerFormat.format(value);
+			}
+			return lastValue.toString();
+		}
+
+		Object takeLastValue() {
+			Object value = lastValue;
+			lastValue = null;
+			return value;
+		}
+	}
+
+	/**
+	 * 延迟读取内容的图片
+	 */
+	private static final class PartPictureData implements PictureData {
+		private final PackagePart part;
+
+		PartPictureData(PackagePart part) {
+			this.part = part;
+		}
+
+		@Override
+		public byte[] getData() {
+			try (InputStream in = part.getInputStream()) {
+				return in.readAllBytes();
+			} catch (IOException e) {
+				throw new ExcelException("读取Excel图片失败", e);
+			}
+		}
+
+		@Override
+		public String suggestFileExtension() {
+			return StringUtils.substringAfterLast(part.getPartName().getName(), ".").toLowerCase();
+		}
+
+		@Override
+		public String getMimeType() {
+			return part.getContentType();
+		}
+
+		@Override
+		public int getPictureType() {
+			return -1;
+		}
+	}
+}
@@ -2,10 +2,10 @@ package com.groqdata.common.utils.poi;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Field;
-import java.lang.reflect.InaccessibleObjectException;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.math.BigDecimal;
@@ -14,6 +14,15 @@ import java.text.MessageFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -21,6 +30,7 @@ import com.groqdata.common.exception.file.ExcelException;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.RegExUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.poi.hssf.usermodel.HSSFClientAnchor;
 import org.apache.poi.hssf.usermodel.HSSFPicture;
@@ -29,6 +39,7 @@ import org.apache.poi.hssf.usermodel.HSSFShape;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -79,7 +90,6 @@ import com.groqdata.common.utils.basic.StringHelper;
 import com.groqdata.common.utils.file.FileTypeUtils;
 import com.groqdata.common.utils.file.FileUtils;
 import com.groqdata.common.utils.file.ImageUtils;
-import com.groqdata.common.utils.reflect.ReflectUtils;
 
 /**
  * Excel相关处理工具类
@@ -90,9 +100,24 @@ public class ExcelUtil<T> {
 	private static final Logger log = LoggerFactory.getLogger(ExcelUtil.class);
 
 	/**
-	 * 用于dictType属性数据存储，避免重复查缓存
+	 * 用于dictType属性数据存储，避免重复查缓存（并行导出时由转换线程共享）
 	 */
-	private final Map<String, String> sysDictMap = new HashMap<>();
+	private final Map<String, String> sysDictMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 并行导出时在工作线程中完成的单元格值转换
+	 *
+	 * @param raw 原始值，用于合计统计
+	 * @param display 写入单元格的值（String 或 Double）
+	 */
+	private record PreparedValue(Object raw, Object display) {
+	}
+
+	/**
+	 * 并行转换中的一批数据，按提交顺序写入
+	 */
+	private record ConvertChunk<E>(List<E> rows, Future<List<Object[]>> values) {
+	}
 
 	/**
 	 * 工作表名称
@@ -155,9 +180,9 @@ public class ExcelUtil<T> {
 	private int subMergedFirstRowNum = 1;
 
 	/**
-	 * 对象的子列表方法
+	 * 对象的子列表列
 	 */
-	private Method subMethod;
+	private ExcelClassMeta.Column subColumn;
 
 	/**
 	 * 对象的子列表属性
@@ -195,8 +220,14 @@ public class ExcelUtil<T> {
 		this.excludeFields = excludeFields;
 	}
 
+	/**
+	 * 实体类的Excel元数据（按类缓存）
+	 */
+	private final ExcelClassMeta meta;
+
 	public ExcelUtil(Class<T> clazz) {
 		this.clazz = clazz;
+		this.meta = ExcelClassMeta.of(clazz);
 	}
 
 	public String getDictValue(String key) {
@@ -204,7 +235,9 @@ public class ExcelUtil<T> {
 	}
 
 	public void putDictValue(String key, String value) {
-		sysDictMap.put(key, value);
+		if (value != null) {
+			sysDictMap.put(key, value);
+		}
 	}
 
 	/**
@@ -337,8 +370,6 @@ public class ExcelUtil<T> {
 
 		List<T> resultList = new ArrayList<>();
 		Sheet targetSheet = getTargetSheet(sheetNameParam);
-		boolean isXSSFWorkbook = !(wb instanceof HSSFWorkbook);
-		Map<String, PictureData> pictures = loadPictures(targetSheet, isXSSFWorkbook);
 
 		int rows = targetSheet.getLastRowNum();
 		if (rows <= titleNum) {
@@ -353,19 +384,107 @@ public class ExcelUtil<T> {
 		Map<String, Integer> cellMap = buildHeaderMap(headerRow);
 		List<Object[]> fieldList = this.getFields();
 		Map<Integer, Object[]> fieldsMap = buildFieldsMap(cellMap, fieldList);
+		// 只有存在图片列时才解析绘图部件
+		Map<String, PictureData> pictures = hasImageField(fieldsMap)
+				? loadPictures(targetSheet, !(wb instanceof HSSFWorkbook))
+				: Collections.emptyMap();
 
 		for (int i = titleNum + 1; i <= rows; i++) {
 			Row row = targetSheet.getRow(i);
 			if (isRowEmpty(row)) {
 				continue;
 			}
-			T entity = convertRowToEntity(row, fieldsMap, pictures);
+			T entity = convertRowToEntity(i, col -> getCellValue(row, col), fieldsMap, pictures);
 			resultList.add(entity);
 		}
 
 		return resultList;
 	}
 
+	/**
+	 * 以流式方式读取excel表单默认第一个索引名，逐行转换后交给consumer
+	 *
+	 * @param inputStream 输入流
+	 * @param consumer 逐行接收转换后的对象
+	 * @return 导入的行数
+	 */
+	public int importExcelStream(InputStream inputStream, Consumer<T> consumer) {
+		try {
+			return importExcelStream(StringUtils.EMPTY, inputStream, 0, consumer);
+		} catch (Exception e) {
+			log.error("导入Excel异常{}", e.getMessage());
+			throw new UtilException(e.getMessage());
+		} finally {
+			IOUtils.closeQuietly(inputStream);
+		}
+	}
+
+	/**
+	 * 以流式方式读取excel表单指定表格索引名，逐行转换后交给consumer
+	 * <p>
+	 * xlsx文件按SAX事件逐行解析，内存占用与行数无关，图片仅在存在图片列时读取；
+	 * 其他格式回退到 {@link #importExcel(String, InputStream, int)}。
+	 *
+	 * @param sheetNameParam 表格索引名
+	 * @param inputStream 输入流
+	 * @param titleNum 标题占用行数
+	 * @param consumer 逐行接收转换后的对象
+	 * @return 导入的行数
+	 */
+	public int importExcelStream(String sheetNameParam, InputStream inputStream, int titleNum, Consumer<T> consumer)
+			throws ExcelException {
+		this.type = Type.IMPORT;
+		InputStream in;
+		try {
+			in = FileMagic.prepareToCheckMagic(inputStream);
+			if (FileMagic.valueOf(in) != FileMagic.OOXML) {
+				List<T> list = importExcel(sheetNameParam, in, titleNum);
+				list.forEach(consumer);
+				return list.size();
+			}
+		} catch (IOException e) {
+			throw new ExcelException("读取Excel文件失败", e);
+		}
+
+		try (ExcelSaxReader reader = new ExcelSaxReader(in)) {
+			reader.selectSheet(sheetNameParam);
+			List<Object[]> fieldList = this.getFields();
+			SaxImportCursor cursor = new SaxImportCursor();
+			reader.readRows((rowNum, cells) -> {
+				if (rowNum == titleNum) {
+					Map<String, Integer> cellMap = new HashMap<>();
+					cells.forEach((col, value) -> cellMap.put(value.toString(), col));
+					cursor.fieldsMap = buildFieldsMap(cellMap, fieldList);
+					cursor.pictures = hasImageField(cursor.fieldsMap) ? reader.getPictures() : Collections.emptyMap();
+				} else if (rowNum > titleNum && cursor.fieldsMap != null && !cells.isEmpty()) {
+					T entity = convertRowToEntity(rowNum, col -> cells.getOrDefault(col, ""), cursor.fieldsMap,
+							cursor.pictures);
+					consumer.accept(entity);
+					cursor.count++;
+				}
+			});
+			return cursor.count;
+		}
+	}
+
+	/**
+	 * 流式导入时在行回调之间传递的表头映射与计数
+	 */
+	private static final class SaxImportCursor {
+		private Map<Integer, Object[]> fieldsMap;
+		private Map<String, PictureData> pictures;
+		private int count;
+	}
+
+	private boolean hasImageField(Map<Integer, Object[]> fieldsMap) {
+		for (Object[] objects : fieldsMap.values()) {
+			if (ColumnType.IMAGE == ((Excel) objects[1]).cellType()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private Sheet getTargetSheet(String sheetNameParam) throws ExcelException {
 		Sheet targetSheet = StringUtils.isNotEmpty(sheetNameParam) ? wb.getSheet(sheetNameParam) : wb.getSheetAt(0);
 		if (targetSheet == null) {
@@ -404,19 +523,19 @@ public class ExcelUtil<T> {
 		return fieldsMap;
 	}
 
-	private T convertRowToEntity(Row row, Map<Integer, Object[]> fieldsMap, Map<String, PictureData> pictures)
-			throws ExcelException {
+	private T convertRowToEntity(int rowNum, IntFunction<Object> cellValues, Map<Integer, Object[]> fieldsMap,
+			Map<String, PictureData> pictures) throws ExcelException {
 		T entity = null;
 		try {
 			for (Map.Entry<Integer, Object[]> entry : fieldsMap.entrySet()) {
-				Object val = getCellValue(row, entry.getKey());
-				entity = (entity == null ? clazz.getDeclaredConstructor().newInstance() : entity);
+				Object val = cellValues.apply(entry.getKey());
+				entity = (entity == null ? clazz.cast(meta.newInstance()) : entity);
 
 				Field field = (Field) entry.getValue()[0];
 				Excel attr = (Excel) entry.getValue()[1];
-				val = convertCellValue(val, field, attr, row, entry.getKey(), pictures);
+				val = convertCellValue(val, field, attr, rowNum, entry.getKey(), pictures);
 				String propertyName = buildPropertyName(field, attr);
-				ReflectUtils.invokeSetter(entity, propertyName, val);
+				meta.set(entity, propertyName, val);
 			}
 		} catch (Exception e) {
 			throw new ExcelException("转换行数据失败", e);
@@ -424,7 +543,7 @@ public class ExcelUtil<T> {
 		return entity;
 	}
 
-	private Object convertCellValue(Object val, Field field, Excel attr, Row row, int columnIndex,
+	private Object convertCellValue(Object val, Field field, Excel attr, int rowNum, int columnIndex,
 			Map<String, PictureData> pictures) {
 		Class<?> fieldType = field.getType();
 
@@ -432,7 +551,7 @@ public class ExcelUtil<T> {
 		val = convertByFieldType(val, fieldType, attr);
 
 		// 根据注解属性进行进一步处理
-		val = processByAnnotation(val, attr, row, columnIndex, pictures);
+		val = processByAnnotation(val, attr, rowNum, columnIndex, pictures);
 
 		return val;
 	}
@@ -501,7 +620,7 @@ public class ExcelUtil<T> {
 		return Boolean.TYPE == fieldType || Boolean.class == fieldType;
 	}
 
-	private Object processByAnnotation(Object val, Excel attr, Row row, int columnIndex,
+	private Object processByAnnotation(Object val, Excel attr, int rowNum, int columnIndex,
 			Map<String, PictureData> pictures) {
 		if (StringUtils.isNotEmpty(attr.readConverterExp())) {
 			val = reverseByExp(Convert.toStr(val), attr.readConverterExp(), attr.separator());
@@ -515,7 +634,7 @@ public class ExcelUtil<T> {
 		} else if (!attr.handler().equals(ExcelHandlerAdapter.class)) {
 			val = dataFormatHandlerAdapter(val, attr, null);
 		} else if (ColumnType.IMAGE == attr.cellType() && StringHelper.isNotEmpty(pictures)) {
-			PictureData image = pictures.get(row.getRowNum() + "_" + columnIndex);
+			PictureData image = pictures.get(rowNum + "_" + columnIndex);
 			if (image == null) {
 				val = "";
 			} else {
@@ -676,27 +795,17 @@ public class ExcelUtil<T> {
 	 * 创建写入数据到Sheet
 	 */
 	public void writeSheet() {
+		if (Type.EXPORT.equals(type) && !isSubList() && list.size() > ExcelConstants.PARALLEL_CHUNK_SIZE) {
+			// 大数据量按批并行转换，由当前线程顺序写入并按 DEFAULT_MAX_SHEET_SIZE 切换工作表
+			writeSheetStream(sink -> list.forEach(sink));
+			return;
+		}
 		// 取出一共有多少个sheet.
 		int sheetNo = Math.max(1, (int) Math.ceil(list.size() * 1.0 / ExcelConstants.DEFAULT_MAX_SHEET_SIZE));
 		for (int sheetIndex = 0; sheetIndex < sheetNo; sheetIndex++) {
 			createSheet(sheetNo, sheetIndex);
 
-			// 产生一行
-			Row row = sheet.createRow(rownum);
-			int column = 0;
-			// 写入各个字段的列头名称
-			for (Object[] os : fields) {
-				Field field = (Field) os[0];
-				Excel excel = (Excel) os[1];
-				if (Collection.class.isAssignableFrom(field.getType())) {
-					for (Field subField : subFields) {
-						Excel subExcel = subField.getAnnotation(Excel.class);
-						this.createHeadCell(subExcel, row, column++);
-					}
-				} else {
-					this.createHeadCell(excel, row, column++);
-				}
-			}
+			Row row = createHeadRow();
 			if (Type.EXPORT.equals(type)) {
 				fillExcelData(sheetIndex, row);
 				addStatisticsRow();
@@ -704,6 +813,330 @@ public class ExcelUtil<T> {
 		}
 	}
 
+	/**
+	 * 在当前工作表写入列头
+	 *
+	 * @return 列头行
+	 */
+	private Row createHeadRow() {
+		// 产生一行
+		Row row = sheet.createRow(rownum);
+		int column = 0;
+		// 写入各个字段的列头名称
+		for (Object[] os : fields) {
+			Field field = (Field) os[0];
+			Excel excel = (Excel) os[1];
+			if (Collection.class.isAssignableFrom(field.getType())) {
+				for (Field subField : subFields) {
+					Excel subExcel = subField.getAnnotation(Excel.class);
+					this.createHeadCell(subExcel, row, column++);
+				}
+			} else {
+				this.createHeadCell(excel, row, column++);
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * 流式导出：数据由 source 逐条推送并立即写入工作表，不在内存中持有完整列表
+	 * <p>
+	 * source 通常是在只读事务内以 MyBatis ResultHandler/Cursor 逐行读取的查询，例如
+	 * {@code util.exportExcelStream(response, sink -> userService.selectUserList(user, sink), "用户数据")}。
+	 * SXSSF 仅在内存中保留最近的行窗口，其余行写入临时文件，导出行数增加时堆占用保持稳定。
+	 *
+	 * @param response 返回数据
+	 * @param source 数据源，调用时传入逐行写入的回调
+	 * @param sheetNameParam 工作表的名称
+	 */
+	public void exportExcelStream(HttpServletResponse response, Consumer<Consumer<T>> source, String sheetNameParam) {
+		exportExcelStream(response, source, sheetNameParam, StringUtils.EMPTY);
+	}
+
+	/**
+	 * 流式导出：数据由 source 逐条推送并立即写入工作表，不在内存中持有完整列表
+	 *
+	 * @param response 返回数据
+	 * @param source 数据源，调用时传入逐行写入的回调
+	 * @param sheetNameParam 工作表的名称
+	 * @param titleParam 标题
+	 */
+	public void exportExcelStream(HttpServletResponse response, Consumer<Consumer<T>> source, String sheetNameParam,
+			String titleParam) {
+		response.setContentType(ExcelConstants.OFFICE_SPREAD_SHEET);
+		response.setCharacterEncoding("utf-8");
+		this.init(null, sheetNameParam, titleParam, Type.EXPORT);
+		try {
+			writeSheetStream(source);
+			wb.write(response.getOutputStream());
+		} catch (Exception e) {
+			log.error("导出Excel异常{}", e.getMessage(), e);
+		} finally {
+			disposeWorkbook();
+		}
+	}
+
+	/**
+	 * 流式导出到下载目录，供异步导出任务使用
+	 *
+	 * @param source 数据源，调用时传入逐行写入的回调
+	 * @param sheetNameParam 工作表的名称
+	 * @return 下载目录下的文件名
+	 */
+	public String exportExcelFile(Consumer<Consumer<T>> source, String sheetNameParam) {
+		this.init(null, sheetNameParam, StringUtils.EMPTY, Type.EXPORT);
+		String filename = encodingFilename(sheetName);
+		File absoluteFile = new File(getAbsoluteFile(filename));
+		try {
+			writeSheetStream(source);
+			try (OutputStream out = new FileOutputStream(absoluteFile)) {
+				wb.write(out);
+			}
+			return filename;
+		} catch (Exception e) {
+			log.error("导出Excel异常{}", e.getMessage(), e);
+			FileUtils.deleteFile(absoluteFile.getPath());
+			throw new UtilException("导出Excel失败，请联系网站管理员！");
+		} finally {
+			disposeWorkbook();
+		}
+	}
+
+	/**
+	 * 流式写入数据，每满 DEFAULT_MAX_SHEET_SIZE 条切换到新的工作表
+	 * <p>
+	 * 无子列表时，数据按 PARALLEL_CHUNK_SIZE 分批交给转换线程池完成取值、日期格式化、表达式与字典翻译等转换，
+	 * 当前线程作为唯一的写入线程按提交顺序取回结果并写入工作簿，行顺序与输入一致；
+	 * 在途批次数有上限，数据源推送快于写入时会在当前线程等待。
+	 *
+	 * @param source 数据源
+	 */
+	public void writeSheetStream(Consumer<Consumer<T>> source) {
+		createHeadRow();
+		StreamCursor<T> cursor = new StreamCursor<>();
+		cursor.nextRowNo = rownum + 1;
+		if (isSubList()) {
+			source.accept(vo -> appendRow(cursor, vo, null));
+		} else {
+			Deque<ConvertChunk<T>> pending = new ArrayDeque<>();
+			int maxInFlight = ConvertExecutorHolder.PARALLELISM * 2;
+			try {
+				source.accept(vo -> {
+					cursor.chunk.add(vo);
+					if (cursor.chunk.size() >= ExcelConstants.PARALLEL_CHUNK_SIZE) {
+						submitChunk(cursor, pending);
+						writeConvertedChunks(cursor, pending, maxInFlight);
+					}
+				});
+				submitChunk(cursor, pending);
+				writeConvertedChunks(cursor, pending, 0);
+			} finally {
+				pending.forEach(chunk -> chunk.values().cancel(true));
+			}
+		}
+		addStatisticsRow();
+	}
+
+	/**
+	 * 追加一行数据，当前工作表写满时切换到新的工作表
+	 *
+	 * @param cursor 写入位置
+	 * @param vo 导出对象
+	 * @param values 已转换的单元格值，为null时在当前线程转换
+	 */
+	private void appendRow(StreamCursor<T> cursor, T vo, Object[] values) {
+		if (cursor.rowsInSheet == ExcelConstants.DEFAULT_MAX_SHEET_SIZE) {
+			addStatisticsRow();
+			cursor.sheetIndex++;
+			createSheet(cursor.sheetIndex + 1, cursor.sheetIndex);
+			createHeadRow();
+			cursor.rowsInSheet = 0;
+			cursor.nextRowNo = rownum + 1;
+		}
+		if (values == null) {
+			cursor.nextRowNo += fillExcelRow(vo, cursor.nextRowNo);
+		} else {
+			fillConvertedRow(vo, values, cursor.nextRowNo++);
+		}
+		cursor.rowsInSheet++;
+	}
+
+	private void submitChunk(StreamCursor<T> cursor, Deque<ConvertChunk<T>> pending) {
+		if (cursor.chunk.isEmpty()) {
+			return;
+		}
+		List<T> rows = cursor.chunk;
+		cursor.chunk = new ArrayList<>(ExcelConstants.PARALLEL_CHUNK_SIZE);
+		pending.addLast(new ConvertChunk<>(rows, ConvertExecutorHolder.EXECUTOR.submit(() -> convertRows(rows))));
+	}
+
+	/**
+	 * 按提交顺序写入已完成转换的批次，在途批次超过 maxInFlight 时等待队首批次完成
+	 */
+	private void writeConvertedChunks(StreamCursor<T> cursor, Deque<ConvertChunk<T>> pending, int maxInFlight) {
+		while (!pending.isEmpty() && (pending.size() > maxInFlight || pending.peekFirst().values().isDone())) {
+			ConvertChunk<T> chunk = pending.pollFirst();
+			List<Object[]> values;
+			try {
+				values = chunk.values().get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new UtilException("导出Excel被中断");
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof UtilException utilException) {
+					throw utilException;
+				}
+				throw new UtilException(e.getCause());
+			}
+			for (int i = 0; i < chunk.rows().size(); i++) {
+				appendRow(cursor, chunk.rows().get(i), values.get(i));
+			}
+		}
+	}
+
+	/**
+	 * 在转换线程中读取并转换一批数据的单元格值，不访问工作簿；任一单元格转换失败时中止导出，不输出空白单元格
+	 */
+	private List<Object[]> convertRows(List<T> rows) {
+		List<Object[]> result = new ArrayList<>(rows.size());
+		for (T vo : rows) {
+			Object[] values = new Object[fields.size()];
+			for (int i = 0; i < values.length; i++) {
+				Field field = (Field) fields.get(i)[0];
+				Excel excel = (Excel) fields.get(i)[1];
+				if (excel.isExport()) {
+					try {
+						values[i] = prepareCellValue(getTargetValue(vo, field, excel), excel);
+					} catch (Exception e) {
+						throw new UtilException("导出Excel失败，[" + excel.name() + "]列转换出错：" + e.getMessage(), e);
+					}
+				}
+			}
+			result.add(values);
+		}
+		return result;
+	}
+
+	/**
+	 * 写入已转换的一行数据
+	 */
+	private void fillConvertedRow(T vo, Object[] values, int rowNo) {
+		Row currentRow = sheet.createRow(rowNo);
+		for (int column = 0; column < values.length; column++) {
+			Excel excel = (Excel) fields.get(column)[1];
+			try {
+				currentRow.setHeight(maxHeight);
+				if (excel.isExport()) {
+					Cell cell = createAndConfigureCell(excel, currentRow, vo, column);
+					Object value = values[column];
+					if (value instanceof PreparedValue prepared) {
+						setPreparedValue(cell, prepared.display());
+						value = prepared.raw();
+					} else {
+						setCellValueByType(cell, value, excel);
+					}
+					addStatisticsData(column, Convert.toStr(value), excel);
+				}
+			} catch (Exception e) {
+				log.error("导出Excel失败{}", e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * 预先完成不依赖单元格的转换，分支顺序与 {@link #setCellValueByType} 一致；
+	 * 自定义处理器与按列类型写入（含图片）需要访问单元格或工作簿，保留原值由写入线程处理
+	 */
+	private Object prepareCellValue(Object value, Excel excelAttr) {
+		if (!shouldSetValue(value, excelAttr)) {
+			return value;
+		}
+		if (StringUtils.isNotEmpty(excelAttr.dateFormat())) {
+			return new PreparedValue(value, parseDateToStr(excelAttr.dateFormat(), value));
+		} else if (StringUtils.isNotEmpty(excelAttr.readConverterExp())) {
+			return new PreparedValue(value,
+					convertByExp(Convert.toStr(value), excelAttr.readConverterExp(), excelAttr.separator()));
+		} else if (StringUtils.isNotEmpty(excelAttr.dictType())) {
+			return new PreparedValue(value, getDictLabel(value, excelAttr.dictType(), excelAttr.separator()));
+		} else if (value instanceof BigDecimal bigDecimal && -1 != excelAttr.scale()) {
+			return new PreparedValue(value,
+					bigDecimal.setScale(excelAttr.scale(), excelAttr.roundingMode()).doubleValue());
+		}
+		return value;
+	}
+
+	private void setPreparedValue(Cell cell, Object display) {
+		if (display instanceof Double doubleValue) {
+			cell.setCellValue(doubleValue);
+		} else {
+			cell.setCellValue((String) display);
+		}
+	}
+
+	/**
+	 * 流式写入时的位置信息
+	 */
+	private static final class StreamCursor<E> {
+		private int sheetIndex;
+		private int rowsInSheet;
+		private int nextRowNo;
+		private List<E> chunk = new ArrayList<>();
+	}
+
+	/**
+	 * 导出转换线程池，按需创建，线程空闲后回收；所有导出共用，排队批次有上限，
+	 * 队列满时由提交批次的写入线程自行转换，多个导出同时进行时不会无限堆积
+	 */
+	private static final class ConvertExecutorHolder {
+		private static final int PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+		private static final ExecutorService EXECUTOR = createExecutor();
+
+		private static ExecutorService createExecutor() {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, 60, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(PARALLELISM * 2),
+					new BasicThreadFactory.Builder().namingPattern("excel-convert-%d").daemon(true).build(),
+					new ThreadPoolExecutor.CallerRunsPolicy());
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+	}
+
+	/**
+	 * 写入单个对象
+	 *
+	 * @param vo 导出对象
+	 * @param rowNo 起始行号
+	 * @return 占用的行数（含子列表展开的行）
+	 */
+	private int fillExcelRow(T vo, int rowNo) {
+		Row currentRow = sheet.createRow(rowNo);
+		Collection<?> subList = getSubListIfApplicable(vo);
+		int column = 0;
+		for (Object[] os : fields) {
+			Field field = (Field) os[0];
+			Excel excel = (Excel) os[1];
+
+			if (shouldProcessSubList(field, subList)) {
+				processSubListField(currentRow, subList, column, rowNo);
+				column += subFields.size();
+			} else {
+				addCell(excel, currentRow, vo, field, column++);
+			}
+		}
+		return Math.max(1, subList.size());
+	}
+
+	/**
+	 * 关闭工作簿并删除SXSSF产生的临时文件
+	 */
+	private void disposeWorkbook() {
+		if (wb instanceof SXSSFWorkbook sxssfWorkbook) {
+			sxssfWorkbook.dispose();
+		}
+		IOUtils.closeQuietly(wb);
+	}
+
 	/**
 	 * 填充excel数据
 	 *
@@ -806,7 +1239,7 @@ public class ExcelUtil<T> {
 				currentRow = sheet.createRow(currentRowNum);
 			}
 
-			List<Field> subFieldsList = FieldUtils.getFieldsListWithAnnotation(obj.getClass(), Excel.class);
+			List<Field> subFieldsList = ExcelClassMeta.of(obj.getClass()).excelFields();
 			processSubFields(currentRow, obj, subFieldsList, column);
 
 			subFirst = true;
@@ -827,7 +1260,6 @@ public class ExcelUtil<T> {
 		int subIndex = 0;
 		for (Field subField : subFieldsList) {
 			if (subField.isAnnotationPresent(Excel.class)) {
-				setFieldAccessible(subField);
 				Excel attr = subField.getAnnotation(Excel.class);
 				addCell(attr, currentRow, (T) obj, subField, column + subIndex);
 			}
@@ -1313,12 +1745,15 @@ public class ExcelUtil<T> {
 	 * @param separator 分隔符
 	 */
 	private void handleDictType(Cell cell, Object value, String dictType, String separator) {
-		String key = dictType + value;
-		if (!sysDictMap.containsKey(key)) {
-			String label = convertDictByExp(Convert.toStr(value), dictType, separator);
-			sysDictMap.put(key, label);
-		}
-		cell.setCellValue(sysDictMap.get(key));
+		cell.setCellValue(getDictLabel(value, dictType, separator));
+	}
+
+	/**
+	 * 获取字典标签，同一导出内按 字典类型+值 缓存
+	 */
+	private String getDictLabel(Object value, String dictType, String separator) {
+		return sysDictMap.computeIfAbsent(dictType + value,
+				key -> convertDictByExp(Convert.toStr(value), dictType, separator));
 	}
 
 	/**
@@ -1601,7 +2036,7 @@ public class ExcelUtil<T> {
 	 * @return 最终的属性值
 	 */
 	private Object getTargetValue(T vo, Field targetField, Excel excel) throws Exception {
-		Object o = targetField.get(vo);
+		Object o = ExcelClassMeta.get(vo, targetField);
 		if (StringUtils.isNotEmpty(excel.targetAttr())) {
 			String target = excel.targetAttr();
 			if (target.contains(".")) {
@@ -1625,10 +2060,7 @@ public class ExcelUtil<T> {
 	 */
 	private Object getValue(Object obj, String fieldName) throws Exception {
 		if (StringHelper.isNotNull(obj) && StringUtils.isNotEmpty(fieldName)) {
-			Class<?> objClass = obj.getClass();
-			Field field = objClass.getDeclaredField(fieldName);
-			setFieldAccessible(field);
-			obj = field.get(obj);
+			obj = ExcelClassMeta.of(obj.getClass()).get(obj, fieldName);
 		}
 		return obj;
 	}
@@ -1650,20 +2082,29 @@ public class ExcelUtil<T> {
 	 */
 	public List<Object[]> getFields() {
 		List<Object[]> fieldList = new ArrayList<>();
-		List<Field> tempFields = new ArrayList<>();
-
-		// 添加父类和当前类的字段
-		tempFields.addAll(Arrays.asList(clazz.getSuperclass().getDeclaredFields()));
-		tempFields.addAll(Arrays.asList(clazz.getDeclaredFields()));
-
-		for (Field field : tempFields) {
+		for (ExcelClassMeta.Column column : meta.columns()) {
+			Field field = column.field();
+			Excel attr = column.attr();
 			if (shouldSkipField(field)) {
 				continue;
 			}
-
-			processField(field, fieldList);
+			if (column.multiple()) {
+				// 处理多注解
+				if (shouldIncludeExcelField(field, attr)) {
+					fieldList.add(new Object[]{field, attr });
+				}
+				continue;
+			}
+			// 处理单注解
+			if (attr.type() == Type.ALL || attr.type() == type) {
+				fieldList.add(new Object[]{field, attr });
+			}
+			// 如果是集合类型，记录子字段信息
+			if (column.subFields() != null) {
+				this.subColumn = column;
+				this.subFields = column.subFields();
+			}
 		}
-
 		return fieldList;
 	}
 
@@ -1677,77 +2118,6 @@ public class ExcelUtil<T> {
 		return ArrayUtils.contains(this.excludeFields, field.getName());
 	}
 
-	/**
-	 * 处理单个字段
-	 *
-	 * @param field 字段
-	 * @param fieldList 字段列表
-	 */
-	private void processField(Field field, List<Object[]> fieldList) {
-		// 处理单注解
-		if (field.isAnnotationPresent(Excel.class)) {
-			processExcelAnnotation(field, fieldList);
-		}
-
-		// 处理多注解
-		if (field.isAnnotationPresent(Excels.class)) {
-			processExcelsAnnotation(field, fieldList);
-		}
-	}
-
-	/**
-	 * 处理Excel单注解
-	 *
-	 * @param field 字段
-	 * @param fieldList 字段列表
-	 */
-	private void processExcelAnnotation(Field field, List<Object[]> fieldList) {
-		Excel attr = field.getAnnotation(Excel.class);
-		if (attr != null && (attr.type() == Type.ALL || attr.type() == type)) {
-			setFieldAccessible(field);
-			fieldList.add(new Object[]{field, attr });
-		}
-
-		// 如果是集合类型，获取子字段信息
-		if (Collection.class.isAssignableFrom(field.getType())) {
-			subMethod = getSubMethod(field.getName(), clazz);
-			ParameterizedType pt = (ParameterizedType) field.getGenericType();
-			Class<?> subClass = (Class<?>) pt.getActualTypeArguments()[0];
-			this.subFields = FieldUtils.getFieldsListWithAnnotation(subClass, Excel.class);
-		}
-	}
-
-	/**
-	 * 设置字段访问权限
-	 *
-	 * @param field 要设置的字段
-	 */
-	private void setFieldAccessible(Field field) {
-		try {
-			field.setAccessible(true);
-		} catch (InaccessibleObjectException e) {
-			log.warn("无法直接访问字段 {}: {}", field.getName(), e.getMessage());
-			// 可以在这里添加备选方案，如使用getter方法
-		}
-	}
-
-	/**
-	 * 处理Excels多注解
-	 *
-	 * @param field 字段
-	 * @param fieldList 字段列表
-	 */
-	private void processExcelsAnnotation(Field field, List<Object[]> fieldList) {
-		Excels attrs = field.getAnnotation(Excels.class);
-		Excel[] excels = attrs.value();
-
-		for (Excel attr : excels) {
-			if (shouldIncludeExcelField(field, attr)) {
-				fieldList.add(new Object[]{field, attr });
-			}
-		}
-	}
-
 	/**
 	 * 判断是否应该包含Excel字段
 	 *
@@ -1985,13 +2355,7 @@ public class ExcelUtil<T> {
 	 * @return 集合值
 	 */
 	public Collection<?> getListCellValue(Object obj) {
-		Object value;
-		try {
-			value = subMethod.invoke(obj);
-		} catch (Exception e) {
-			return new ArrayList<>();
-		}
-		return (Collection<?>) value;
+		return ExcelClassMeta.getSubList(subColumn, obj);
 	}
 
 	/**
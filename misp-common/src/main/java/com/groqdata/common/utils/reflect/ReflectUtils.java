@@ -188,7 +188,10 @@ public class ReflectUtils {
 		}
 	}
 
-	private static Object convertArgument(Class<?> targetType, Object arg) {
+	/**
+	 * 将参数转换为方法参数类型，规则与 invokeMethodByName 调用 setter 时一致
+	 */
+	public static Object convertArgument(Class<?> targetType, Object arg) {
 		if (targetType == String.class) {
 			return convertToString(arg);
 		} else if (targetType == Integer.class || targetType == int.class) {
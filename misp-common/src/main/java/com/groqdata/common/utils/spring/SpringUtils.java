@@ -8,6 +8,8 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.groqdata.common.utils.basic.StringHelper;
 
@@ -142,4 +144,31 @@ public final class SpringUtils implements BeanFactoryPostProcessor, ApplicationC
 	public static String getRequiredProperty(String key) {
 		return applicationContext.getEnvironment().getRequiredProperty(key);
 	}
+
+	/**
+	 * 发布应用事件，由 @EventListener 同步处理
+	 *
+	 * @param event 事件
+	 */
+	public static void publishEvent(Object event) {
+		applicationContext.publishEvent(event);
+	}
+
+	/**
+	 * 当前存在事务时在提交后执行，否则立即执行（用于缓存失效等需要看到已提交数据的操作）
+	 *
+	 * @param action 执行的操作
+	 */
+	public static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
 }
@@ -0,0 +1,128 @@
+package com.groqdata.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.groqdata.common.core.domain.entity.SysDept;
+
+/**
+ * 树结构构建
+ *
+ * @author MISP TEAM
+ */
+class TreeUtilsTest {
+
+	@Test
+	void buildsNestedTreeInInputOrder() {
+		List<SysDept> depts = List.of(dept(100, 0), dept(102, 100), dept(101, 100), dept(103, 101));
+
+		List<SysDept> roots = buildTree(depts);
+
+		assertThat(roots).extracting(SysDept::getDeptId).containsExactly(100L);
+		assertThat(roots.get(0).getChildren()).extracting(SysDept::getDeptId).containsExactly(102L, 101L);
+		SysDept dept101 = roots.get(0).getChildren().get(1);
+		assertThat(dept101.getChildren()).extracting(SysDept::getDeptId).containsExactly(103L);
+		assertThat(dept101.getChildren().get(0).getChildren()).isEmpty();
+	}
+
+	@Test
+	void orphanBecomesRoot() {
+		// 数据权限过滤后父部门可能不在列表中
+		List<SysDept> depts = List.of(dept(100, 0), dept(101, 100), dept(200, 199), dept(201, 200));
+
+		List<SysDept> roots = buildTree(depts);
+
+		assertThat(roots).extracting(SysDept::getDeptId).containsExactly(100L, 200L);
+		assertThat(roots.get(1).getChildren()).extracting(SysDept::getDeptId).containsExactly(201L);
+	}
+
+	@Test
+	void nullParentIsRoot() {
+		SysDept root = dept(100, 0);
+		root.setParentId(null);
+		List<SysDept> roots = buildTree(List.of(root, dept(101, 100)));
+
+		assertThat(roots).extracting(SysDept::getDeptId).containsExactly(100L);
+		assertThat(roots.get(0).getChildren()).extracting(SysDept::getDeptId).containsExactly(101L);
+	}
+
+	@Test
+	void noRootReturnsFlatList() {
+		// 所有节点互为父子，不存在顶级节点
+		List<SysDept> depts = List.of(dept(1, 3), dept(2, 1), dept(3, 2));
+
+		List<SysDept> roots = buildTree(depts);
+
+		assertThat(roots).extracting(SysDept::getDeptId).containsExactly(1L, 2L, 3L);
+		assertThat(roots).allSatisfy(dept -> assertThat(dept.getChildren()).isEmpty());
+	}
+
+	@Test
+	void cycleBesideRootIsNotReachable() {
+		List<SysDept> depts = List.of(dept(100, 0), dept(101, 100), dept(1, 2), dept(2, 1), dept(3, 3));
+
+		List<SysDept> roots = buildTree(depts);
+
+		assertThat(roots).extracting(SysDept::getDeptId).containsExactly(100L);
+		assertThat(countReachable(roots, 0)).isEqualTo(2);
+	}
+
+	@Test
+	void emptyInput() {
+		assertThat(buildTree(new ArrayList<>())).isEmpty();
+	}
+
+	@Test
+	void buildsSubtreeOfParent() {
+		List<SysDept> depts = List.of(dept(100, 0), dept(101, 100), dept(102, 100), dept(103, 101));
+
+		List<SysDept> children = TreeUtils.buildTree(depts, 100L, SysDept::getDeptId, SysDept::getParentId,
+				SysDept::setChildren);
+
+		assertThat(children).extracting(SysDept::getDeptId).containsExactly(101L, 102L);
+		assertThat(children.get(0).getChildren()).extracting(SysDept::getDeptId).containsExactly(103L);
+		assertThat(TreeUtils.buildTree(depts, 999L, SysDept::getDeptId, SysDept::getParentId, SysDept::setChildren))
+				.isEmpty();
+	}
+
+	@Test
+	void largeTreeKeepsEveryNode() {
+		List<SysDept> depts = new ArrayList<>();
+		depts.add(dept(1, 0));
+		for (long id = 2; id <= 50_000; id++) {
+			depts.add(dept(id, id / 8 + 1));
+		}
+
+		List<SysDept> roots = buildTree(depts);
+
+		assertThat(roots).hasSize(1);
+		assertThat(countReachable(roots, 0)).isEqualTo(50_000);
+	}
+
+	private static List<SysDept> buildTree(List<SysDept> depts) {
+		return TreeUtils.buildTree(depts, SysDept::getDeptId, SysDept::getParentId, SysDept::setChildren);
+	}
+
+	/**
+	 * 统计从顶级节点可达的节点数，遇到环时深度超限失败
+	 */
+	private static int countReachable(List<SysDept> nodes, int depth) {
+		assertThat(depth).as("树中存在环").isLessThan(100);
+		int count = 0;
+		for (SysDept node : nodes) {
+			count += 1 + countReachable(node.getChildren(), depth + 1);
+		}
+		return count;
+	}
+
+	private static SysDept dept(long deptId, long parentId) {
+		SysDept dept = new SysDept();
+		dept.setDeptId(deptId);
+		dept.setParentId(parentId);
+		return dept;
+	}
+}
@@ -0,0 +1,123 @@
+package com.groqdata.common.utils.html;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+
+/**
+ * JSON请求体XSS过滤
+ *
+ * @author MISP TEAM
+ */
+class JsonXssCleanerTest {
+
+	@Test
+	void cleansKeysAndValuesOnly() {
+		assertThat(clean("{\"<script>k</script>\":\"<script>alert(1)</script>\",\"n\":1,\"b\":true}"))
+				.isEqualTo("{\"k\":\"alert(1)\",\"n\":1,\"b\":true}");
+		assertThat(clean("{\"a\":[\"<b>ok</b>\",\"<iframe src=x></iframe>\"]}"))
+				.isEqualTo("{\"a\":[\"<b>ok</b>\",\"\"]}");
+	}
+
+	@Test
+	void unchangedBodyIsNotCopied() {
+		byte[] plain = utf8("{\"name\":\"张三\",\"remark\":\"a\\\"b\\\\c\",\"n\":[1,2.5e3,null]}");
+		assertThat(JsonXssCleaner.clean(plain)).isSameAs(plain);
+		// 允许的标签不做修改
+		byte[] allowed = utf8("{\"html\":\"<b>粗体</b><a href=\\\"https://example.com\\\">链接</a>\"}");
+		assertThat(JsonXssCleaner.clean(allowed)).isSameAs(allowed);
+		byte[] empty = new byte[0];
+		assertThat(JsonXssCleaner.clean(empty)).isSameAs(empty);
+	}
+
+	@Test
+	void cleansUnicodeEscapedTags() {
+		// 改造前对整段JSON文本过滤，\\u003c 形式的标签会被放过
+		assertThat(clean("{\"name\":\"\\u003cscript\\u003ealert(1)\\u003c/script\\u003e\"}"))
+				.isEqualTo("{\"name\":\"alert(1)\"}");
+		assertThat(clean("{\"a\":\"\\u003Cscript\\u003E\"}")).isEqualTo("{\"a\":\"\"}");
+	}
+
+	@Test
+	void keepsEscapesAroundCleanedTags() {
+		assertThat(clean("{\"a\":\"x\\\"<script>y</script>\\\\\",\"n\":1}"))
+				.isEqualTo("{\"a\":\"x\\\"y\\\\\",\"n\":1}");
+		assertThat(clean("{\"a\":\"tab\\t<script>x</script>\\n\\u0001\"}"))
+				.isEqualTo("{\"a\":\"tab\\tx\\n\\u0001\"}");
+	}
+
+	@Test
+	void attributeQuotesStayValidJson() {
+		String cleaned = clean("{\"a\":\"<a href=\\\"javascript:x\\\">l</a>\"}");
+		assertThat(JSON.parseObject(cleaned).getString("a")).isEqualTo("<a href=\"#x\">l</a>");
+		// 属性值中的引号不能闭合属性
+		cleaned = clean("{\"a\":\"<img alt='x\\\" onerror=\\\"alert(1)'>\"}");
+		assertThat(JSON.parseObject(cleaned).getString("a")).isEqualTo("<img alt=\"x&quot; onerror=&quot;alert(1)\" />");
+	}
+
+	@Test
+	void keepsSurrogatePairs() {
+		String emoji = new String(Character.toChars(0x1F600));
+		assertThat(clean("{\"e\":\"\\ud83d\\ude00<script>x</script>\"}")).isEqualTo("{\"e\":\"" + emoji + "x\"}");
+		assertThat(clean("{\"e\":\"" + emoji + "<script>x</script>" + emoji + "\"}"))
+				.isEqualTo("{\"e\":\"" + emoji + "x" + emoji + "\"}");
+		// 不成对的代理字符无法编码为UTF-8，保留转义
+		assertThat(clean("{\"e\":\"\\ud83d<script>x</script>\\ude00\"}")).isEqualTo("{\"e\":\"\\ud83dx\\ude00\"}");
+	}
+
+	@Test
+	void cleansJsonNestedInString() {
+		String cleaned = clean("{\"j\":\"{\\\"html\\\":\\\"<script>x</script>\\\"}\"}");
+		assertThat(cleaned).isEqualTo("{\"j\":\"{\\\"html\\\":\\\"x\\\"}\"}");
+		JSONObject nested = JSON.parseObject(JSON.parseObject(cleaned).getString("j"));
+		assertThat(nested.getString("html")).isEqualTo("x");
+	}
+
+	@Test
+	void leavesMalformedInputToParser() {
+		// 未闭合的字符串原样保留，由JSON解析报错
+		byte[] unterminated = utf8("{\"a\":\"<script>alert(1)");
+		assertThat(JsonXssCleaner.clean(unterminated)).isSameAs(unterminated);
+		byte[] danglingEscape = utf8("{\"a\":\"<script>\\");
+		assertThat(JsonXssCleaner.clean(danglingEscape)).isSameAs(danglingEscape);
+		// 不合法的 \\u 转义按原文处理，标签仍被清理
+		String cleaned = clean("{\"a\":\"\\uZZZZ<script>x</script>\",\"b\":\"\\u12\"}");
+		assertThat(cleaned).isEqualTo("{\"a\":\"\\\\uZZZZx\",\"b\":\"\\u12\"}");
+		assertThat(cleaned).doesNotContain("<");
+	}
+
+	@Test
+	void keepsNonUtf8BytesOutsideCleanedStrings() {
+		Charset gbk = Charset.forName("GBK");
+		byte[] untouched = "{\"a\":\"中文\",\"b\":\"".getBytes(gbk);
+		byte[] json = concat(untouched, "<script>x</script>\"}".getBytes(gbk));
+
+		byte[] cleaned = JsonXssCleaner.clean(json);
+
+		// 只有被清理的字符串重新编码为UTF-8，其余字节原样保留
+		assertThat(cleaned).isEqualTo(concat(untouched, utf8("x\"}")));
+		byte[] plain = "{\"a\":\"中文<b>粗体</b>\"}".getBytes(gbk);
+		assertThat(JsonXssCleaner.clean(plain)).isSameAs(plain);
+	}
+
+	private static String clean(String json) {
+		return new String(JsonXssCleaner.clean(utf8(json)), StandardCharsets.UTF_8);
+	}
+
+	private static byte[] utf8(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] concat(byte[] first, byte[] second) {
+		byte[] result = new byte[first.length + second.length];
+		System.arraycopy(first, 0, result, 0, first.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+}
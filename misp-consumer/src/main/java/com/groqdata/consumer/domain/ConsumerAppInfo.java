@@ -1,9 +1,11 @@
 package com.groqdata.consumer.domain;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import com.groqdata.common.annotation.Excel;
 import com.groqdata.common.core.domain.BaseEntity;
+import com.groqdata.common.utils.ip.IpMatcher;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 
@@ -118,6 +120,16 @@ public class ConsumerAppInfo extends BaseEntity {
 	public String getWhiteIps() {
 		return whiteIps;
 	}
+
+	/**
+	 * 校验IP是否在白名单中，未配置白名单时不限制
+	 *
+	 * @param ip 校验IP地址
+	 * @return 结果
+	 */
+	public boolean allowIp(String ip) {
+		return StringUtils.isBlank(whiteIps) || IpMatcher.of(whiteIps).matches(ip);
+	}
 	public void setAppStatus(String appStatus) {
 		this.appStatus = appStatus;
 	}
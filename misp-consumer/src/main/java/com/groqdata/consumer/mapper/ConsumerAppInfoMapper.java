@@ -1,6 +1,7 @@
 package com.groqdata.consumer.mapper;
 
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
 import com.groqdata.consumer.domain.ConsumerAppInfo;
 
 /**
@@ -26,6 +27,14 @@ public interface ConsumerAppInfoMapper {
 	 */
 	public List<ConsumerAppInfo> selectConsumerAppInfoList(ConsumerAppInfo consumerAppInfo);
 
+	/**
+	 * 逐行查询应用信息，结果交给 handler 处理而不汇总为列表，用于流式导出
+	 * 
+	 * @param consumerAppInfo 应用信息
+	 * @param handler 结果处理器
+	 */
+	public void selectConsumerAppInfoList(ConsumerAppInfo consumerAppInfo, ResultHandler<ConsumerAppInfo> handler);
+
 	/**
 	 * 新增应用信息
 	 * 
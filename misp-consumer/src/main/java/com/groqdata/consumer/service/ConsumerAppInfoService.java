@@ -1,6 +1,7 @@
 package com.groqdata.consumer.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import com.groqdata.consumer.domain.ConsumerAppInfo;
 
 /**
@@ -26,6 +27,14 @@ public interface ConsumerAppInfoService {
 	 */
 	public List<ConsumerAppInfo> selectConsumerAppInfoList(ConsumerAppInfo consumerAppInfo);
 
+	/**
+	 * 逐行查询应用信息，每读取一行即交给 consumer 处理，用于大数据量导出
+	 * 
+	 * @param consumerAppInfo 应用信息
+	 * @param consumer 行处理回调
+	 */
+	public void selectConsumerAppInfoList(ConsumerAppInfo consumerAppInfo, Consumer<ConsumerAppInfo> consumer);
+
 	/**
 	 * 新增应用信息
 	 * 
@@ -1,8 +1,10 @@
 package com.groqdata.consumer.service.impl;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.groqdata.consumer.mapper.ConsumerAppInfoMapper;
 import com.groqdata.common.utils.basic.DateHelper;
 import com.groqdata.consumer.domain.ConsumerAppInfo;
@@ -46,6 +48,20 @@ public class ConsumerAppInfoServiceImpl implements ConsumerAppInfoService {
 		return consumerAppInfoMapper.selectConsumerAppInfoList(consumerAppInfo);
 	}
 
+	/**
+	 * 逐行查询应用信息，每读取一行即交给 consumer 处理，用于大数据量导出
+	 * <p>
+	 * 只读事务使 PostgreSQL 驱动按 fetchSize 分批拉取，而不是一次读入整个结果集
+	 * 
+	 * @param consumerAppInfo 应用信息
+	 * @param consumer 行处理回调
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void selectConsumerAppInfoList(ConsumerAppInfo consumerAppInfo, Consumer<ConsumerAppInfo> consumer) {
+		consumerAppInfoMapper.selectConsumerAppInfoList(consumerAppInfo, context -> consumer.accept(context.getResultObject()));
+	}
+
 	/**
 	 * 新增应用信息
 	 * 
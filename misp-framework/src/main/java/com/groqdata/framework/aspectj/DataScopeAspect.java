@@ -2,8 +2,11 @@ package com.groqdata.framework.aspectj;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.type.ArrayTypeHandler;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -14,10 +17,13 @@ import com.groqdata.common.core.domain.BaseEntity;
 import com.groqdata.common.core.domain.entity.SysRole;
 import com.groqdata.common.core.domain.entity.SysUser;
 import com.groqdata.common.core.domain.model.LoginUser;
+import com.groqdata.common.core.domain.model.UserDataScope;
 import com.groqdata.common.core.text.Convert;
 import com.groqdata.common.utils.SecurityUtils;
 import com.groqdata.common.utils.basic.StringHelper;
 import com.groqdata.framework.security.context.PermissionContextHolder;
+import com.groqdata.system.service.ISysDeptService;
+import com.groqdata.system.service.ISysRoleService;
 
 /**
  * 数据过滤处理切面
@@ -58,6 +64,25 @@ public class DataScopeAspect {
 	 */
 	public static final String DATA_SCOPE = "dataScope";
 
+	/**
+	 * 数据权限部门ID参数名，以数组形式绑定到SQL
+	 */
+	public static final String DATA_SCOPE_DEPT_IDS = "dataScopeDeptIds";
+
+	/**
+	 * 数据权限用户ID参数名
+	 */
+	public static final String DATA_SCOPE_USER_ID = "dataScopeUserId";
+
+	private final ISysRoleService roleService;
+
+	private final ISysDeptService deptService;
+
+	public DataScopeAspect(ISysRoleService roleService, ISysDeptService deptService) {
+		this.roleService = roleService;
+		this.deptService = deptService;
+	}
+
 	/**
 	 * 前置通知，在执行被@DataScope注解标记的方法前执行
 	 *
@@ -89,7 +114,7 @@ public class DataScopeAspect {
 				String permission = StringUtils.defaultIfEmpty(controllerDataScope.permission(),
 						PermissionContextHolder.getContext());
 				// 执行数据权限过滤
-				dataScopeFilter(joinPoint, currentUser, controllerDataScope.deptAlias(),
+				dataScopeFilter(joinPoint, loginUser, controllerDataScope.deptAlias(),
 						controllerDataScope.userAlias(), permission);
 			}
 		}
@@ -97,147 +122,121 @@ public class DataScopeAspect {
 
 	/**
 	 * 数据范围过滤核心方法
-	 * 根据用户角色的数据权限生成相应的SQL过滤条件
+	 * 根据用户的有效数据范围生成SQL过滤条件，部门ID与用户ID均以参数绑定
 	 *
 	 * @param joinPoint 切点
-	 * @param user 用户信息
+	 * @param loginUser 登录用户
 	 * @param deptAlias 部门表别名
 	 * @param userAlias 用户表别名
 	 * @param permission 权限字符
 	 */
-	public static void dataScopeFilter(JoinPoint joinPoint, SysUser user, String deptAlias, String userAlias,
+	public void dataScopeFilter(JoinPoint joinPoint, LoginUser loginUser, String deptAlias, String userAlias,
 			String permission) {
-		StringBuilder sqlString = new StringBuilder();
-		List<String> conditions = new ArrayList<>();
-		List<String> scopeCustomIds = new ArrayList<>();
-
-		// 提前筛选包含指定权限的角色
-		List<SysRole> rolesWithPermission = filterRolesByPermission(user.getRoles(), permission);
-
-		// 收集自定义数据权限的角色ID
-		collectCustomScopeRoleIds(rolesWithPermission, scopeCustomIds);
-
-		// 构建SQL条件
-		buildSqlConditions(rolesWithPermission, user, deptAlias, userAlias, scopeCustomIds, sqlString, conditions);
-
-		// 如果没有任何权限匹配，添加限制条件确保不查数据
-		if (conditions.isEmpty()) {
-			sqlString.append(StringHelper.format(" OR {}.dept_id = 0 ", deptAlias));
+		Object params = joinPoint.getArgs()[0];
+		// 使用Java 14+的模式匹配语法检查参数类型并转换
+		if (StringHelper.isNull(params) || !(params instanceof BaseEntity baseEntity)) {
+			return;
 		}
-
-		// 设置数据权限过滤参数
-		if (StringUtils.isNotBlank(sqlString.toString())) {
-			Object params = joinPoint.getArgs()[0];
-			// 使用Java 14+的模式匹配语法检查参数类型并转换
-			if (StringHelper.isNotNull(params) && params instanceof BaseEntity baseEntity) {
-				baseEntity.getParams().put(DATA_SCOPE, " AND (" + sqlString.substring(4) + ")");
-			}
+		UserDataScope dataScope = getUserDataScope(loginUser, permission);
+		if (dataScope.all()) {
+			return;
 		}
-	}
 
-	/**
-	 * 根据权限字符串筛选具有相应权限的角色
-	 *
-	 * @param roles 用户的所有角色
-	 * @param permission 权限字符串
-	 * @return 具有指定权限的角色列表
-	 */
-	private static List<SysRole> filterRolesByPermission(List<SysRole> roles, String permission) {
-		List<SysRole> result = new ArrayList<>();
-		String[] permissions = Convert.toStrArray(permission);
-		for (SysRole role : roles) {
-			if (StringHelper.containsAny(role.getPermissions(), permissions)) {
-				result.add(role);
-			}
+		List<String> conditions = new ArrayList<>();
+		if (dataScope.deptIds().length > 0) {
+			conditions.add(deptAlias + ".dept_id = ANY(#{params." + DATA_SCOPE_DEPT_IDS + ",typeHandler="
+					+ ArrayTypeHandler.class.getName() + "})");
+			baseEntity.getParams().put(DATA_SCOPE_DEPT_IDS, dataScope.deptIds());
 		}
-		return result;
+		if (dataScope.self() && StringUtils.isNotBlank(userAlias)) {
+			conditions.add(userAlias + ".user_id = #{params." + DATA_SCOPE_USER_ID + "}");
+			baseEntity.getParams().put(DATA_SCOPE_USER_ID, loginUser.getUser().getUserId());
+		}
+		// 如果没有任何权限匹配，添加限制条件确保不查数据
+		if (conditions.isEmpty()) {
+			conditions.add(deptAlias + ".dept_id = 0");
+		}
+		baseEntity.getParams().put(DATA_SCOPE, " AND (" + String.join(" OR ", conditions) + ")");
 	}
 
 	/**
-	 * 收集具有自定义数据权限的角色ID
+	 * 获取用户在指定权限下的有效数据范围，优先使用登录用户中缓存的结果
 	 *
-	 * @param roles 具有指定权限的角色列表
-	 * @param scopeCustomIds 用于存储角色ID的列表
+	 * @param loginUser 登录用户
+	 * @param permission 权限字符
+	 * @return 有效数据范围
 	 */
-	private static void collectCustomScopeRoleIds(List<SysRole> roles, List<String> scopeCustomIds) {
-		for (SysRole role : roles) {
-			if (DATA_SCOPE_CUSTOM.equals(role.getDataScope())) {
-				scopeCustomIds.add(Convert.toStr(role.getRoleId()));
-			}
+	private UserDataScope getUserDataScope(LoginUser loginUser, String permission) {
+		long version = roleService.getDataScopeVersion();
+		UserDataScope dataScope = loginUser.getDataScope(permission);
+		if (dataScope == null || dataScope.version() != version) {
+			dataScope = buildUserDataScope(loginUser.getUser(), permission, version);
+			loginUser.putDataScope(permission, dataScope);
 		}
+		return dataScope;
 	}
 
 	/**
-	 * 根据角色的数据权限类型构建相应的SQL条件
+	 * 根据角色的数据权限类型展开用户的有效数据范围
 	 *
-	 * @param roles 具有指定权限的角色列表
-	 * @param user 当前用户
-	 * @param deptAlias 部门表别名
-	 * @param userAlias 用户表别名
-	 * @param scopeCustomIds 自定义权限的角色ID列表
-	 * @param sqlString SQL条件构建器
-	 * @param conditions 已处理的权限类型列表，避免重复处理
+	 * @param user 用户信息
+	 * @param permission 权限字符
+	 * @param version 数据权限版本号
+	 * @return 有效数据范围
 	 */
-	private static void buildSqlConditions(List<SysRole> roles, SysUser user, String deptAlias, String userAlias,
-			List<String> scopeCustomIds, StringBuilder sqlString, List<String> conditions) {
-		for (SysRole role : roles) {
-			String dataScope = role.getDataScope();
-			// 如果该权限类型已处理过，则跳过
-			if (conditions.contains(dataScope)) {
-				continue;
-			}
-
-			conditions.add(dataScope);
-
-			// 根据不同的数据权限类型构建相应的SQL条件
-			switch (dataScope) {
+	private UserDataScope buildUserDataScope(SysUser user, String permission, long version) {
+		Set<Long> deptIds = new TreeSet<>();
+		List<Long> customRoleIds = new ArrayList<>();
+		boolean self = false;
+		for (SysRole role : filterRolesByPermission(user.getRoles(), permission)) {
+			switch (StringUtils.defaultString(role.getDataScope())) {
 				case DATA_SCOPE_ALL :
-					sqlString.setLength(0); // 清空之前条件
-					return; // 全部数据权限，无需继续构建条件
+					// 全部数据权限，无需继续处理
+					return new UserDataScope(version, true, new Long[0], false);
 				case DATA_SCOPE_CUSTOM :
-					appendCustomCondition(sqlString, deptAlias, scopeCustomIds, role);
+					customRoleIds.add(role.getRoleId());
 					break;
 				case DATA_SCOPE_DEPT :
-					sqlString.append(StringHelper.format(" OR {}.dept_id = {} ", deptAlias, user.getDeptId()));
+					if (user.getDeptId() != null) {
+						deptIds.add(user.getDeptId());
+					}
 					break;
 				case DATA_SCOPE_DEPT_AND_CHILD :
-					sqlString.append(StringHelper.format(
-							" OR {}.dept_id IN ( SELECT dept_id FROM sys_dept WHERE dept_id = {} or find_in_set( {} , ancestors ) )",
-							deptAlias, user.getDeptId(), user.getDeptId()));
+					if (user.getDeptId() != null) {
+						deptIds.addAll(deptService.selectDeptAndChildIds(user.getDeptId()));
+					}
 					break;
 				case DATA_SCOPE_SELF :
-					if (StringUtils.isNotBlank(userAlias)) {
-						sqlString.append(StringHelper.format(" OR {}.user_id = {} ", userAlias, user.getUserId()));
-					} else {
-						sqlString.append(StringHelper.format(" OR {}.dept_id = 0 ", deptAlias));
-					}
+					self = true;
 					break;
 				default :
 					// 未知权限类型忽略
 					break;
 			}
 		}
+		deptIds.addAll(roleService.selectDeptIdsByRoleIds(customRoleIds));
+		return new UserDataScope(version, false, deptIds.toArray(new Long[0]), self);
 	}
 
 	/**
-	 * 构建自定义数据权限的SQL条件
+	 * 根据权限字符串筛选具有相应权限的角色
 	 *
-	 * @param sqlString SQL条件构建器
-	 * @param deptAlias 部门表别名
-	 * @param scopeCustomIds 自定义权限的角色ID列表
-	 * @param role 当前处理的角色
+	 * @param roles 用户的所有角色
+	 * @param permission 权限字符串
+	 * @return 具有指定权限的角色列表
 	 */
-	private static void appendCustomCondition(StringBuilder sqlString, String deptAlias, List<String> scopeCustomIds,
-			SysRole role) {
-		if (scopeCustomIds.size() > 1) {
-			sqlString.append(StringHelper.format(
-					" OR {}.dept_id IN ( SELECT dept_id FROM sys_role_dept WHERE role_id in ({}) ) ",
-					deptAlias, String.join(",", scopeCustomIds)));
-		} else {
-			sqlString.append(StringHelper.format(
-					" OR {}.dept_id IN ( SELECT dept_id FROM sys_role_dept WHERE role_id = {} ) ",
-					deptAlias, role.getRoleId()));
+	private static List<SysRole> filterRolesByPermission(List<SysRole> roles, String permission) {
+		List<SysRole> result = new ArrayList<>();
+		if (StringHelper.isEmpty(roles)) {
+			return result;
+		}
+		String[] permissions = Convert.toStrArray(permission);
+		for (SysRole role : roles) {
+			if (StringHelper.containsAny(role.getPermissions(), permissions)) {
+				result.add(role);
+			}
 		}
+		return result;
 	}
 
 	/**
@@ -32,8 +32,8 @@ import com.groqdata.common.utils.SecurityUtils;
 import com.groqdata.common.utils.ServletUtils;
 import com.groqdata.common.utils.basic.StringHelper;
 import com.groqdata.common.utils.ip.IpUtils;
-import com.groqdata.framework.manager.AsyncManager;
-import com.groqdata.framework.manager.factory.AsyncFactory;
+import com.groqdata.common.utils.basic.DateHelper;
+import com.groqdata.framework.manager.AsyncLogManager;
 import com.groqdata.system.domain.SysOperLog;
 
 /**
@@ -57,6 +57,12 @@ public class LogAspect {
 	 */
 	private static final int STRING_LENGTH_THRESHOLD = 256;
 
+	private final AsyncLogManager asyncLogManager;
+
+	public LogAspect(AsyncLogManager asyncLogManager) {
+		this.asyncLogManager = asyncLogManager;
+	}
+
 	/**
 	 * 处理请求前执行
 	 */
@@ -120,8 +126,10 @@ public class LogAspect {
 			getControllerMethodDescription(joinPoint, controllerLog, operLog, jsonResult);
 			// 设置消耗时间
 			operLog.setCostTime(System.currentTimeMillis() - TIME_THREADLOCAL.get());
+			// 操作时间在请求线程确定，避免批量写入的延迟计入
+			operLog.setOperTime(DateHelper.getNowDate());
 			// 保存数据库
-			AsyncManager.me().execute(AsyncFactory.recordOper(operLog));
+			asyncLogManager.recordOper(operLog);
 		} catch (Exception exp) {
 			// 记录本地异常日志
 			log.error("异常信息:{}", exp.getMessage());
@@ -1,10 +1,7 @@
 package com.groqdata.framework.aspectj;
 
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.List;
 
-import com.groqdata.common.exception.limit.RateLimitException;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -12,14 +9,13 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import com.groqdata.common.annotation.RateLimiter;
 import com.groqdata.common.enums.LimitType;
 import com.groqdata.common.exception.ServiceException;
 import com.groqdata.common.utils.ip.IpUtils;
+import com.groqdata.framework.manager.RateLimitManager;
 
 /**
  * 限流处理
@@ -31,37 +27,20 @@ import com.groqdata.common.utils.ip.IpUtils;
 public class RateLimiterAspect {
 	private static final Logger log = LoggerFactory.getLogger(RateLimiterAspect.class);
 
-	private RedisTemplate<Object, Object> redisTemplate;
-
-	private RedisScript<Long> limitScript;
+	private RateLimitManager rateLimitManager;
 
 	@Autowired
-	public void setRedisTemplate1(RedisTemplate<Object, Object> redisTemplate) {
-		this.redisTemplate = redisTemplate;
-	}
-
-	@Autowired
-	public void setLimitScript(RedisScript<Long> limitScript) {
-		this.limitScript = limitScript;
+	public void setRateLimitManager(RateLimitManager rateLimitManager) {
+		this.rateLimitManager = rateLimitManager;
 	}
 
 	@Before("@annotation(rateLimiter)")
 	public void doBefore(JoinPoint point, RateLimiter rateLimiter) {
-		int time = rateLimiter.time();
-		int count = rateLimiter.count();
-
 		String combineKey = getCombineKey(rateLimiter, point);
-		List<Object> keys = Collections.singletonList(combineKey);
-		try {
-			Long number = redisTemplate.execute(limitScript, keys, count, time);
-			if (number == null || number.intValue() > count) {
-				throw new ServiceException("访问过于频繁，请稍候再试");
-			}
-			log.info("限制请求'{}',当前请求'{}',缓存key'{}'", count, number.intValue(), combineKey);
-		} catch (ServiceException e) {
-			throw e;
-		} catch (Exception e) {
-			throw new RateLimitException("服务器限流异常，请稍候再试");
+		if (!rateLimitManager.tryAcquire(combineKey, rateLimiter)) {
+			log.debug("请求被限流，限制请求'{}'，算法'{}'，缓存key'{}'", rateLimiter.count(), rateLimiter.algorithm(),
+					combineKey);
+			throw new ServiceException("访问过于频繁，请稍候再试");
 		}
 	}
 
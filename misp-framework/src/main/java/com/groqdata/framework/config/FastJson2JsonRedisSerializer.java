@@ -41,6 +41,10 @@ public class FastJson2JsonRedisSerializer<T> implements RedisSerializer<T> {
 		if (bytes == null || bytes.length <= 0) {
 			return null;
 		}
+		// 兼容按键前缀写入的JSONB格式
+		if (JsonbRedisSerializer.isJsonb(bytes)) {
+			return JsonbRedisSerializer.decode(bytes, clazz);
+		}
 		String str = new String(bytes, DEFAULT_CHARSET);
 
 		return JSON.parseObject(str, clazz, AUTO_TYPE_FILTER);
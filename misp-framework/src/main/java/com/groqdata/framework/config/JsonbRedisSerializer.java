@@ -0,0 +1,124 @@
+package com.groqdata.framework.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONWriter;
+
+/**
+ * Redis使用FastJson JSONB二进制序列化，超过阈值时使用Deflate压缩
+ * <p>
+ * 数据格式：魔数(1字节) + 标志位(1字节) + JSONB内容；读取时兼容原有的JSON文本格式
+ *
+ * @author MISP TEAM
+ */
+public class JsonbRedisSerializer<T> implements RedisSerializer<T> {
+
+	/**
+	 * 魔数，JSON文本不会以该字节开头
+	 */
+	static final byte MAGIC = (byte) 0xCB;
+
+	/**
+	 * 标志位：内容已压缩
+	 */
+	static final byte FLAG_DEFLATED = 0x01;
+
+	private static final int HEADER_LENGTH = 2;
+
+	private final Class<T> clazz;
+
+	/**
+	 * 压缩阈值（字节），小于等于0表示不压缩
+	 */
+	private final int compressThreshold;
+
+	public JsonbRedisSerializer(Class<T> clazz, int compressThreshold) {
+		super();
+		this.clazz = clazz;
+		this.compressThreshold = compressThreshold;
+	}
+
+	@Override
+	public byte[] serialize(T t) throws SerializationException {
+		if (t == null) {
+			return new byte[0];
+		}
+		byte[] body = JSONB.toBytes(t, JSONWriter.Feature.WriteClassName);
+		byte flags = 0;
+		if (compressThreshold > 0 && body.length > compressThreshold) {
+			body = deflate(body);
+			flags |= FLAG_DEFLATED;
+		}
+		byte[] bytes = new byte[body.length + HEADER_LENGTH];
+		bytes[0] = MAGIC;
+		bytes[1] = flags;
+		System.arraycopy(body, 0, bytes, HEADER_LENGTH, body.length);
+		return bytes;
+	}
+
+	@Override
+	public T deserialize(byte[] bytes) throws SerializationException {
+		if (bytes == null || bytes.length <= 0) {
+			return null;
+		}
+		if (!isJsonb(bytes)) {
+			return JSON.parseObject(new String(bytes, FastJson2JsonRedisSerializer.DEFAULT_CHARSET), clazz,
+					FastJson2JsonRedisSerializer.AUTO_TYPE_FILTER);
+		}
+		return decode(bytes, clazz);
+	}
+
+	/**
+	 * 判断是否为JSONB格式
+	 */
+	static boolean isJsonb(byte[] bytes) {
+		return bytes.length > HEADER_LENGTH && bytes[0] == MAGIC;
+	}
+
+	/**
+	 * 解析JSONB格式的数据
+	 */
+	static <T> T decode(byte[] bytes, Class<T> clazz) {
+		byte[] body = (bytes[1] & FLAG_DEFLATED) != 0
+				? inflate(bytes)
+				: Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+		return JSONB.parseObject(body, clazz, FastJson2JsonRedisSerializer.AUTO_TYPE_FILTER);
+	}
+
+	private static byte[] deflate(byte[] body) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(body);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				int count = deflater.deflate(buffer);
+				out.write(buffer, 0, count);
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static byte[] inflate(byte[] bytes) {
+		try (InputStream in = new InflaterInputStream(
+				new ByteArrayInputStream(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH))) {
+			return in.readAllBytes();
+		} catch (IOException e) {
+			throw new SerializationException("JSONB数据解压失败", e);
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.groqdata.framework.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -7,8 +8,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.groqdata.common.core.redis.RedisSerializerStrategy;
+
 /**
  * redis配置
  * 
@@ -37,6 +41,36 @@ public class RedisConfig extends CachingConfigurerSupport {
 		return template;
 	}
 
+	/**
+	 * 按键前缀选择值序列化方式，未配置的前缀仍使用JSON格式
+	 *
+	 * @param jsonbPrefixes     使用JSONB二进制格式的键前缀
+	 * @param compressThreshold JSONB压缩阈值（字节）
+	 */
+	@Bean
+	public RedisSerializerStrategy redisSerializerStrategy(
+			@Value("${redis.serializer.jsonbPrefixes:}") String[] jsonbPrefixes,
+			@Value("${redis.serializer.compressThreshold:1024}") int compressThreshold) {
+		RedisSerializerStrategy strategy = new RedisSerializerStrategy();
+		JsonbRedisSerializer<Object> jsonbSerializer = new JsonbRedisSerializer<>(Object.class, compressThreshold);
+		for (String prefix : jsonbPrefixes) {
+			if (!prefix.isBlank()) {
+				strategy.register(prefix.trim(), jsonbSerializer);
+			}
+		}
+		return strategy;
+	}
+
+	/**
+	 * 消息监听容器，用于各节点本地缓存的失效通知
+	 */
+	@Bean
+	public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		return container;
+	}
+
 	@Bean
 	public DefaultRedisScript<Long> limitScript() {
 		DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
@@ -64,4 +98,34 @@ public class RedisConfig extends CachingConfigurerSupport {
 		stringBuilder.append("return tonumber(current);");
 		return stringBuilder.toString();
 	}
+
+	@Bean
+	public DefaultRedisScript<Long> limitLeaseScript() {
+		DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+		redisScript.setScriptText(limitLeaseScriptText());
+		redisScript.setResultType(Long.class);
+		return redisScript;
+	}
+
+	/**
+	 * 限流许可租用脚本，返回本次租到的许可数（0表示当前窗口已用完）
+	 */
+	private String limitLeaseScriptText() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append("local key = KEYS[1]\n");
+		stringBuilder.append("local count = tonumber(ARGV[1])\n");
+		stringBuilder.append("local time = tonumber(ARGV[2])\n");
+		stringBuilder.append("local batch = tonumber(ARGV[3])\n");
+		stringBuilder.append("local used = tonumber(redis.call('get', key) or '0')\n");
+		stringBuilder.append("if used >= count then\n");
+		stringBuilder.append("    return 0;\n");
+		stringBuilder.append("end\n");
+		stringBuilder.append("local granted = math.min(batch, count - used)\n");
+		stringBuilder.append("local current = redis.call('incrby', key, granted)\n");
+		stringBuilder.append("if tonumber(current) == granted then\n");
+		stringBuilder.append("    redis.call('expire', key, time)\n");
+		stringBuilder.append("end\n");
+		stringBuilder.append("return granted;");
+		return stringBuilder.toString();
+	}
 }
@@ -1,102 +1,158 @@
 package com.groqdata.framework.interceptor.impl;
 
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.groqdata.common.annotation.RepeatSubmit;
 import com.groqdata.common.constant.CacheConstants;
+import com.groqdata.common.core.cache.LocalCacheRegistry;
 import com.groqdata.common.core.redis.RedisCache;
 import com.groqdata.common.filter.RepeatedlyRequestWrapper;
-import com.groqdata.common.utils.http.HttpHelper;
 import com.groqdata.framework.interceptor.RepeatSubmitInterceptor;
 
 /**
  * 判断请求url和数据是否和上一次相同，
- * 如果和上次相同，则是重复提交表单。 有效时间为10秒内。
- * 
+ * 如果和上次相同，则是重复提交表单。 有效时间为注解指定的间隔时间内。
+ * <p>
+ * 请求体（为空时取排序后的请求参数）规范化后计算128位摘要并拼入缓存key，通过 SET NX PX 一次往返完成判断与写入，
+ * Redis中不再保存完整请求内容。JSON请求体按字段名排序、去除空白后再计算摘要，字段顺序或格式不同的相同数据视为重复。
+ * <p>
+ * 每种请求内容在间隔时间内各自只允许提交一次：与只比较上一次请求的方式不同，间隔内先后提交 A、B、A 时第二次 A 也视为重复。
+ * 单节点部署可开启本地缓存，在本地先行判断或完全替代Redis。
+ *
  * @author MISP TEAM
  */
 @Component
 public class SameUrlDataInterceptor extends RepeatSubmitInterceptor {
-	public static final String REPEAT_PARAMS = "repeatParams";
-
-	public static final String REPEAT_TIME = "repeatTime";
+	/** 参数名与参数值、多个值之间的分隔符 */
+	private static final byte SEPARATOR = 0;
 
 	// 令牌自定义标识
 	private final String header;
 
 	private final RedisCache redisCache;
 
-	public SameUrlDataInterceptor(@Value("${token.header}") String header, RedisCache redisCache) {
+	/**
+	 * 本地已提交请求（key -> 间隔时间ms），未开启时为null
+	 */
+	private final Cache<String, Integer> localSubmits;
+
+	/**
+	 * 是否只使用本地缓存判断（仅适用于单节点部署）
+	 */
+	private final boolean localOnly;
+
+	public SameUrlDataInterceptor(@Value("${token.header}") String header, RedisCache redisCache,
+			@Value("${repeat.submit.local.enabled:false}") boolean localEnabled,
+			@Value("${repeat.submit.local.only:false}") boolean localOnly,
+			@Value("${repeat.submit.local.maxKeys:10000}") int localMaxKeys) {
 		this.header = header;
 		this.redisCache = redisCache;
+		this.localOnly = localEnabled && localOnly;
+		if (localEnabled) {
+			localSubmits = Caffeine.newBuilder()
+					.maximumSize(localMaxKeys)
+					.expireAfter(new Expiry<String, Integer>() {
+						@Override
+						public long expireAfterCreate(String key, Integer interval, long currentTime) {
+							return TimeUnit.MILLISECONDS.toNanos(interval);
+						}
+
+						@Override
+						public long expireAfterUpdate(String key, Integer interval, long currentTime,
+								long currentDuration) {
+							return currentDuration;
+						}
+
+						@Override
+						public long expireAfterRead(String key, Integer interval, long currentTime,
+								long currentDuration) {
+							return currentDuration;
+						}
+					})
+					.recordStats()
+					.build();
+			LocalCacheRegistry.register("repeatSubmit", localSubmits);
+		} else {
+			localSubmits = null;
+		}
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public boolean isRepeatSubmit(HttpServletRequest request, RepeatSubmit annotation) {
-		String nowParams = "";
-		if (request instanceof RepeatedlyRequestWrapper repeatedlyRequest) {
-			nowParams = HttpHelper.getBodyString(repeatedlyRequest);
-		}
-
-		// body参数为空，获取Parameter的数据
-		if (StringUtils.isEmpty(nowParams)) {
-			nowParams = JSON.toJSONString(request.getParameterMap());
-		}
-		Map<String, Object> nowDataMap = new HashMap<>();
-		nowDataMap.put(REPEAT_PARAMS, nowParams);
-		nowDataMap.put(REPEAT_TIME, System.currentTimeMillis());
-
-		// 请求地址（作为存放cache的key值）
+		// 请求地址
 		String url = request.getRequestURI();
 
 		// 唯一值（没有消息头则使用请求地址）
 		String submitKey = StringUtils.trimToEmpty(request.getHeader(header));
 
-		// 唯一标识（指定key + url + 消息头）
-		String cacheRepeatKey = CacheConstants.REPEAT_SUBMIT_KEY + url + submitKey;
-
-		Object sessionObj = redisCache.getCacheObject(cacheRepeatKey);
-		if (sessionObj != null) {
-			Map<String, Object> sessionMap = (Map<String, Object>) sessionObj;
-			if (sessionMap.containsKey(url)) {
-				Map<String, Object> preDataMap = (Map<String, Object>) sessionMap.get(url);
-				if (compareParams(nowDataMap, preDataMap)
-						&& compareTime(nowDataMap, preDataMap, annotation.interval())) {
-					return true;
-				}
-			}
+		// 唯一标识（指定key + url + 消息头 + 请求摘要）
+		String cacheRepeatKey = CacheConstants.REPEAT_SUBMIT_KEY + url + submitKey + ":" + digest(request);
+
+		int interval = annotation.interval();
+		if (localSubmits != null && localSubmits.asMap().putIfAbsent(cacheRepeatKey, interval) != null) {
+			return true;
+		}
+		if (localOnly) {
+			return false;
 		}
-		Map<String, Object> cacheMap = new HashMap<>();
-		cacheMap.put(url, nowDataMap);
-		redisCache.setCacheObject(cacheRepeatKey, cacheMap, annotation.interval(), TimeUnit.MILLISECONDS);
-		return false;
+		return !redisCache.setCacheObjectIfAbsent(cacheRepeatKey, System.currentTimeMillis(), interval,
+				TimeUnit.MILLISECONDS);
 	}
 
 	/**
-	 * 判断参数是否相同
+	 * 计算请求内容的MD5摘要：有请求体时取规范化后的请求体，否则取按参数名排序后的请求参数
 	 */
-	private boolean compareParams(Map<String, Object> nowMap, Map<String, Object> preMap) {
-		String nowParams = (String) nowMap.get(REPEAT_PARAMS);
-		String preParams = (String) preMap.get(REPEAT_PARAMS);
-		return nowParams.equals(preParams);
+	private String digest(HttpServletRequest request) {
+		MessageDigest md = DigestUtils.getMd5Digest();
+		if (request instanceof RepeatedlyRequestWrapper repeatedlyRequest
+				&& repeatedlyRequest.getBody().length > 0) {
+			md.update(canonicalize(repeatedlyRequest.getBody()));
+		} else {
+			Map<String, String[]> parameterMap = request.getParameterMap();
+			String[] names = parameterMap.keySet().toArray(new String[0]);
+			Arrays.sort(names);
+			for (String name : names) {
+				md.update(name.getBytes(StandardCharsets.UTF_8));
+				for (String value : parameterMap.get(name)) {
+					md.update(SEPARATOR);
+					md.update(StringUtils.defaultString(value).getBytes(StandardCharsets.UTF_8));
+				}
+				md.update(SEPARATOR);
+			}
+		}
+		return Hex.encodeHexString(md.digest());
 	}
 
 	/**
-	 * 判断两次间隔时间
+	 * JSON请求体按字段名排序并去除空白，非JSON内容原样返回
 	 */
-	private boolean compareTime(Map<String, Object> nowMap, Map<String, Object> preMap, int interval) {
-		long time1 = (Long) nowMap.get(REPEAT_TIME);
-		long time2 = (Long) preMap.get(REPEAT_TIME);
-		return (time1 - time2) < interval;
+	private static byte[] canonicalize(byte[] body) {
+		try (JSONReader reader = JSONReader.of(body)) {
+			Object value = reader.readAny();
+			if (!reader.isEnd()) {
+				return body;
+			}
+			return JSON.toJSONBytes(value, JSONWriter.Feature.MapSortField);
+		} catch (Exception e) {
+			return body;
+		}
 	}
 }
@@ -0,0 +1,200 @@
+package com.groqdata.framework.manager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.groqdata.common.constant.Constants;
+import com.groqdata.common.utils.LogUtils;
+import com.groqdata.common.utils.ServletUtils;
+import com.groqdata.common.utils.basic.DateHelper;
+import com.groqdata.common.utils.http.UserAgentUtils;
+import com.groqdata.common.utils.ip.AddressUtils;
+import com.groqdata.common.utils.ip.IpUtils;
+import com.groqdata.framework.manager.BatchWriter.OverflowPolicy;
+import com.groqdata.system.domain.SysLogininfor;
+import com.groqdata.system.domain.SysOperLog;
+import com.groqdata.system.service.ISysLogininforService;
+import com.groqdata.system.service.ISysOperLogService;
+
+import eu.bitwalker.useragentutils.UserAgent;
+
+/**
+ * 日志批量异步写入管理
+ * <p>
+ * 操作日志与登录日志先进入有界队列，由后台线程按批次多行插入数据库，避免每次请求单独占用一次数据库往返。
+ *
+ * @author MISP TEAM
+ */
+@Component
+public class AsyncLogManager {
+	private static final Logger sys_user_logger = LoggerFactory.getLogger("sys-user");
+
+	/**
+	 * 待写入的登录日志，保留状态与格式化参数用于输出用户日志
+	 */
+	private record LoginEvent(SysLogininfor logininfor, String status, Object[] args) {
+	}
+
+	/**
+	 * 队列容量
+	 */
+	@Value("${log.batch.capacity:10000}")
+	private int capacity;
+
+	/**
+	 * 单批最大条数
+	 */
+	@Value("${log.batch.batchSize:200}")
+	private int batchSize;
+
+	/**
+	 * 最长攒批时间（毫秒）
+	 */
+	@Value("${log.batch.flushInterval:1000}")
+	private long flushInterval;
+
+	/**
+	 * 队列满时的处理策略（DROP丢弃 / CALLER_RUNS调用线程同步写入）
+	 */
+	@Value("${log.batch.overflowPolicy:DROP}")
+	private OverflowPolicy overflowPolicy;
+
+	/**
+	 * 关闭时等待队列写完的最长时间（毫秒）
+	 */
+	@Value("${log.batch.shutdownTimeout:10000}")
+	private long shutdownTimeout;
+
+	private ISysOperLogService operLogService;
+
+	private ISysLogininforService logininforService;
+
+	private BatchWriter<SysOperLog> operLogWriter;
+
+	private BatchWriter<LoginEvent> logininforWriter;
+
+	@Autowired
+	public void setOperLogService(ISysOperLogService operLogService) {
+		this.operLogService = operLogService;
+	}
+
+	@Autowired
+	public void setLogininforService(ISysLogininforService logininforService) {
+		this.logininforService = logininforService;
+	}
+
+	@PostConstruct
+	public void init() {
+		operLogWriter = new BatchWriter<>("oper_log", capacity, batchSize, flushInterval, overflowPolicy,
+				this::prepareOperLogs, this::writeOperLogs);
+		logininforWriter = new BatchWriter<>("logininfor", capacity, batchSize, flushInterval, overflowPolicy,
+				this::prepareLogininfors, this::writeLogininfors);
+	}
+
+	/**
+	 * 记录登录信息，请求相关的数据在当前线程采集，地址解析与入库在写入线程完成
+	 *
+	 * @param username 用户名
+	 * @param status 状态
+	 * @param message 消息
+	 * @param args 列表
+	 * @return 是否被接收
+	 */
+	public boolean recordLogininfor(String username, String status, String message, Object... args) {
+		UserAgent userAgent = UserAgentUtils.parse(ServletUtils.getRequest().getHeader("User-Agent"));
+		SysLogininfor logininfor = new SysLogininfor();
+		logininfor.setUserName(username);
+		logininfor.setIpaddr(IpUtils.getIpAddr());
+		// 获取客户端浏览器
+		logininfor.setBrowser(userAgent.getBrowser().getName());
+		// 获取客户端操作系统
+		logininfor.setOs(userAgent.getOperatingSystem().getName());
+		logininfor.setMsg(message);
+		logininfor.setLoginTime(DateHelper.getNowDate());
+		// 日志状态
+		if (StringUtils.equalsAny(status, Constants.LOGIN_SUCCESS, Constants.LOGOUT, Constants.REGISTER)) {
+			logininfor.setStatus(Constants.SUCCESS);
+		} else if (Constants.LOGIN_FAIL.equals(status)) {
+			logininfor.setStatus(Constants.FAIL);
+		}
+		return logininforWriter.offer(new LoginEvent(logininfor, status, args));
+	}
+
+	/**
+	 * 解析登录地点并打印用户日志，每批只执行一次
+	 */
+	private void prepareLogininfors(List<LoginEvent> events) {
+		for (LoginEvent event : events) {
+			SysLogininfor logininfor = event.logininfor();
+			String address = AddressUtils.getRealAddressByIP(logininfor.getIpaddr());
+			logininfor.setLoginLocation(address);
+			String logContent = LogUtils.getBlock(logininfor.getIpaddr()) +
+					address +
+					LogUtils.getBlock(logininfor.getUserName()) +
+					LogUtils.getBlock(event.status()) +
+					LogUtils.getBlock(logininfor.getMsg());
+			// 打印信息到日志
+			sys_user_logger.info(logContent, event.args());
+		}
+	}
+
+	private void writeLogininfors(List<LoginEvent> events) {
+		List<SysLogininfor> logininfors = new ArrayList<>(events.size());
+		for (LoginEvent event : events) {
+			logininfors.add(event.logininfor());
+		}
+		logininforService.insertLogininforBatch(logininfors);
+	}
+
+	/**
+	 * 记录操作日志
+	 *
+	 * @param operLog 操作日志
+	 * @return 是否被接收
+	 */
+	public boolean recordOper(SysOperLog operLog) {
+		return operLogWriter.offer(operLog);
+	}
+
+	/**
+	 * 查询操作地点，每批只执行一次
+	 */
+	private void prepareOperLogs(List<SysOperLog> operLogs) {
+		for (SysOperLog operLog : operLogs) {
+			operLog.setOperLocation(AddressUtils.getRealAddressByIP(operLog.getOperIp()));
+		}
+	}
+
+	private void writeOperLogs(List<SysOperLog> operLogs) {
+		operLogService.insertOperlogBatch(operLogs);
+	}
+
+	/**
+	 * 各日志队列的运行指标
+	 */
+	public Map<String, Object> metrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("operLog", operLogWriter.metrics());
+		metrics.put("logininfor", logininforWriter.metrics());
+		return metrics;
+	}
+
+	/**
+	 * 停止接收日志并写完队列中的剩余记录
+	 */
+	public void shutdown() {
+		operLogWriter.shutdown(shutdownTimeout);
+		logininforWriter.shutdown(shutdownTimeout);
+	}
+}
@@ -0,0 +1,264 @@
+package com.groqdata.framework.manager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * 有界队列 + 单线程批量写入器
+ * <p>
+ * 生产者通过 {@link #offer(Object)} 入队，后台线程在攒满 batchSize 条或距本批首条入队超过 flushInterval 时整批交给 sink 写入。
+ * 队列满时按 {@link OverflowPolicy} 处理：DROP 直接丢弃并计数，CALLER_RUNS 由调用线程同步写入（反压）。
+ * 整批因数据错误（违反约束、超长等）写入失败时拆分重试，只丢弃有问题的记录；
+ * 连接中断等其他异常不拆分，整批计为失败，避免数据库不可用时放大写入次数与日志。
+ *
+ * @author MISP TEAM
+ */
+public class BatchWriter<T> {
+	private static final Logger log = LoggerFactory.getLogger(BatchWriter.class);
+
+	/**
+	 * 每丢弃多少条输出一次告警，避免日志风暴
+	 */
+	private static final long DROP_WARN_INTERVAL = 1000;
+
+	/**
+	 * 队列满时的处理策略
+	 */
+	public enum OverflowPolicy {
+		/** 丢弃并计数 */
+		DROP,
+		/** 由调用线程同步写入 */
+		CALLER_RUNS
+	}
+
+	private record Pending<T>(T item, long enqueueTime) {
+	}
+
+	private final String name;
+
+	private final BlockingQueue<Pending<T>> queue;
+
+	private final int batchSize;
+
+	private final long flushIntervalNanos;
+
+	private final Consumer<List<T>> prepare;
+
+	private final Consumer<List<T>> sink;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final Thread worker;
+
+	private volatile boolean running = true;
+
+	private final AtomicLong accepted = new AtomicLong();
+
+	private final AtomicLong written = new AtomicLong();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final AtomicLong failed = new AtomicLong();
+
+	private final AtomicLong batches = new AtomicLong();
+
+	private volatile long lastFlushTime;
+
+	private volatile long lastLagMillis;
+
+	private volatile long maxLagMillis;
+
+	private final long startTime = System.currentTimeMillis();
+
+	/**
+	 * @param name 名称，用于线程名与监控
+	 * @param capacity 队列容量
+	 * @param batchSize 单批最大条数
+	 * @param flushIntervalMillis 最长攒批时间（毫秒）
+	 * @param overflowPolicy 队列满时的处理策略
+	 * @param prepare 写入前的预处理（如补充字段），每批只执行一次，拆分重试时不再执行；为null时不处理
+	 * @param sink 批量写入逻辑
+	 */
+	public BatchWriter(String name, int capacity, int batchSize, long flushIntervalMillis,
+			OverflowPolicy overflowPolicy, Consumer<List<T>> prepare, Consumer<List<T>> sink) {
+		this.name = name;
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+		this.batchSize = Math.max(1, batchSize);
+		this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+		this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.DROP : overflowPolicy;
+		this.prepare = prepare;
+		this.sink = sink;
+		this.worker = new Thread(this::runLoop, "batch-writer-" + name);
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * 提交一条记录，不阻塞调用线程（CALLER_RUNS 策略下队列满时除外）
+	 *
+	 * @param item 记录
+	 * @return 是否被接收（入队或同步写入）
+	 */
+	public boolean offer(T item) {
+		if (running && queue.offer(new Pending<>(item, System.currentTimeMillis()))) {
+			accepted.incrementAndGet();
+			return true;
+		}
+		if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+			accepted.incrementAndGet();
+			write(List.of(item), System.currentTimeMillis());
+			return true;
+		}
+		long count = dropped.incrementAndGet();
+		if (count % DROP_WARN_INTERVAL == 1) {
+			log.warn("批量写入队列[{}]已满或已停止，累计丢弃{}条", name, count);
+		}
+		return false;
+	}
+
+	private void runLoop() {
+		List<T> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				Pending<T> first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first.item());
+				long deadline = System.nanoTime() + flushIntervalNanos;
+				while (batch.size() < batchSize) {
+					long remaining = deadline - System.nanoTime();
+					Pending<T> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+					if (next == null) {
+						break;
+					}
+					batch.add(next.item());
+				}
+				write(batch, first.enqueueTime());
+				batch = new ArrayList<>(batchSize);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		drainRemaining(batch);
+	}
+
+	/**
+	 * 线程被中断时把残留记录一次性写完
+	 */
+	private void drainRemaining(List<T> batch) {
+		List<Pending<T>> rest = new ArrayList<>();
+		queue.drainTo(rest);
+		long oldest = System.currentTimeMillis();
+		for (Pending<T> pending : rest) {
+			batch.add(pending.item());
+			oldest = Math.min(oldest, pending.enqueueTime());
+			if (batch.size() >= batchSize) {
+				write(batch, oldest);
+				batch = new ArrayList<>(batchSize);
+			}
+		}
+		if (!batch.isEmpty()) {
+			write(batch, oldest);
+		}
+	}
+
+	private void write(List<T> batch, long oldestEnqueueTime) {
+		try {
+			if (prepare != null) {
+				prepare.accept(batch);
+			}
+			writeOrSplit(batch);
+		} catch (Exception e) {
+			failed.addAndGet(batch.size());
+			log.error("批量写入[{}]失败，丢弃本批{}条", name, batch.size(), e);
+		} finally {
+			batches.incrementAndGet();
+			lastFlushTime = System.currentTimeMillis();
+			lastLagMillis = lastFlushTime - oldestEnqueueTime;
+			maxLagMillis = Math.max(maxLagMillis, lastLagMillis);
+		}
+	}
+
+	/**
+	 * 整批因数据错误写入失败时对半拆分重试，只丢弃单独写入仍失败的记录，避免一条坏数据拖累整批；
+	 * 其他异常直接抛出，由调用方整批计为失败
+	 */
+	private void writeOrSplit(List<T> batch) {
+		try {
+			sink.accept(batch);
+			written.addAndGet(batch.size());
+		} catch (DataIntegrityViolationException e) {
+			if (batch.size() == 1) {
+				failed.incrementAndGet();
+				log.error("批量写入[{}]数据错误，丢弃1条记录: {}", name, e.getMostSpecificCause().getMessage());
+				return;
+			}
+			log.debug("批量写入[{}]数据错误，本批{}条拆分重试", name, batch.size());
+			int middle = batch.size() / 2;
+			writeOrSplit(batch.subList(0, middle));
+			writeOrSplit(batch.subList(middle, batch.size()));
+		}
+	}
+
+	/**
+	 * 停止接收新记录，并等待队列中的记录写完
+	 *
+	 * @param timeoutMillis 最长等待时间（毫秒）
+	 */
+	public void shutdown(long timeoutMillis) {
+		running = false;
+		try {
+			worker.join(timeoutMillis);
+			if (worker.isAlive()) {
+				worker.interrupt();
+				worker.join(timeoutMillis);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (!queue.isEmpty()) {
+			log.warn("批量写入队列[{}]关闭时仍有{}条未写入", name, queue.size());
+		}
+	}
+
+	/**
+	 * 当前积压条数
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * 运行指标：队列深度、剩余容量、累计接收/写入/丢弃/失败条数、批次数、平均吞吐（条/秒）、最近一次刷写时间及延迟
+	 */
+	public Map<String, Object> metrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("name", name);
+		metrics.put("queueDepth", queue.size());
+		metrics.put("remainingCapacity", queue.remainingCapacity());
+		metrics.put("accepted", accepted.get());
+		metrics.put("written", written.get());
+		metrics.put("dropped", dropped.get());
+		metrics.put("failed", failed.get());
+		metrics.put("batches", batches.get());
+		long uptimeSeconds = Math.max(1, (System.currentTimeMillis() - startTime) / 1000);
+		metrics.put("throughputPerSecond", written.get() / uptimeSeconds);
+		metrics.put("lastFlushTime", lastFlushTime);
+		metrics.put("lastLagMillis", lastLagMillis);
+		metrics.put("maxLagMillis", maxLagMillis);
+		return metrics;
+	}
+}
@@ -0,0 +1,340 @@
+package com.groqdata.framework.manager;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.groqdata.common.config.MispConfig;
+import com.groqdata.common.constant.CacheConstants;
+import com.groqdata.common.core.redis.RedisCache;
+import com.groqdata.common.exception.ServiceException;
+import com.groqdata.common.utils.SecurityUtils;
+import com.groqdata.common.utils.basic.DateHelper;
+import com.groqdata.common.utils.poi.ExcelUtil;
+import com.groqdata.common.utils.uuid.IdUtils;
+
+/**
+ * 异步导出任务管理
+ * <p>
+ * 导出在有界线程池中执行，结果写入下载目录，通过 /common/download 下载；
+ * 任务状态与进度（已写入行数/预估总数）保存在Redis中。并发数按用户与全局分别限制。
+ * <p>
+ * 用户进行中的任务以任务ID集合记录，只统计状态未结束且所在节点仍有心跳的任务，
+ * 节点异常退出后遗留的任务不会一直占用用户的并发数；超过保留时间的结果文件定期删除。
+ *
+ * @author MISP TEAM
+ */
+@Component
+public class ExportJobManager {
+	private static final Logger log = LoggerFactory.getLogger(ExportJobManager.class);
+
+	/** 等待执行 */
+	public static final String STATUS_WAITING = "WAITING";
+
+	/** 执行中 */
+	public static final String STATUS_RUNNING = "RUNNING";
+
+	/** 已完成 */
+	public static final String STATUS_SUCCESS = "SUCCESS";
+
+	/** 失败 */
+	public static final String STATUS_FAILED = "FAILED";
+
+	/**
+	 * 节点心跳间隔（秒）
+	 */
+	private static final int HEARTBEAT_INTERVAL = 30;
+
+	/**
+	 * 节点心跳有效期（秒），超过后视为节点已停止
+	 */
+	private static final int HEARTBEAT_EXPIRE = 90;
+
+	/**
+	 * 过期结果文件清理间隔（分钟）
+	 */
+	private static final int CLEAN_INTERVAL = 60;
+
+	/**
+	 * 同时执行的导出任务数
+	 */
+	@Value("${export.async.poolSize:4}")
+	private int poolSize;
+
+	/**
+	 * 排队等待的导出任务数上限
+	 */
+	@Value("${export.async.queueCapacity:20}")
+	private int queueCapacity;
+
+	/**
+	 * 每个用户同时进行（含排队）的导出任务数上限
+	 */
+	@Value("${export.async.perUserLimit:2}")
+	private int perUserLimit;
+
+	/**
+	 * 每写入多少行更新一次进度
+	 */
+	@Value("${export.async.progressInterval:1000}")
+	private int progressInterval;
+
+	/**
+	 * 任务状态及结果文件保留时间（秒）
+	 */
+	@Value("${export.async.expireTime:86400}")
+	private long expireTime;
+
+	/**
+	 * 本节点标识，记录在任务中用于判断任务所在节点是否存活
+	 */
+	private final String nodeId = IdUtils.fastSimpleUUID();
+
+	private RedisCache redisCache;
+
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * 节点心跳与过期文件清理
+	 */
+	private ScheduledExecutorService maintainer;
+
+	@Autowired
+	public void setRedisCache(RedisCache redisCache) {
+		this.redisCache = redisCache;
+	}
+
+	@PostConstruct
+	public void init() {
+		if (progressInterval <= 0) {
+			throw new IllegalArgumentException("export.async.progressInterval 必须大于0");
+		}
+		executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+				new BasicThreadFactory.Builder().namingPattern("export-job-%d").daemon(true).build(),
+				new ThreadPoolExecutor.AbortPolicy());
+		maintainer = Executors.newSingleThreadScheduledExecutor(
+				new BasicThreadFactory.Builder().namingPattern("export-job-maintain-%d").daemon(true).build());
+		maintainer.scheduleWithFixedDelay(this::heartbeat, 0, HEARTBEAT_INTERVAL, TimeUnit.SECONDS);
+		maintainer.scheduleWithFixedDelay(this::cleanExpiredFiles, CLEAN_INTERVAL, CLEAN_INTERVAL, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * 提交异步导出任务
+	 *
+	 * @param clazz 导出实体类
+	 * @param sheetName 工作表名称
+	 * @param estimatedTotal 预估总行数，未知时传-1
+	 * @param source 数据源，调用时传入逐行写入的回调，在导出线程中执行
+	 * @return 任务ID
+	 */
+	public <T> String submit(Class<T> clazz, String sheetName, long estimatedTotal, Consumer<Consumer<T>> source) {
+		Long userId = SecurityUtils.getUserId();
+		String runningKey = CacheConstants.EXPORT_RUNNING_KEY + userId;
+		String jobId = IdUtils.fastSimpleUUID();
+		String jobKey = CacheConstants.EXPORT_JOB_KEY + jobId;
+		Map<String, Object> job = new HashMap<>();
+		job.put("jobId", jobId);
+		job.put("title", sheetName);
+		job.put("userId", userId);
+		job.put("node", nodeId);
+		job.put("status", STATUS_WAITING);
+		job.put("total", estimatedTotal);
+		job.put("rows", 0L);
+		job.put("createTime", DateHelper.getTime());
+		redisCache.setCacheMap(jobKey, job);
+		redisCache.expire(jobKey, expireTime);
+
+		// 先登记再统计，并发提交时不会同时超过上限
+		redisCache.sAdd(runningKey, jobId);
+		redisCache.expire(runningKey, expireTime);
+		if (countLiveJobs(runningKey) > perUserLimit) {
+			redisCache.sRemove(runningKey, jobId);
+			redisCache.deleteObject(jobKey);
+			throw new ServiceException("同时进行的导出任务不能超过" + perUserLimit + "个，请稍后再试");
+		}
+
+		// 数据权限等依赖当前登录用户，需要传递到导出线程
+		SecurityContext context = SecurityContextHolder.createEmptyContext();
+		context.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+		try {
+			executor.execute(new ExportTask(jobId, runningKey,
+					() -> run(context, jobId, runningKey, clazz, sheetName, source)));
+		} catch (RejectedExecutionException e) {
+			redisCache.sRemove(runningKey, jobId);
+			redisCache.deleteObject(jobKey);
+			throw new ServiceException("导出任务繁忙，请稍后再试");
+		}
+		return jobId;
+	}
+
+	private <T> void run(SecurityContext context, String jobId, String runningKey, Class<T> clazz,
+			String sheetName, Consumer<Consumer<T>> source) {
+		SecurityContextHolder.setContext(context);
+		String jobKey = CacheConstants.EXPORT_JOB_KEY + jobId;
+		AtomicLong rows = new AtomicLong();
+		try {
+			redisCache.setCacheMapValue(jobKey, "status", STATUS_RUNNING);
+			String fileName = new ExcelUtil<>(clazz).exportExcelFile(sink -> source.accept(vo -> {
+				sink.accept(vo);
+				if (rows.incrementAndGet() % progressInterval == 0) {
+					redisCache.setCacheMapValue(jobKey, "rows", rows.get());
+				}
+			}), sheetName);
+			Map<String, Object> result = new HashMap<>();
+			result.put("status", STATUS_SUCCESS);
+			result.put("rows", rows.get());
+			result.put("fileName", fileName);
+			result.put("finishTime", DateHelper.getTime());
+			redisCache.setCacheMap(jobKey, result);
+		} catch (Exception e) {
+			log.error("异步导出任务失败 {}", jobKey, e);
+			finishFailed(jobKey, rows.get(), e.getMessage());
+		} finally {
+			redisCache.sRemove(runningKey, jobId);
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	/**
+	 * 统计用户未结束且所在节点仍存活的任务数，已结束或已失效的任务顺带移出集合
+	 */
+	private int countLiveJobs(String runningKey) {
+		Set<String> jobIds = redisCache.getCacheSet(runningKey);
+		int live = 0;
+		for (String jobId : jobIds) {
+			List<Object> job = redisCache.getMultiCacheMapValue(CacheConstants.EXPORT_JOB_KEY + jobId,
+					Arrays.asList("status", "node"));
+			if (isLive(job.get(0), job.get(1))) {
+				live++;
+			} else {
+				redisCache.sRemove(runningKey, jobId);
+			}
+		}
+		return live;
+	}
+
+	/**
+	 * 任务是否仍在排队或执行中
+	 */
+	private boolean isLive(Object status, Object node) {
+		if (!STATUS_WAITING.equals(status) && !STATUS_RUNNING.equals(status)) {
+			return false;
+		}
+		return nodeId.equals(node) || Boolean.TRUE.equals(redisCache.hasKey(CacheConstants.EXPORT_NODE_KEY + node));
+	}
+
+	private void finishFailed(String jobKey, long rows, String message) {
+		Map<String, Object> result = new HashMap<>();
+		result.put("status", STATUS_FAILED);
+		result.put("rows", rows);
+		result.put("message", message);
+		result.put("finishTime", DateHelper.getTime());
+		redisCache.setCacheMap(jobKey, result);
+	}
+
+	/**
+	 * 刷新本节点心跳
+	 */
+	private void heartbeat() {
+		try {
+			redisCache.setCacheObject(CacheConstants.EXPORT_NODE_KEY + nodeId, DateHelper.getTime(), HEARTBEAT_EXPIRE,
+					TimeUnit.SECONDS);
+		} catch (Exception e) {
+			log.warn("异步导出节点心跳失败: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * 删除超过保留时间的导出文件（此时对应的任务状态已过期，无法再通过任务查询下载）
+	 */
+	private void cleanExpiredFiles() {
+		File[] files = new File(MispConfig.getDownloadPath()).listFiles(
+				file -> file.isFile() && file.getName().endsWith(".xlsx")
+						&& System.currentTimeMillis() - file.lastModified() > TimeUnit.SECONDS.toMillis(expireTime));
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			if (!file.delete()) {
+				log.warn("删除过期导出文件失败 {}", file.getPath());
+			}
+		}
+	}
+
+	/**
+	 * 查询当前用户的导出任务
+	 *
+	 * @param jobId 任务ID
+	 * @return 任务状态，不存在或不属于当前用户时返回null
+	 */
+	public Map<String, Object> getJob(String jobId) {
+		String jobKey = CacheConstants.EXPORT_JOB_KEY + jobId;
+		Map<String, Object> job = redisCache.getCacheMap(jobKey);
+		if (job == null || job.isEmpty()
+				|| !String.valueOf(SecurityUtils.getUserId()).equals(String.valueOf(job.get("userId")))) {
+			return null;
+		}
+		Object status = job.get("status");
+		if ((STATUS_WAITING.equals(status) || STATUS_RUNNING.equals(status)) && !isLive(status, job.get("node"))) {
+			// 所在节点已停止，任务不会再完成
+			finishFailed(jobKey, ((Number) job.getOrDefault("rows", 0L)).longValue(), "导出节点已停止，请重新导出");
+			job = redisCache.getCacheMap(jobKey);
+		}
+		return job;
+	}
+
+	/**
+	 * 停止导出线程池，中断执行中的任务；排队中的任务不再执行，标记为失败并释放用户并发数
+	 */
+	public void shutdown() {
+		maintainer.shutdownNow();
+		List<Runnable> dropped = executor.shutdownNow();
+		for (Runnable runnable : dropped) {
+			if (runnable instanceof ExportTask task) {
+				try {
+					finishFailed(CacheConstants.EXPORT_JOB_KEY + task.jobId(), 0, "服务停止，导出任务已取消");
+					redisCache.sRemove(task.runningKey(), task.jobId());
+				} catch (Exception e) {
+					log.warn("取消导出任务 {} 失败: {}", task.jobId(), e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * 导出任务，线程池关闭时据此清理排队中的任务
+	 *
+	 * @param jobId 任务ID
+	 * @param runningKey 用户进行中任务集合的key
+	 * @param body 任务内容
+	 */
+	private record ExportTask(String jobId, String runningKey, Runnable body) implements Runnable {
+		@Override
+		public void run() {
+			body.run();
+		}
+	}
+}
@@ -0,0 +1,391 @@
+package com.groqdata.framework.manager;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import com.groqdata.common.annotation.RateLimiter;
+import com.groqdata.common.core.cache.LocalCacheRegistry;
+
+/**
+ * 限流引擎
+ * <p>
+ * 按注解选择算法：REDIS 每次执行脚本；TOKEN_BUCKET、SLIDING_WINDOW 完全在本地判断；
+ * HYBRID 从Redis按批租用许可后在本地扣减。本地判断只使用CAS，不加锁；
+ * Redis不可用时降级为本地令牌桶，不再拒绝所有请求；降级期间不再访问Redis，
+ * 每个重试间隔只放行一次探测，避免每个请求都等待Redis超时。
+ *
+ * @author MISP TEAM
+ */
+@Component
+public class RateLimitManager {
+	private static final Logger log = LoggerFactory.getLogger(RateLimitManager.class);
+
+	/**
+	 * 本地限流器的最大key数量（按IP限流时每个IP一个key）
+	 */
+	@Value("${rate.limit.localMaxKeys:10000}")
+	private int localMaxKeys;
+
+	/**
+	 * Redis不可用后的重试间隔（毫秒），间隔内直接使用本地限流
+	 */
+	@Value("${rate.limit.redisRetryInterval:5000}")
+	private long redisRetryInterval;
+
+	private RedisTemplate<Object, Object> redisTemplate;
+
+	private RedisScript<Long> limitScript;
+
+	private RedisScript<Long> limitLeaseScript;
+
+	/**
+	 * 本地限流器，空闲超过各自的限流时间后移除（此时状态已等同于初始状态）
+	 */
+	private Cache<String, Limiter> limiters;
+
+	/**
+	 * Redis是否可用
+	 */
+	private final AtomicBoolean redisAvailable = new AtomicBoolean(true);
+
+	/**
+	 * Redis不可用时，下一次允许探测的时间（System.nanoTime）
+	 */
+	private final AtomicLong nextProbeTime = new AtomicLong();
+
+	@Autowired
+	public void setRedisTemplate(RedisTemplate<Object, Object> redisTemplate) {
+		this.redisTemplate = redisTemplate;
+	}
+
+	@Autowired
+	public void setLimitScript(@Qualifier("limitScript") RedisScript<Long> limitScript) {
+		this.limitScript = limitScript;
+	}
+
+	@Autowired
+	public void setLimitLeaseScript(@Qualifier("limitLeaseScript") RedisScript<Long> limitLeaseScript) {
+		this.limitLeaseScript = limitLeaseScript;
+	}
+
+	@PostConstruct
+	public void init() {
+		limiters = Caffeine.newBuilder()
+				.maximumSize(localMaxKeys)
+				.expireAfter(new Expiry<String, Limiter>() {
+					@Override
+					public long expireAfterCreate(String key, Limiter limiter, long currentTime) {
+						return limiter.windowNanos();
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, Limiter limiter, long currentTime,
+							long currentDuration) {
+						return limiter.windowNanos();
+					}
+
+					@Override
+					public long expireAfterRead(String key, Limiter limiter, long currentTime,
+							long currentDuration) {
+						return limiter.windowNanos();
+					}
+				})
+				.recordStats()
+				.build();
+		LocalCacheRegistry.register("rateLimiter", limiters);
+	}
+
+	/**
+	 * 尝试获取一次访问许可
+	 *
+	 * @param key 限流key
+	 * @param rateLimiter 限流注解
+	 * @return true 允许访问，false 超出限制
+	 */
+	public boolean tryAcquire(String key, RateLimiter rateLimiter) {
+		int count = Math.max(1, rateLimiter.count());
+		int time = Math.max(1, rateLimiter.time());
+		long now = System.nanoTime();
+		return switch (rateLimiter.algorithm()) {
+			case TOKEN_BUCKET -> localLimiter(key, () -> new TokenBucket(count, time, now)).tryAcquire(now);
+			case SLIDING_WINDOW -> localLimiter(key, () -> new SlidingWindowLog(count, time, now)).tryAcquire(now);
+			case HYBRID -> {
+				int batch = rateLimiter.batch() > 0 ? rateLimiter.batch() : Math.max(1, count / 10);
+				yield localLimiter(key, () -> new HybridLease(key, count, time, Math.min(batch, count), now))
+						.tryAcquire(now);
+			}
+			default -> redisAcquire(key, count, time, now);
+		};
+	}
+
+	/**
+	 * 每次请求执行Redis脚本，Redis异常时降级为本地令牌桶
+	 */
+	private boolean redisAcquire(String key, int count, int time, long now) {
+		if (!tryUseRedis(now)) {
+			return localLimiter("fallback:" + key, () -> new TokenBucket(count, time, now)).tryAcquire(now);
+		}
+		try {
+			Long number = redisTemplate.execute(limitScript, Collections.singletonList(key), count, time);
+			markRedisAvailable();
+			return number != null && number.intValue() <= count;
+		} catch (Exception e) {
+			markRedisUnavailable(e);
+			return localLimiter("fallback:" + key, () -> new TokenBucket(count, time, now)).tryAcquire(now);
+		}
+	}
+
+	private Limiter localLimiter(String key, Supplier<Limiter> factory) {
+		return limiters.get(key, k -> factory.get());
+	}
+
+	private void markRedisAvailable() {
+		if (!redisAvailable.get() && redisAvailable.compareAndSet(false, true)) {
+			log.info("Redis限流已恢复");
+		}
+	}
+
+	/**
+	 * Redis不可用且未到重试时间
+	 */
+	private boolean isRedisSkipped(long now) {
+		return !redisAvailable.get() && now - nextProbeTime.get() < 0;
+	}
+
+	/**
+	 * 是否访问Redis：可用时直接访问；不可用时每个重试间隔只有一个线程获得探测机会
+	 */
+	private boolean tryUseRedis(long now) {
+		if (redisAvailable.get()) {
+			return true;
+		}
+		long next = nextProbeTime.get();
+		return now - next >= 0
+				&& nextProbeTime.compareAndSet(next, now + TimeUnit.MILLISECONDS.toNanos(redisRetryInterval));
+	}
+
+	private void markRedisUnavailable(Exception e) {
+		nextProbeTime.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(redisRetryInterval));
+		if (redisAvailable.compareAndSet(true, false)) {
+			log.warn("Redis限流不可用，降级为本地限流: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * 本地限流器
+	 */
+	interface Limiter {
+		/**
+		 * @param now 当前时间（System.nanoTime）
+		 * @return 是否允许访问
+		 */
+		boolean tryAcquire(long now);
+
+		/**
+		 * 限流时间（纳秒），同时作为空闲移除时间
+		 */
+		long windowNanos();
+	}
+
+	/**
+	 * 令牌桶（GCRA实现）：只保存“理论到达时间”一个状态，一次CAS完成取令牌
+	 */
+	static final class TokenBucket implements Limiter {
+		private final long windowNanos;
+
+		private final long intervalNanos;
+
+		private final AtomicLong theoreticalArrival;
+
+		TokenBucket(int count, int time, long now) {
+			this.windowNanos = TimeUnit.SECONDS.toNanos(time);
+			this.intervalNanos = Math.max(1, windowNanos / count);
+			this.theoreticalArrival = new AtomicLong(now);
+		}
+
+		@Override
+		public boolean tryAcquire(long now) {
+			while (true) {
+				long tat = theoreticalArrival.get();
+				long next = Math.max(tat - now, 0) + now + intervalNanos;
+				// 已预支的时间超过一个限流周期，说明桶内令牌已用完
+				if (next - now > windowNanos) {
+					return false;
+				}
+				if (theoreticalArrival.compareAndSet(tat, next)) {
+					return true;
+				}
+			}
+		}
+
+		@Override
+		public long windowNanos() {
+			return windowNanos;
+		}
+	}
+
+	/**
+	 * 滑动窗口日志：环形数组记录最近 count 次放行的时间，最早一次仍在窗口内时拒绝。
+	 * 每个槽位同时记录写入时的序号，上一轮的写入完成前不会判断下一轮，避免并发时读到尚未写入的旧时间而多放行
+	 */
+	static final class SlidingWindowLog implements Limiter {
+		private final long windowNanos;
+
+		private final AtomicLongArray timestamps;
+
+		private final AtomicLongArray sequences;
+
+		private final AtomicLong cursor = new AtomicLong();
+
+		SlidingWindowLog(int count, int time, long now) {
+			this.windowNanos = TimeUnit.SECONDS.toNanos(time);
+			this.timestamps = new AtomicLongArray(count);
+			this.sequences = new AtomicLongArray(count);
+			for (int i = 0; i < count; i++) {
+				timestamps.set(i, now - windowNanos);
+				sequences.set(i, (long) i - count);
+			}
+		}
+
+		@Override
+		public boolean tryAcquire(long now) {
+			int length = timestamps.length();
+			while (true) {
+				long position = cursor.get();
+				int slot = (int) (position % length);
+				if (sequences.get(slot) != position - length) {
+					// 上一轮占用该槽位的线程尚未写完，或游标已被其他线程推进
+					Thread.onSpinWait();
+					continue;
+				}
+				if (now - timestamps.get(slot) < windowNanos) {
+					if (cursor.get() == position) {
+						return false;
+					}
+					continue;
+				}
+				if (cursor.compareAndSet(position, position + 1)) {
+					timestamps.set(slot, now);
+					sequences.set(slot, position);
+					return true;
+				}
+			}
+		}
+
+		@Override
+		public long windowNanos() {
+			return windowNanos;
+		}
+	}
+
+	/**
+	 * 混合模式：按固定窗口从Redis租用一批许可，本地原子扣减，用完后再租；
+	 * 窗口内Redis已无许可时本地直接拒绝，直到下一个窗口。
+	 */
+	private final class HybridLease implements Limiter {
+		private final String key;
+
+		private final int count;
+
+		private final int time;
+
+		private final int batch;
+
+		private final TokenBucket fallback;
+
+		private volatile Lease lease;
+
+		HybridLease(String key, int count, int time, int batch, long now) {
+			this.key = key;
+			this.count = count;
+			this.time = time;
+			this.batch = batch;
+			this.fallback = new TokenBucket(count, time, now);
+		}
+
+		@Override
+		public boolean tryAcquire(long now) {
+			long window = System.currentTimeMillis() / TimeUnit.SECONDS.toMillis(time);
+			Lease current = lease;
+			if (current != null && current.window() == window) {
+				if (current.remaining().getAndDecrement() > 0) {
+					return true;
+				}
+				if (current.exhausted()) {
+					return false;
+				}
+			}
+			if (isRedisSkipped(now)) {
+				// 降级期间不进入同步块，避免排队等待Redis
+				return fallback.tryAcquire(now);
+			}
+			return renew(window, now);
+		}
+
+		/**
+		 * 租用新的许可，同一key同时只有一个线程访问Redis
+		 */
+		private synchronized boolean renew(long window, long now) {
+			Lease current = lease;
+			if (current != null && current.window() == window) {
+				// 其他线程已续租
+				if (current.remaining().getAndDecrement() > 0) {
+					return true;
+				}
+				if (current.exhausted()) {
+					return false;
+				}
+			}
+			if (!tryUseRedis(now)) {
+				// 等待期间其他线程已发现Redis不可用，或本次探测机会已被占用
+				return fallback.tryAcquire(now);
+			}
+			long granted;
+			try {
+				Long result = redisTemplate.execute(limitLeaseScript, Collections.singletonList(key + ":" + window),
+						count, time, batch);
+				granted = result == null ? 0 : result;
+				markRedisAvailable();
+			} catch (Exception e) {
+				markRedisUnavailable(e);
+				return fallback.tryAcquire(now);
+			}
+			lease = new Lease(window, new AtomicLong(granted - 1), granted == 0);
+			return granted > 0;
+		}
+
+		@Override
+		public long windowNanos() {
+			return TimeUnit.SECONDS.toNanos(time);
+		}
+	}
+
+	/**
+	 * 已租用的许可
+	 *
+	 * @param window 所属窗口
+	 * @param remaining 剩余许可数
+	 * @param exhausted 当前窗口Redis中是否已无许可
+	 */
+	private record Lease(long window, AtomicLong remaining, boolean exhausted) {
+	}
+}
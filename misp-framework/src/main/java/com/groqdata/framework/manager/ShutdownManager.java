@@ -2,6 +2,7 @@ package com.groqdata.framework.manager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import javax.annotation.PreDestroy;
 
@@ -14,18 +15,45 @@ import javax.annotation.PreDestroy;
 public class ShutdownManager {
 	private static final Logger logger = LoggerFactory.getLogger("sys-user");
 
+	private AsyncLogManager asyncLogManager;
+
+	@Autowired
+	public void setAsyncLogManager(AsyncLogManager asyncLogManager) {
+		this.asyncLogManager = asyncLogManager;
+	}
+
+	private ExportJobManager exportJobManager;
+
+	@Autowired
+	public void setExportJobManager(ExportJobManager exportJobManager) {
+		this.exportJobManager = exportJobManager;
+	}
+
 	@PreDestroy
 	public void destroy() {
-		shutdownAsyncManager();
+		shutdownExportJobManager();
+		shutdownAsyncLogManager();
+	}
+
+	/**
+	 * 停止异步导出任务
+	 */
+	private void shutdownExportJobManager() {
+		try {
+			logger.info("====关闭异步导出任务线程池====");
+			exportJobManager.shutdown();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
 	}
 
 	/**
-	 * 停止异步执行任务
+	 * 写完日志队列中的剩余记录
 	 */
-	private void shutdownAsyncManager() {
+	private void shutdownAsyncLogManager() {
 		try {
-			logger.info("====关闭后台任务任务线程池====");
-			AsyncManager.me().shutdown();
+			logger.info("====写入剩余日志并关闭日志批量写入线程====");
+			asyncLogManager.shutdown();
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 		}
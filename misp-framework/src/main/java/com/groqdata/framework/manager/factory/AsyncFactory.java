@@ -1,94 +0,0 @@
-package com.groqdata.framework.manager.factory;
-
-import java.util.TimerTask;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import com.groqdata.common.constant.Constants;
-import com.groqdata.common.utils.LogUtils;
-import com.groqdata.common.utils.ServletUtils;
-import org.apache.commons.lang3.StringUtils;
-import com.groqdata.common.utils.ip.AddressUtils;
-import com.groqdata.common.utils.ip.IpUtils;
-import com.groqdata.common.utils.spring.SpringUtils;
-import com.groqdata.system.domain.SysLogininfor;
-import com.groqdata.system.domain.SysOperLog;
-import com.groqdata.system.service.ISysLogininforService;
-import com.groqdata.system.service.ISysOperLogService;
-import eu.bitwalker.useragentutils.UserAgent;
-
-/**
- * 异步工厂（产生任务用）
- * 
- * @author MISP TEAM
- */
-public class AsyncFactory {
-	private static final Logger sys_user_logger = LoggerFactory.getLogger("sys-user");
-
-	private AsyncFactory() {
-		throw new IllegalStateException("工具类不能被实例化");
-	}
-	/**
-	 * 记录登录信息
-	 * 
-	 * @param username 用户名
-	 * @param status 状态
-	 * @param message 消息
-	 * @param args 列表
-	 * @return 任务task
-	 */
-	public static TimerTask recordLogininfor(final String username, final String status, final String message,
-			final Object... args) {
-		final UserAgent userAgent = UserAgent.parseUserAgentString(ServletUtils.getRequest().getHeader("User-Agent"));
-		final String ip = IpUtils.getIpAddr();
-		return new TimerTask() {
-			@Override
-			public void run() {
-				String address = AddressUtils.getRealAddressByIP(ip);
-				String logContent = LogUtils.getBlock(ip) +
-						address +
-						LogUtils.getBlock(username) +
-						LogUtils.getBlock(status) +
-						LogUtils.getBlock(message);
-				// 打印信息到日志
-				sys_user_logger.info(logContent, args);
-				// 获取客户端操作系统
-				String os = userAgent.getOperatingSystem().getName();
-				// 获取客户端浏览器
-				String browser = userAgent.getBrowser().getName();
-				// 封装对象
-				SysLogininfor logininfor = new SysLogininfor();
-				logininfor.setUserName(username);
-				logininfor.setIpaddr(ip);
-				logininfor.setLoginLocation(address);
-				logininfor.setBrowser(browser);
-				logininfor.setOs(os);
-				logininfor.setMsg(message);
-				// 日志状态
-				if (StringUtils.equalsAny(status, Constants.LOGIN_SUCCESS, Constants.LOGOUT, Constants.REGISTER)) {
-					logininfor.setStatus(Constants.SUCCESS);
-				} else if (Constants.LOGIN_FAIL.equals(status)) {
-					logininfor.setStatus(Constants.FAIL);
-				}
-				// 插入数据
-				SpringUtils.getBean(ISysLogininforService.class).insertLogininfor(logininfor);
-			}
-		};
-	}
-
-	/**
-	 * 操作日志记录
-	 * 
-	 * @param operLog 操作日志信息
-	 * @return 任务task
-	 */
-	public static TimerTask recordOper(final SysOperLog operLog) {
-		return new TimerTask() {
-			@Override
-			public void run() {
-				// 远程查询操作地点
-				operLog.setOperLocation(AddressUtils.getRealAddressByIP(operLog.getOperIp()));
-				SpringUtils.getBean(ISysOperLogService.class).insertOperlog(operLog);
-			}
-		};
-	}
-}
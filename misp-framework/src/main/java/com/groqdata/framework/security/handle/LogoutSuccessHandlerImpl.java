@@ -17,8 +17,7 @@ import com.groqdata.common.core.domain.model.LoginUser;
 import com.groqdata.common.utils.MessageUtils;
 import com.groqdata.common.utils.ServletUtils;
 import com.groqdata.common.utils.basic.StringHelper;
-import com.groqdata.framework.manager.AsyncManager;
-import com.groqdata.framework.manager.factory.AsyncFactory;
+import com.groqdata.framework.manager.AsyncLogManager;
 import com.groqdata.framework.web.service.TokenService;
 
 /**
@@ -31,8 +30,11 @@ public class LogoutSuccessHandlerImpl implements LogoutSuccessHandler {
 
 	private final TokenService tokenService;
 
-	public LogoutSuccessHandlerImpl(TokenService tokenService) {
+	private final AsyncLogManager asyncLogManager;
+
+	public LogoutSuccessHandlerImpl(TokenService tokenService, AsyncLogManager asyncLogManager) {
 		this.tokenService = tokenService;
+		this.asyncLogManager = asyncLogManager;
 	}
 
 	/**
@@ -49,9 +51,7 @@ public class LogoutSuccessHandlerImpl implements LogoutSuccessHandler {
 			// 删除用户缓存记录
 			tokenService.delLoginUser(loginUser.getToken());
 			// 记录用户退出日志
-			AsyncManager.me().execute(
-					AsyncFactory.recordLogininfor(userName, Constants.LOGOUT,
-							MessageUtils.message("user.logout.success")));
+			asyncLogManager.recordLogininfor(userName, Constants.LOGOUT, MessageUtils.message("user.logout.success"));
 		}
 		ServletUtils.renderString(response,
 				JSON.toJSONString(AjaxResult.success(MessageUtils.message("user.logout.success"))));
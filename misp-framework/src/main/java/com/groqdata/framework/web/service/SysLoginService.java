@@ -22,9 +22,9 @@ import com.groqdata.common.exception.user.UserPasswordNotMatchException;
 import com.groqdata.common.utils.basic.DateHelper;
 import com.groqdata.common.utils.MessageUtils;
 import com.groqdata.common.utils.basic.StringHelper;
+import com.groqdata.common.utils.ip.IpMatcher;
 import com.groqdata.common.utils.ip.IpUtils;
-import com.groqdata.framework.manager.AsyncManager;
-import com.groqdata.framework.manager.factory.AsyncFactory;
+import com.groqdata.framework.manager.AsyncLogManager;
 import com.groqdata.framework.security.context.AuthenticationContextHolder;
 import com.groqdata.system.service.ISysConfigService;
 import com.groqdata.system.service.ISysUserService;
@@ -41,20 +41,28 @@ public class SysLoginService {
 	private final RedisCache redisCache;
 	private final ISysUserService userService;
 	private final ISysConfigService configService;
+	private final AsyncLogManager asyncLogManager;
 
 	public SysLoginService(TokenService tokenService,
 			AuthenticationManager authenticationManager,
 			RedisCache redisCache,
 			ISysUserService userService,
-			ISysConfigService configService) {
+			ISysConfigService configService,
+			AsyncLogManager asyncLogManager) {
 		this.tokenService = tokenService;
 		this.authenticationManager = authenticationManager;
 		this.redisCache = redisCache;
 		this.userService = userService;
 		this.configService = configService;
+		this.asyncLogManager = asyncLogManager;
 	}
 
 	private static final String USER_PASSWORD_NOT_MATCH = "user.password.not.match";
+
+	/**
+	 * 当前生效的IP黑名单匹配器，黑名单参数变更时整体替换
+	 */
+	private volatile IpMatcher blackIpMatcher = IpMatcher.EMPTY;
 	/**
 	 * 登录验证
 	 * 
@@ -78,18 +86,16 @@ public class SysLoginService {
 			// 该方法会去调用UserDetailsServiceImpl.loadUserByUsername
 			authentication = authenticationManager.authenticate(authenticationToken);
 		} catch (BadCredentialsException e) {
-			AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL,
-					MessageUtils.message(USER_PASSWORD_NOT_MATCH)));
+			asyncLogManager.recordLogininfor(username, Constants.LOGIN_FAIL,
+					MessageUtils.message(USER_PASSWORD_NOT_MATCH));
 			throw new UserPasswordNotMatchException();
 		} catch (Exception e) {
-			AsyncManager.me()
-					.execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL, e.getMessage()));
+			asyncLogManager.recordLogininfor(username, Constants.LOGIN_FAIL, e.getMessage());
 			throw new ServiceException(e.getMessage());
 		} finally {
 			AuthenticationContextHolder.clearContext();
 		}
-		AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_SUCCESS,
-				MessageUtils.message("user.login.success")));
+		asyncLogManager.recordLogininfor(username, Constants.LOGIN_SUCCESS, MessageUtils.message("user.login.success"));
 		LoginUser loginUser = (LoginUser) authentication.getPrincipal();
 		recordLoginInfo(loginUser.getUserId());
 		// 生成token
@@ -110,14 +116,14 @@ public class SysLoginService {
 			String verifyKey = CacheConstants.CAPTCHA_CODE_KEY + StringHelper.nvl(uuid, "");
 			String captcha = redisCache.getCacheObject(verifyKey);
 			if (captcha == null) {
-				AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL,
-						MessageUtils.message("user.jcaptcha.expire")));
+				asyncLogManager.recordLogininfor(username, Constants.LOGIN_FAIL,
+						MessageUtils.message("user.jcaptcha.expire"));
 				throw new CaptchaExpireException();
 			}
 			redisCache.deleteObject(verifyKey);
 			if (!code.equalsIgnoreCase(captcha)) {
-				AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL,
-						MessageUtils.message("user.jcaptcha.error")));
+				asyncLogManager.recordLogininfor(username, Constants.LOGIN_FAIL,
+						MessageUtils.message("user.jcaptcha.error"));
 				throw new CaptchaException();
 			}
 		}
@@ -131,34 +137,45 @@ public class SysLoginService {
 	public void loginPreCheck(String username, String password) {
 		// 用户名或密码为空 错误
 		if (StringUtils.isEmpty(username) || StringUtils.isEmpty(password)) {
-			AsyncManager.me().execute(
-					AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL, MessageUtils.message("not.null")));
+			asyncLogManager.recordLogininfor(username, Constants.LOGIN_FAIL, MessageUtils.message("not.null"));
 			throw new UserNotExistsException();
 		}
 		// 密码如果不在指定范围内 错误
 		if (password.length() < UserConstants.PASSWORD_MIN_LENGTH
 				|| password.length() > UserConstants.PASSWORD_MAX_LENGTH) {
-			AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL,
-					MessageUtils.message(USER_PASSWORD_NOT_MATCH)));
+			asyncLogManager.recordLogininfor(username, Constants.LOGIN_FAIL,
+					MessageUtils.message(USER_PASSWORD_NOT_MATCH));
 			throw new UserPasswordNotMatchException();
 		}
 		// 用户名不在指定范围内 错误
 		if (username.length() < UserConstants.USERNAME_MIN_LENGTH
 				|| username.length() > UserConstants.USERNAME_MAX_LENGTH) {
-			AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL,
-					MessageUtils.message(USER_PASSWORD_NOT_MATCH)));
+			asyncLogManager.recordLogininfor(username, Constants.LOGIN_FAIL,
+					MessageUtils.message(USER_PASSWORD_NOT_MATCH));
 			throw new UserPasswordNotMatchException();
 		}
 		// IP黑名单校验
-		String blackStr = configService.selectConfigByKey("sys.login.blackIPList");
-		if (IpUtils.isMatchedIp(blackStr, IpUtils.getIpAddr())) {
-			AsyncManager.me().execute(
-					AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL,
-							MessageUtils.message("login.blocked")));
+		if (getBlackIpMatcher().matches(IpUtils.getIpAddr())) {
+			asyncLogManager.recordLogininfor(username, Constants.LOGIN_FAIL, MessageUtils.message("login.blocked"));
 			throw new BlackListException();
 		}
 	}
 
+	/**
+	 * 获取IP黑名单匹配器，仅在黑名单参数变更时重新编译
+	 *
+	 * @return 匹配器
+	 */
+	private IpMatcher getBlackIpMatcher() {
+		String blackStr = StringUtils.defaultString(configService.selectConfigByKey("sys.login.blackIPList"));
+		IpMatcher matcher = blackIpMatcher;
+		if (!blackStr.equals(matcher.getSource())) {
+			matcher = IpMatcher.compile(blackStr);
+			blackIpMatcher = matcher;
+		}
+		return matcher;
+	}
+
 	/**
 	 * 记录登录信息
 	 *
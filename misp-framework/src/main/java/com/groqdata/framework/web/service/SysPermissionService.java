@@ -1,8 +1,10 @@
 package com.groqdata.framework.web.service;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 import com.groqdata.common.core.domain.entity.SysRole;
@@ -38,6 +40,13 @@ public class SysPermissionService {
 		// 管理员拥有所有权限
 		if (user.isAdmin()) {
 			roles.add("admin");
+		} else if (!CollectionUtils.isEmpty(user.getRoles())) {
+			// 登录时用户信息已关联查出角色，直接取角色标识，不再查询数据库
+			for (SysRole role : user.getRoles()) {
+				if (StringUtils.isNotBlank(role.getRoleKey())) {
+					roles.addAll(Arrays.asList(role.getRoleKey().trim().split(",")));
+				}
+			}
 		} else {
 			roles.addAll(roleService.selectRolePermissionByUserId(user.getUserId()));
 		}
@@ -14,8 +14,7 @@ import com.groqdata.common.exception.user.CaptchaExpireException;
 import com.groqdata.common.utils.MessageUtils;
 import com.groqdata.common.utils.SecurityUtils;
 import com.groqdata.common.utils.basic.StringHelper;
-import com.groqdata.framework.manager.AsyncManager;
-import com.groqdata.framework.manager.factory.AsyncFactory;
+import com.groqdata.framework.manager.AsyncLogManager;
 import com.groqdata.system.service.ISysConfigService;
 import com.groqdata.system.service.ISysUserService;
 
@@ -32,10 +31,14 @@ public class SysRegisterService {
 
 	private final RedisCache redisCache;
 
-	public SysRegisterService(ISysUserService userService, ISysConfigService configService, RedisCache redisCache) {
+	private final AsyncLogManager asyncLogManager;
+
+	public SysRegisterService(ISysUserService userService, ISysConfigService configService, RedisCache redisCache,
+			AsyncLogManager asyncLogManager) {
 		this.userService = userService;
 		this.configService = configService;
 		this.redisCache = redisCache;
+		this.asyncLogManager = asyncLogManager;
 	}
 
 	/**
@@ -73,8 +76,8 @@ public class SysRegisterService {
 			if (!regFlag) {
 				msg = "注册失败,请联系系统管理人员";
 			} else {
-				AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.REGISTER,
-						MessageUtils.message("user.register.success")));
+				asyncLogManager.recordLogininfor(username, Constants.REGISTER,
+						MessageUtils.message("user.register.success"));
 			}
 		}
 		return msg;
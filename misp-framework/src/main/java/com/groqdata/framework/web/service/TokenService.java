@@ -1,26 +1,50 @@
 package com.groqdata.framework.web.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
 import com.groqdata.common.constant.CacheConstants;
 import com.groqdata.common.constant.Constants;
+import com.groqdata.common.core.cache.LocalCacheRegistry;
+import com.groqdata.common.core.domain.entity.SysUser;
 import com.groqdata.common.core.domain.model.LoginUser;
 import com.groqdata.common.core.redis.RedisCache;
+import com.groqdata.common.enums.UserStatus;
 import com.groqdata.common.utils.ServletUtils;
 import com.groqdata.common.utils.basic.StringHelper;
+import com.groqdata.common.utils.http.UserAgentUtils;
 import com.groqdata.common.utils.ip.AddressUtils;
 import com.groqdata.common.utils.ip.IpUtils;
 import com.groqdata.common.utils.uuid.IdUtils;
+import com.groqdata.system.event.UserRolesChangedEvent;
+import com.groqdata.system.service.ISysUserService;
 
 import eu.bitwalker.useragentutils.UserAgent;
 import io.jsonwebtoken.Claims;
@@ -54,10 +78,122 @@ public class TokenService {
 
 	private static final Long MILLIS_MINUTE_TEN = 20 * 60 * 1000L;
 
+	/**
+	 * 续期方式：完整重写登录用户信息
+	 */
+	private static final String REFRESH_MODE_FULL = "full";
+
+	/**
+	 * 在线会话索引：全部会话，分数为会话过期时间
+	 */
+	private static final String ONLINE_INDEX_ALL = CacheConstants.ONLINE_INDEX_KEY + "all";
+
+	/**
+	 * 失效通知：全部登录用户
+	 */
+	private static final String EVICT_ALL = "*";
+
+	// 令牌续期方式：touch 仅延长redis过期时间，full 重写完整登录用户信息
+	@Value("${token.refreshMode:touch}")
+	private String refreshMode;
+
+	// 本地缓存最大条目数
+	@Value("${token.localCache.maxSize:10000}")
+	private int localCacheMaxSize;
+
+	// 本地缓存最长存活时间（秒），用于兜底跨节点失效通知丢失的情况
+	@Value("${token.localCache.expireSeconds:60}")
+	private int localCacheExpireSeconds;
+
+	// 已验签令牌缓存最大条目数
+	@Value("${token.verifiedCache.maxSize:10000}")
+	private int verifiedCacheMaxSize;
+
 	private final RedisCache redisCache;
 
-	public TokenService(RedisCache redisCache) {
+	private final RedisMessageListenerContainer listenerContainer;
+
+	private final ISysUserService userService;
+
+	private final SysPermissionService permissionService;
+
+	/**
+	 * 一级缓存：token uuid -> 登录用户，二级缓存为redis
+	 */
+	private Cache<String, LoginUser> localCache;
+
+	/**
+	 * 已验签令牌摘要 -> token uuid，避免同一令牌重复进行HS512验签；只有验签通过的令牌才会进入缓存
+	 */
+	private Cache<String, String> verifiedTokenCache;
+
+	/**
+	 * token uuid -> 已验签令牌摘要，退出登录时按key失效已验签令牌
+	 */
+	private Cache<String, String> verifiedTokenIndex;
+
+	/**
+	 * 正在续期的令牌，保证同一令牌并发请求只续期一次
+	 */
+	private final Map<String, Boolean> refreshingTokens = new ConcurrentHashMap<>();
+
+	/**
+	 * 本节点标识，作为失效通知的前缀，本节点发出的通知不再重复处理
+	 */
+	private final String nodeId = IdUtils.fastSimpleUUID();
+
+	public TokenService(RedisCache redisCache, RedisMessageListenerContainer listenerContainer,
+			ISysUserService userService, SysPermissionService permissionService) {
 		this.redisCache = redisCache;
+		this.listenerContainer = listenerContainer;
+		this.userService = userService;
+		this.permissionService = permissionService;
+	}
+
+	/**
+	 * 初始化本地缓存并订阅跨节点失效通知
+	 */
+	@PostConstruct
+	public void init() {
+		localCache = Caffeine.newBuilder()
+				.maximumSize(localCacheMaxSize)
+				.expireAfter(new LoginUserExpiry(TimeUnit.SECONDS.toNanos(localCacheExpireSeconds)))
+				.recordStats()
+				.build();
+		LocalCacheRegistry.register("loginUser", localCache);
+		verifiedTokenIndex = Caffeine.newBuilder()
+				.maximumSize(verifiedCacheMaxSize)
+				.build();
+		verifiedTokenCache = Caffeine.newBuilder()
+				.maximumSize(verifiedCacheMaxSize)
+				.expireAfterAccess(expireTime, TimeUnit.MINUTES)
+				.<String, String>removalListener((digest, uuid, cause) -> {
+					if (cause != RemovalCause.REPLACED && uuid != null) {
+						verifiedTokenIndex.asMap().remove(uuid, digest);
+					}
+				})
+				.recordStats()
+				.build();
+		LocalCacheRegistry.register("verifiedToken", verifiedTokenCache);
+		listenerContainer.addMessageListener(
+				(message, pattern) -> onEvictMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+				new ChannelTopic(CacheConstants.LOGIN_TOKEN_EVICT_TOPIC));
+	}
+
+	/**
+	 * 处理其他节点的失效通知，消息格式为 节点标识:token（* 表示全部）
+	 */
+	private void onEvictMessage(String message) {
+		String source = StringUtils.substringBefore(message, ":");
+		if (nodeId.equals(source)) {
+			return;
+		}
+		String token = StringUtils.substringAfter(message, ":");
+		if (EVICT_ALL.equals(token)) {
+			localCache.invalidateAll();
+		} else {
+			localCache.invalidate(token);
+		}
 	}
 
 	/**
@@ -70,11 +206,9 @@ public class TokenService {
 		String token = getToken(request);
 		if (StringUtils.isNotEmpty(token)) {
 			try {
-				Claims claims = parseToken(token);
 				// 解析对应的权限以及用户信息
-				String uuid = (String) claims.get(Constants.LOGIN_USER_KEY);
-				String userKey = getTokenKey(uuid);
-				return redisCache.getCacheObject(userKey);
+				String uuid = getUuidFromToken(token);
+				return localCache.get(uuid, this::loadLoginUser);
 			} catch (Exception e) {
 				log.error("获取用户信息异常'{}'", e.getMessage());
 			}
@@ -97,8 +231,60 @@ public class TokenService {
 	public void delLoginUser(String token) {
 		if (StringUtils.isNotEmpty(token)) {
 			String userKey = getTokenKey(token);
+			LoginUser loginUser = localCache.getIfPresent(token);
+			if (loginUser == null) {
+				loginUser = redisCache.getCacheObject(userKey);
+			}
 			redisCache.deleteObject(userKey);
+			removeOnlineIndex(token, loginUser);
+			evictLocalCache(token);
+			String digest = verifiedTokenIndex.asMap().remove(token);
+			if (digest != null) {
+				verifiedTokenCache.invalidate(digest);
+			}
+		}
+	}
+
+	/**
+	 * 用户角色变更后刷新其在线会话中的用户信息与权限，保持原有效期；已删除用户的会话直接失效。
+	 * 会话中的角色变化后路由缓存签名随之变化，路由查询仍无需访问数据库
+	 *
+	 * @param event 用户角色变更事件
+	 */
+	@EventListener
+	public void onUserRolesChanged(UserRolesChangedEvent event) {
+		for (Long userId : event.userIds()) {
+			SysUser user = userService.selectUserById(userId);
+			if (user == null) {
+				continue;
+			}
+			String indexKey = getOnlineUserIndexKey(user.getUserName());
+			Set<String> tokens = redisCache.zReverseRange(indexKey, 0, -1);
+			for (String token : tokens) {
+				if (UserStatus.DELETED.getCode().equals(user.getDelFlag())) {
+					delLoginUser(token);
+				} else {
+					refreshLoginUserRoles(token, user);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 改写会话中的用户信息与权限，不改变会话有效期
+	 */
+	private void refreshLoginUserRoles(String token, SysUser user) {
+		String userKey = getTokenKey(token);
+		LoginUser loginUser = redisCache.getCacheObject(userKey);
+		long ttl = redisCache.getExpire(userKey);
+		if (loginUser == null || ttl <= 0) {
+			return;
 		}
+		loginUser.setUser(user);
+		loginUser.setDeptId(user.getDeptId());
+		loginUser.setPermissions(permissionService.getMenuPermission(user));
+		redisCache.setCacheObject(userKey, loginUser, (int) ttl, TimeUnit.SECONDS);
+		evictLocalCache(token);
 	}
 
 	/**
@@ -128,7 +314,36 @@ public class TokenService {
 		long userExpireTime = loginUser.getExpireTime();
 		long currentTime = System.currentTimeMillis();
 		if (userExpireTime - currentTime <= MILLIS_MINUTE_TEN) {
-			refreshToken(loginUser);
+			if (REFRESH_MODE_FULL.equals(refreshMode)) {
+				refreshToken(loginUser);
+			} else {
+				touchToken(loginUser);
+			}
+		}
+	}
+
+	/**
+	 * 仅延长令牌在redis中的有效期，不重写登录用户信息
+	 *
+	 * @param loginUser 登录信息
+	 */
+	public void touchToken(LoginUser loginUser) {
+		String token = loginUser.getToken();
+		if (refreshingTokens.putIfAbsent(token, Boolean.TRUE) != null) {
+			return;
+		}
+		try {
+			// 并发请求中其他线程可能已完成续期
+			if (loginUser.getExpireTime() - System.currentTimeMillis() > MILLIS_MINUTE_TEN) {
+				return;
+			}
+			if (redisCache.expire(getTokenKey(token), expireTime, TimeUnit.MINUTES)) {
+				loginUser.setExpireTime(System.currentTimeMillis() + expireTime * MILLIS_MINUTE);
+				localCache.put(token, loginUser);
+				addOnlineIndex(loginUser);
+			}
+		} finally {
+			refreshingTokens.remove(token);
 		}
 	}
 
@@ -143,6 +358,194 @@ public class TokenService {
 		// 根据uuid将loginUser缓存
 		String userKey = getTokenKey(loginUser.getToken());
 		redisCache.setCacheObject(userKey, loginUser, expireTime, TimeUnit.MINUTES);
+		evictLocalCache(loginUser.getToken());
+		localCache.put(loginUser.getToken(), loginUser);
+		addOnlineIndex(loginUser);
+	}
+
+	/**
+	 * 分页查询在线用户，按会话过期时间倒序（即最近活跃的在前）
+	 *
+	 * @param ipaddr   登录地址，为空时不过滤
+	 * @param userName 用户名，为空时不过滤
+	 * @param pageNum  页码，从1开始
+	 * @param pageSize 每页数量
+	 * @return 在线用户
+	 */
+	public List<LoginUser> selectOnlineUsers(String ipaddr, String userName, int pageNum, int pageSize) {
+		int offset = Math.max(pageNum - 1, 0) * pageSize;
+		String indexKey = pruneOnlineIndex(ipaddr, userName);
+		if (StringUtils.isNotEmpty(ipaddr) && StringUtils.isNotEmpty(userName)) {
+			List<LoginUser> users = selectOnlineUsersByInfo(indexKey, ipaddr);
+			int from = Math.min(offset, users.size());
+			return users.subList(from, Math.min(from + pageSize, users.size()));
+		}
+		Set<String> tokens = redisCache.zReverseRange(indexKey, offset, offset + pageSize - 1L);
+		return loadOnlineUsers(indexKey, tokens);
+	}
+
+	/**
+	 * 统计在线用户数量
+	 *
+	 * @param ipaddr   登录地址，为空时不过滤
+	 * @param userName 用户名，为空时不过滤
+	 * @return 在线用户数量
+	 */
+	public long countOnlineUsers(String ipaddr, String userName) {
+		String indexKey = pruneOnlineIndex(ipaddr, userName);
+		if (StringUtils.isNotEmpty(ipaddr) && StringUtils.isNotEmpty(userName)) {
+			return selectOnlineUsersByInfo(indexKey, ipaddr).size();
+		}
+		return redisCache.zCard(indexKey);
+	}
+
+	/**
+	 * 选择查询使用的索引，并清理其中已过期的会话
+	 */
+	private String pruneOnlineIndex(String ipaddr, String userName) {
+		String indexKey = ONLINE_INDEX_ALL;
+		if (StringUtils.isNotEmpty(userName)) {
+			indexKey = getOnlineUserIndexKey(userName);
+		} else if (StringUtils.isNotEmpty(ipaddr)) {
+			indexKey = getOnlineIpIndexKey(ipaddr);
+		}
+		redisCache.zRemoveRangeByScore(indexKey, 0, System.currentTimeMillis());
+		return indexKey;
+	}
+
+	/**
+	 * 同时按用户名和地址过滤，用户索引通常只有少量会话，在内存中按地址过滤
+	 */
+	private List<LoginUser> selectOnlineUsersByInfo(String userIndexKey, String ipaddr) {
+		Set<String> tokens = redisCache.zReverseRange(userIndexKey, 0, -1);
+		List<LoginUser> users = new ArrayList<>();
+		for (LoginUser user : loadOnlineUsers(userIndexKey, tokens)) {
+			if (StringUtils.equals(ipaddr, user.getIpaddr())) {
+				users.add(user);
+			}
+		}
+		return users;
+	}
+
+	/**
+	 * 批量读取会话，索引中已不存在的会话顺带移除
+	 */
+	private List<LoginUser> loadOnlineUsers(String indexKey, Collection<String> tokens) {
+		if (tokens == null || tokens.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<String> keys = new ArrayList<>(tokens.size());
+		for (String token : tokens) {
+			keys.add(getTokenKey(token));
+		}
+		List<LoginUser> users = redisCache.getMultiCacheObject(keys);
+		List<LoginUser> result = new ArrayList<>(users.size());
+		int i = 0;
+		for (String token : tokens) {
+			LoginUser user = users.get(i++);
+			if (user == null) {
+				redisCache.zRemove(indexKey, token);
+				redisCache.zRemove(ONLINE_INDEX_ALL, token);
+			} else {
+				result.add(user);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 维护在线会话索引，顺带清理索引中已过期的会话；所有命令在一次管道中执行
+	 */
+	private void addOnlineIndex(LoginUser loginUser) {
+		String token = loginUser.getToken();
+		double score = loginUser.getExpireTime();
+		long now = System.currentTimeMillis();
+		List<String> indexKeys = getOnlineIndexKeys(loginUser);
+		indexKeys.add(ONLINE_INDEX_ALL);
+		redisCache.executePipelined(operations -> {
+			ZSetOperations<String, Object> zSetOperations = operations.opsForZSet();
+			for (String indexKey : indexKeys) {
+				zSetOperations.add(indexKey, token, score);
+				// 未退出登录而过期的会话不会被删除，写入时清理，避免索引无限增长
+				zSetOperations.removeRangeByScore(indexKey, 0, now);
+				operations.expire(indexKey, expireTime, TimeUnit.MINUTES);
+			}
+		});
+	}
+
+	/**
+	 * 从在线会话索引中移除
+	 */
+	private void removeOnlineIndex(String token, LoginUser loginUser) {
+		redisCache.zRemove(ONLINE_INDEX_ALL, token);
+		if (loginUser != null) {
+			for (String indexKey : getOnlineIndexKeys(loginUser)) {
+				redisCache.zRemove(indexKey, token);
+			}
+		}
+	}
+
+	private List<String> getOnlineIndexKeys(LoginUser loginUser) {
+		List<String> indexKeys = new ArrayList<>(3);
+		if (loginUser.getUser() != null && StringUtils.isNotEmpty(loginUser.getUsername())) {
+			indexKeys.add(getOnlineUserIndexKey(loginUser.getUsername()));
+		}
+		if (StringUtils.isNotEmpty(loginUser.getIpaddr())) {
+			indexKeys.add(getOnlineIpIndexKey(loginUser.getIpaddr()));
+		}
+		return indexKeys;
+	}
+
+	private String getOnlineUserIndexKey(String userName) {
+		return CacheConstants.ONLINE_INDEX_KEY + "user:" + userName;
+	}
+
+	private String getOnlineIpIndexKey(String ipaddr) {
+		return CacheConstants.ONLINE_INDEX_KEY + "ip:" + ipaddr;
+	}
+
+	/**
+	 * 从redis加载登录用户
+	 *
+	 * @param uuid 用户唯一标识
+	 * @return 登录用户
+	 */
+	private LoginUser loadLoginUser(String uuid) {
+		String userKey = getTokenKey(uuid);
+		LoginUser loginUser = redisCache.getCacheObject(userKey);
+		if (loginUser != null && loginUser.getExpireTime() - System.currentTimeMillis() <= MILLIS_MINUTE_TEN) {
+			// touch续期不会改写缓存内容，此时以redis中的剩余有效期为准
+			long ttl = redisCache.getExpire(userKey);
+			if (ttl > 0) {
+				loginUser.setExpireTime(System.currentTimeMillis() + ttl * MILLIS_SECOND);
+			}
+		}
+		return loginUser;
+	}
+
+	/**
+	 * 失效本节点及其他节点的本地缓存
+	 *
+	 * @param token 用户唯一标识
+	 */
+	private void evictLocalCache(String token) {
+		if (EVICT_ALL.equals(token)) {
+			localCache.invalidateAll();
+		} else {
+			localCache.invalidate(token);
+		}
+		try {
+			redisCache.publish(CacheConstants.LOGIN_TOKEN_EVICT_TOPIC, nodeId + ":" + token);
+		} catch (Exception e) {
+			log.warn("发布登录用户缓存失效通知异常'{}'", e.getMessage());
+		}
+	}
+
+	/**
+	 * 清空本节点及其他节点的登录用户本地缓存（redis中的登录用户被直接删除后调用）
+	 */
+	public void clearLocalCache() {
+		evictLocalCache(EVICT_ALL);
 	}
 
 	/**
@@ -151,7 +554,7 @@ public class TokenService {
 	 * @param loginUser 登录信息
 	 */
 	public void setUserAgent(LoginUser loginUser) {
-		UserAgent userAgent = UserAgent.parseUserAgentString(ServletUtils.getRequest().getHeader("User-Agent"));
+		UserAgent userAgent = UserAgentUtils.parse(ServletUtils.getRequest().getHeader("User-Agent"));
 		String ip = IpUtils.getIpAddr();
 		loginUser.setIpaddr(ip);
 		loginUser.setLoginLocation(AddressUtils.getRealAddressByIP(ip));
@@ -184,6 +587,26 @@ public class TokenService {
 				.getBody();
 	}
 
+	/**
+	 * 从令牌中获取用户唯一标识，验签结果按令牌的SHA-256摘要缓存
+	 *
+	 * @param token 令牌
+	 * @return 用户唯一标识
+	 */
+	private String getUuidFromToken(String token) {
+		String digest = DigestUtils.sha256Hex(token);
+		String uuid = verifiedTokenCache.getIfPresent(digest);
+		if (uuid == null) {
+			Claims claims = parseToken(token);
+			uuid = (String) claims.get(Constants.LOGIN_USER_KEY);
+			if (uuid != null) {
+				verifiedTokenIndex.put(uuid, digest);
+				verifiedTokenCache.put(digest, uuid);
+			}
+		}
+		return uuid;
+	}
+
 	/**
 	 * 从令牌中获取用户名
 	 *
@@ -212,4 +635,35 @@ public class TokenService {
 	private String getTokenKey(String uuid) {
 		return CacheConstants.LOGIN_TOKEN_KEY + uuid;
 	}
+
+	/**
+	 * 本地缓存过期策略：不超过本地存活上限，也不超过登录用户自身的过期时间
+	 */
+	private static class LoginUserExpiry implements Expiry<String, LoginUser> {
+		private final long maxNanos;
+
+		LoginUserExpiry(long maxNanos) {
+			this.maxNanos = maxNanos;
+		}
+
+		@Override
+		public long expireAfterCreate(String key, LoginUser value, long currentTime) {
+			Long userExpireTime = value.getExpireTime();
+			if (userExpireTime == null) {
+				return maxNanos;
+			}
+			long remainNanos = TimeUnit.MILLISECONDS.toNanos(userExpireTime - System.currentTimeMillis());
+			return Math.max(0, Math.min(maxNanos, remainNanos));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, LoginUser value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, LoginUser value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
 }
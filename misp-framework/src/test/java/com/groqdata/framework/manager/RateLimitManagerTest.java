@@ -0,0 +1,348 @@
+package com.groqdata.framework.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.groqdata.common.annotation.RateLimiter;
+import com.groqdata.common.enums.LimitAlgorithm;
+
+/**
+ * 限流引擎：并发下不超发、窗口滚动、Redis故障降级与恢复
+ * <p>
+ * Redis脚本由内存中的计数器模拟，语义与 RedisConfig 中的 limitScript、limitLeaseScript 一致。
+ *
+ * @author MISP TEAM
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitManagerTest {
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private static final long RETRY_INTERVAL_MILLIS = 500;
+
+	private static final int THREADS = 16;
+
+	@Mock
+	private RedisTemplate<Object, Object> redisTemplate;
+
+	private final DefaultRedisScript<Long> limitScript = new DefaultRedisScript<>("limit", Long.class);
+
+	private final DefaultRedisScript<Long> limitLeaseScript = new DefaultRedisScript<>("lease", Long.class);
+
+	/**
+	 * 模拟的redis计数器：key -> 已用次数
+	 */
+	private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+	private final AtomicInteger redisCalls = new AtomicInteger();
+
+	private final AtomicBoolean redisDown = new AtomicBoolean();
+
+	private RateLimitManager manager;
+
+	@BeforeEach
+	void setUp() {
+		manager = new RateLimitManager();
+		ReflectionTestUtils.setField(manager, "localMaxKeys", 1000);
+		ReflectionTestUtils.setField(manager, "redisRetryInterval", RETRY_INTERVAL_MILLIS);
+		manager.setRedisTemplate(redisTemplate);
+		manager.setLimitScript(limitScript);
+		manager.setLimitLeaseScript(limitLeaseScript);
+		manager.init();
+	}
+
+	@Test
+	void tokenBucketRefillsAtFixedInterval() {
+		RateLimitManager.TokenBucket bucket = new RateLimitManager.TokenBucket(10, 1, 0);
+		assertThat(acquireAll(bucket, 0, 20)).isEqualTo(10);
+		// 每100毫秒补充一个令牌
+		assertThat(acquireAll(bucket, SECOND / 10 - 1, 5)).isZero();
+		assertThat(acquireAll(bucket, SECOND / 10, 5)).isEqualTo(1);
+		// 空闲一个周期后恢复为满桶，但不会超过桶容量
+		assertThat(acquireAll(bucket, 5 * SECOND, 20)).isEqualTo(10);
+	}
+
+	@Test
+	void slidingWindowRollsOverOneEntryAtATime() {
+		RateLimitManager.SlidingWindowLog window = new RateLimitManager.SlidingWindowLog(5, 1, 0);
+		long millis = TimeUnit.MILLISECONDS.toNanos(1);
+		for (int i = 0; i < 5; i++) {
+			assertThat(window.tryAcquire(i * millis)).isTrue();
+		}
+		assertThat(window.tryAcquire(SECOND - 1)).isFalse();
+		// 第一条记录刚好滑出窗口，只释放一个许可
+		assertThat(window.tryAcquire(SECOND)).isTrue();
+		assertThat(window.tryAcquire(SECOND)).isFalse();
+		assertThat(window.tryAcquire(SECOND + 4 * millis)).isTrue();
+		assertThat(acquireAll(window, 3 * SECOND, 10)).isEqualTo(5);
+	}
+
+	@Test
+	void tokenBucketDoesNotOverAdmitUnderContention() throws Exception {
+		RateLimitManager.TokenBucket bucket = new RateLimitManager.TokenBucket(50, 1, 0);
+		assertThat(concurrently(() -> bucket.tryAcquire(0))).isEqualTo(50);
+	}
+
+	@Test
+	void slidingWindowDoesNotOverAdmitUnderContention() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			RateLimitManager.SlidingWindowLog window = new RateLimitManager.SlidingWindowLog(50, 1, 0);
+			assertThat(concurrently(() -> window.tryAcquire(0))).isEqualTo(50);
+			// 下一个窗口整体滚动后同样只放行 count 次
+			assertThat(concurrently(() -> window.tryAcquire(SECOND))).isEqualTo(50);
+		}
+	}
+
+	@Test
+	void localAlgorithmsDoNotOverAdmitThroughManager() throws Exception {
+		RateLimiter tokenBucket = limiter("tokenBucket");
+		RateLimiter slidingWindow = limiter("slidingWindow");
+		assertThat(concurrently(() -> manager.tryAcquire("tb", tokenBucket))).isEqualTo(50);
+		assertThat(concurrently(() -> manager.tryAcquire("sw", slidingWindow))).isEqualTo(50);
+		assertThat(redisCalls).hasValue(0);
+	}
+
+	@Test
+	void redisScriptDoesNotOverAdmit() throws Exception {
+		stubLimitScript();
+		RateLimiter annotation = limiter("redis");
+		assertThat(concurrently(() -> manager.tryAcquire("redis", annotation))).isEqualTo(50);
+	}
+
+	@Test
+	void hybridLeasesInBatchesWithoutOverAdmitting() throws Exception {
+		stubLeaseScript();
+		RateLimiter annotation = limiter("hybrid");
+		assertThat(concurrently(() -> manager.tryAcquire("hybrid", annotation))).isEqualTo(50);
+		// 7 次租到7个、1 次租到剩余的1个、1 次得知已用完；用完后本窗口不再访问redis
+		assertThat(redisCalls).hasValue(9);
+	}
+
+	@Test
+	void hybridRenewsLeaseInNextWindow() throws Exception {
+		stubLeaseScript();
+		RateLimiter annotation = limiter("hybridPerSecond");
+		awaitNextSecond(200);
+		assertThat(acquireAll("hybridPerSecond", annotation, 10)).isEqualTo(5);
+		int calls = redisCalls.get();
+		assertThat(acquireAll("hybridPerSecond", annotation, 10)).isZero();
+		assertThat(redisCalls).hasValue(calls);
+
+		awaitNextSecond(0);
+		assertThat(acquireAll("hybridPerSecond", annotation, 10)).isEqualTo(5);
+		assertThat(counters).hasSize(2);
+	}
+
+	@Test
+	void redisOutageFallsBackToLocalBucketThenRecovers() throws Exception {
+		stubLimitScript();
+		RateLimiter annotation = limiter("redisSmall");
+		redisDown.set(true);
+
+		// 第一次访问发现redis不可用，降级为本地令牌桶（3次）
+		assertThat(acquireAll("outage", annotation, 10)).isEqualTo(3);
+		assertThat(redisCalls).hasValue(1);
+		// 重试间隔内并发请求不再访问redis
+		assertThat(concurrently(() -> manager.tryAcquire("outage", annotation))).isZero();
+		assertThat(redisCalls).hasValue(1);
+
+		redisDown.set(false);
+		Thread.sleep(RETRY_INTERVAL_MILLIS + 50);
+		// 到达重试时间后由一个请求探测，成功后恢复使用redis计数
+		assertThat(acquireAll("outage", annotation, 10)).isEqualTo(3);
+		assertThat(redisCalls).hasValue(11);
+		assertThat(counters.get("outage")).hasValue(4);
+	}
+
+	@Test
+	void hybridOutageFallsBackThenRecovers() throws Exception {
+		stubLeaseScript();
+		RateLimiter annotation = limiter("hybrid");
+		redisDown.set(true);
+
+		assertThat(concurrently(() -> manager.tryAcquire("hybridOutage", annotation))).isEqualTo(50);
+		assertThat(redisCalls).hasValue(1);
+
+		redisDown.set(false);
+		Thread.sleep(RETRY_INTERVAL_MILLIS + 50);
+		assertThat(manager.tryAcquire("hybridOutage", annotation)).isTrue();
+		assertThat(redisCalls).hasValue(2);
+		assertThat(counters).hasSize(1);
+	}
+
+	private void stubLimitScript() {
+		when(redisTemplate.execute(same(limitScript), anyList(), any(), any())).thenAnswer(this::limit);
+	}
+
+	private void stubLeaseScript() {
+		when(redisTemplate.execute(same(limitLeaseScript), anyList(), any(), any(), any())).thenAnswer(this::lease);
+	}
+
+	/**
+	 * 与 limitScript 一致：已超过 count 时直接返回当前值，否则自增
+	 */
+	private Long limit(InvocationOnMock invocation) {
+		String key = redisKey(invocation);
+		long count = ((Number) invocation.getArgument(2)).longValue();
+		AtomicLong counter = counters.computeIfAbsent(key, k -> new AtomicLong());
+		while (true) {
+			long current = counter.get();
+			if (current > count) {
+				return current;
+			}
+			if (counter.compareAndSet(current, current + 1)) {
+				return current + 1;
+			}
+		}
+	}
+
+	/**
+	 * 与 limitLeaseScript 一致：返回本次租到的许可数，0表示当前窗口已用完
+	 */
+	private Long lease(InvocationOnMock invocation) {
+		String key = redisKey(invocation);
+		long count = ((Number) invocation.getArgument(2)).longValue();
+		long batch = ((Number) invocation.getArgument(4)).longValue();
+		AtomicLong counter = counters.computeIfAbsent(key, k -> new AtomicLong());
+		while (true) {
+			long used = counter.get();
+			if (used >= count) {
+				return 0L;
+			}
+			long granted = Math.min(batch, count - used);
+			if (counter.compareAndSet(used, used + granted)) {
+				return granted;
+			}
+		}
+	}
+
+	private String redisKey(InvocationOnMock invocation) {
+		redisCalls.incrementAndGet();
+		if (redisDown.get()) {
+			throw new RedisConnectionFailureException("模拟redis不可用");
+		}
+		List<?> keys = invocation.getArgument(1);
+		return (String) keys.get(0);
+	}
+
+	private int acquireAll(String key, RateLimiter annotation, int attempts) {
+		int admitted = 0;
+		for (int i = 0; i < attempts; i++) {
+			if (manager.tryAcquire(key, annotation)) {
+				admitted++;
+			}
+		}
+		return admitted;
+	}
+
+	private static int acquireAll(RateLimitManager.Limiter limiter, long now, int attempts) {
+		int admitted = 0;
+		for (int i = 0; i < attempts; i++) {
+			if (limiter.tryAcquire(now)) {
+				admitted++;
+			}
+		}
+		return admitted;
+	}
+
+	/**
+	 * 多个线程同时开始、各尝试100次，返回放行总数
+	 */
+	private static int concurrently(Callable<Boolean> attempt) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					int admitted = 0;
+					for (int i = 0; i < 100; i++) {
+						if (attempt.call()) {
+							admitted++;
+						}
+					}
+					return admitted;
+				}));
+			}
+			start.countDown();
+			int total = 0;
+			for (Future<Integer> future : futures) {
+				total += future.get(30, TimeUnit.SECONDS);
+			}
+			return total;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 等待进入下一秒，并确保距离该秒结束至少还有 marginMillis 毫秒
+	 */
+	private static void awaitNextSecond(long marginMillis) throws InterruptedException {
+		long now = System.currentTimeMillis();
+		long remaining = 1000 - now % 1000;
+		if (marginMillis == 0 || remaining < marginMillis + 100) {
+			Thread.sleep(remaining + 10);
+		}
+	}
+
+	private static RateLimiter limiter(String methodName) {
+		try {
+			return RateLimitManagerTest.class.getDeclaredMethod(methodName).getAnnotation(RateLimiter.class);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@RateLimiter(count = 50, time = 3600, algorithm = LimitAlgorithm.TOKEN_BUCKET)
+	void tokenBucket() {
+	}
+
+	@RateLimiter(count = 50, time = 3600, algorithm = LimitAlgorithm.SLIDING_WINDOW)
+	void slidingWindow() {
+	}
+
+	@RateLimiter(count = 50, time = 3600)
+	void redis() {
+	}
+
+	@RateLimiter(count = 3, time = 3600)
+	void redisSmall() {
+	}
+
+	@RateLimiter(count = 50, time = 3600, algorithm = LimitAlgorithm.HYBRID, batch = 7)
+	void hybrid() {
+	}
+
+	@RateLimiter(count = 5, time = 1, algorithm = LimitAlgorithm.HYBRID, batch = 5)
+	void hybridPerSecond() {
+	}
+}
@@ -0,0 +1,177 @@
+package com.groqdata.framework.web.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.groqdata.common.constant.Constants;
+import com.groqdata.common.core.redis.RedisCache;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * 已验签令牌缓存与 uuid 反向索引的一致性
+ *
+ * @author MISP TEAM
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+	private static final String HEADER = "Authorization";
+
+	private static final String SECRET = "abcdefghijklmnopqrstuvwxyz";
+
+	private static final int VERIFIED_CACHE_SIZE = 64;
+
+	@Mock
+	private RedisCache redisCache;
+
+	@Mock
+	private RedisMessageListenerContainer listenerContainer;
+
+	@InjectMocks
+	private TokenService tokenService;
+
+	private Cache<String, String> verifiedTokenCache;
+
+	private Cache<String, String> verifiedTokenIndex;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(tokenService, "header", HEADER);
+		ReflectionTestUtils.setField(tokenService, "secret", SECRET);
+		ReflectionTestUtils.setField(tokenService, "expireTime", 30);
+		ReflectionTestUtils.setField(tokenService, "localCacheMaxSize", 1000);
+		ReflectionTestUtils.setField(tokenService, "localCacheExpireSeconds", 60);
+		ReflectionTestUtils.setField(tokenService, "verifiedCacheMaxSize", VERIFIED_CACHE_SIZE);
+		tokenService.init();
+		verifiedTokenCache = getCache("verifiedTokenCache");
+		verifiedTokenIndex = getCache("verifiedTokenIndex");
+	}
+
+	@Test
+	void verifiedTokenIsIndexedByUuid() {
+		String token = newToken("uuid-1");
+		tokenService.getLoginUser(request(token));
+
+		String digest = DigestUtils.sha256Hex(token);
+		assertThat(verifiedTokenCache.getIfPresent(digest)).isEqualTo("uuid-1");
+		assertThat(verifiedTokenIndex.getIfPresent("uuid-1")).isEqualTo(digest);
+	}
+
+	@Test
+	void forgedTokenIsNotCached() {
+		String token = Jwts.builder()
+				.setClaims(Map.of(Constants.LOGIN_USER_KEY, "uuid-1"))
+				.signWith(SignatureAlgorithm.HS512, "another-secret").compact();
+		tokenService.getLoginUser(request(token));
+
+		assertThat(verifiedTokenCache.estimatedSize()).isZero();
+		assertThat(verifiedTokenIndex.estimatedSize()).isZero();
+	}
+
+	@Test
+	void delLoginUserInvalidatesVerifiedToken() {
+		String token = newToken("uuid-1");
+		tokenService.getLoginUser(request(token));
+
+		tokenService.delLoginUser("uuid-1");
+
+		assertThat(verifiedTokenCache.getIfPresent(DigestUtils.sha256Hex(token))).isNull();
+		assertThat(verifiedTokenIndex.getIfPresent("uuid-1")).isNull();
+	}
+
+	@Test
+	void replacedEntryKeepsIndex() {
+		String token = newToken("uuid-1");
+		tokenService.getLoginUser(request(token));
+		String digest = DigestUtils.sha256Hex(token);
+
+		// 并发请求同一令牌时会重复写入同一摘要，REPLACED 不能删除反向索引
+		verifiedTokenCache.put(digest, "uuid-1");
+		awaitRemovalListeners();
+
+		assertThat(verifiedTokenIndex.getIfPresent("uuid-1")).isEqualTo(digest);
+	}
+
+	@Test
+	void evictionKeepsIndexConsistent() throws Exception {
+		int threads = 8;
+		int tokensPerThread = 500;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int offset = t * tokensPerThread;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < tokensPerThread; i++) {
+						String token = newToken("uuid-" + (offset + i));
+						// 每个令牌访问两次，覆盖命中路径
+						tokenService.getLoginUser(request(token));
+						tokenService.getLoginUser(request(token));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		awaitRemovalListeners();
+
+		assertThat(verifiedTokenCache.estimatedSize()).isLessThanOrEqualTo(VERIFIED_CACHE_SIZE);
+		assertThat(verifiedTokenIndex.estimatedSize()).isLessThanOrEqualTo(VERIFIED_CACHE_SIZE);
+		// 反向索引中的每一项都必须指向仍然有效的已验签令牌，被淘汰的令牌不能在索引中残留
+		verifiedTokenIndex.asMap().forEach((uuid, digest) -> assertThat(verifiedTokenCache.getIfPresent(digest))
+				.as("uuid %s", uuid)
+				.isEqualTo(uuid));
+	}
+
+	/**
+	 * Caffeine 默认在公共线程池中异步执行淘汰与移除回调
+	 */
+	private void awaitRemovalListeners() {
+		for (int i = 0; i < 3; i++) {
+			verifiedTokenCache.cleanUp();
+			verifiedTokenIndex.cleanUp();
+			ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Cache<String, String> getCache(String name) {
+		return (Cache<String, String>) ReflectionTestUtils.getField(tokenService, name);
+	}
+
+	private static String newToken(String uuid) {
+		return Jwts.builder()
+				.setClaims(Map.of(Constants.LOGIN_USER_KEY, uuid))
+				.signWith(SignatureAlgorithm.HS512, SECRET).compact();
+	}
+
+	private static MockHttpServletRequest request(String token) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(HEADER, Constants.TOKEN_PREFIX + token);
+		return request;
+	}
+}
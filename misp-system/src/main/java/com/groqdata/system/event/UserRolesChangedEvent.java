@@ -0,0 +1,33 @@
+package com.groqdata.system.event;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.groqdata.common.utils.spring.SpringUtils;
+
+/**
+ * 用户角色变更事件（用户角色分配、角色状态或角色信息变更、用户删除）
+ * <p>
+ * 在线会话中保存的是登录时的用户信息与角色，收到事件后需要刷新这些用户的会话，
+ * 路由缓存签名与权限随之更新，无需重新登录。
+ *
+ * @param userIds 受影响的用户ID
+ * @author MISP TEAM
+ */
+public record UserRolesChangedEvent(List<Long> userIds) {
+
+	/**
+	 * 发布用户角色变更事件，存在事务时在提交后发布
+	 *
+	 * @param userIds 受影响的用户ID
+	 */
+	public static void publish(List<Long> userIds) {
+		if (userIds == null) {
+			return;
+		}
+		List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+		if (!ids.isEmpty()) {
+			SpringUtils.afterCommit(() -> SpringUtils.publishEvent(new UserRolesChangedEvent(ids)));
+		}
+	}
+}
@@ -52,6 +52,14 @@ public interface SysDeptMapper {
 	 */
 	public int selectNormalChildrenDeptById(Long deptId);
 
+	/**
+	 * 根据ID查询本部门及所有下级部门的ID
+	 * 
+	 * @param deptId 部门ID
+	 * @return 部门ID列表
+	 */
+	public List<Long> selectDeptAndChildIds(Long deptId);
+
 	/**
 	 * 是否存在子节点
 	 * 
@@ -115,4 +123,30 @@ public interface SysDeptMapper {
 	 * @return 结果
 	 */
 	public int deleteDeptById(Long deptId);
+
+	/**
+	 * 新增部门的闭包关系（自身及父部门的所有祖先）
+	 * 
+	 * @param deptId 部门ID
+	 * @param parentId 父部门ID
+	 * @return 结果
+	 */
+	public int insertDeptClosure(@Param("deptId") Long deptId, @Param("parentId") Long parentId);
+
+	/**
+	 * 删除部门子树与子树外祖先之间的闭包关系（移动部门前调用）
+	 * 
+	 * @param deptId 被移动的部门ID
+	 * @return 结果
+	 */
+	public int deleteDeptClosureAncestors(Long deptId);
+
+	/**
+	 * 建立部门子树与新父部门及其祖先之间的闭包关系（移动部门后调用）
+	 * 
+	 * @param deptId 被移动的部门ID
+	 * @param parentId 新的父部门ID
+	 * @return 结果
+	 */
+	public int insertDeptClosureAncestors(@Param("deptId") Long deptId, @Param("parentId") Long parentId);
 }
@@ -1,6 +1,7 @@
 package com.groqdata.system.mapper;
 
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
 import com.groqdata.system.domain.SysLogininfor;
 
 /**
@@ -16,6 +17,13 @@ public interface SysLogininforMapper {
 	 */
 	public void insertLogininfor(SysLogininfor logininfor);
 
+	/**
+	 * 批量新增系统登录日志
+	 * 
+	 * @param logininfors 访问日志集合
+	 */
+	public void insertLogininforBatch(List<SysLogininfor> logininfors);
+
 	/**
 	 * 查询系统登录日志集合
 	 * 
@@ -24,6 +32,14 @@ public interface SysLogininforMapper {
 	 */
 	public List<SysLogininfor> selectLogininforList(SysLogininfor logininfor);
 
+	/**
+	 * 逐行查询系统登录日志，结果交给 handler 处理而不汇总为列表，用于流式导出
+	 * 
+	 * @param logininfor 访问日志对象
+	 * @param handler 结果处理器
+	 */
+	public void selectLogininforList(SysLogininfor logininfor, ResultHandler<SysLogininfor> handler);
+
 	/**
 	 * 批量删除系统登录日志
 	 * 
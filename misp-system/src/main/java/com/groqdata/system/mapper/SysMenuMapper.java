@@ -64,6 +64,14 @@ public interface SysMenuMapper {
 	 */
 	public List<SysMenu> selectMenuTreeByUserId(Long userId);
 
+	/**
+	 * 根据角色ID集合查询菜单（仅包含正常状态的角色）
+	 *
+	 * @param roleIds 角色ID集合
+	 * @return 菜单列表
+	 */
+	public List<SysMenu> selectMenuTreeByRoleIds(@Param("roleIds") List<Long> roleIds);
+
 	/**
 	 * 根据角色ID查询菜单树信息
 	 * 
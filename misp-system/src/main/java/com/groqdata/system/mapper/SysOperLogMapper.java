@@ -1,6 +1,7 @@
 package com.groqdata.system.mapper;
 
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
 import com.groqdata.system.domain.SysOperLog;
 
 /**
@@ -16,6 +17,13 @@ public interface SysOperLogMapper {
 	 */
 	public void insertOperlog(SysOperLog operLog);
 
+	/**
+	 * 批量新增操作日志
+	 * 
+	 * @param operLogs 操作日志集合
+	 */
+	public void insertOperlogBatch(List<SysOperLog> operLogs);
+
 	/**
 	 * 查询系统操作日志集合
 	 * 
@@ -24,6 +32,14 @@ public interface SysOperLogMapper {
 	 */
 	public List<SysOperLog> selectOperLogList(SysOperLog operLog);
 
+	/**
+	 * 逐行查询系统操作日志，结果交给 handler 处理而不汇总为列表，用于流式导出
+	 * 
+	 * @param operLog 操作日志对象
+	 * @param handler 结果处理器
+	 */
+	public void selectOperLogList(SysOperLog operLog, ResultHandler<SysOperLog> handler);
+
 	/**
 	 * 批量删除系统操作日志
 	 * 
@@ -1,6 +1,7 @@
 package com.groqdata.system.mapper;
 
 import java.util.List;
+import org.apache.ibatis.annotations.Param;
 import com.groqdata.system.domain.SysRoleDept;
 
 /**
@@ -40,4 +41,12 @@ public interface SysRoleDeptMapper {
 	 * @return 结果
 	 */
 	public int batchRoleDept(List<SysRoleDept> roleDeptList);
+
+	/**
+	 * 查询角色关联的部门ID
+	 * 
+	 * @param roleIds 角色ID集合
+	 * @return 部门ID列表
+	 */
+	public List<Long> selectDeptIdsByRoleIds(@Param("roleIds") List<Long> roleIds);
 }
@@ -1,6 +1,7 @@
 package com.groqdata.system.mapper;
 
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.annotations.Param;
 import com.groqdata.common.core.domain.entity.SysUser;
 
@@ -18,6 +19,14 @@ public interface SysUserMapper {
 	 */
 	public List<SysUser> selectUserList(SysUser sysUser);
 
+	/**
+	 * 逐行查询用户，结果交给 handler 处理而不汇总为列表，用于流式导出
+	 * 
+	 * @param sysUser 用户信息
+	 * @param handler 结果处理器
+	 */
+	public void selectUserList(SysUser sysUser, ResultHandler<SysUser> handler);
+
 	/**
 	 * 根据条件分页查询已配用户角色列表
 	 * 
@@ -34,6 +34,14 @@ public interface SysUserRoleMapper {
 	 */
 	public int countUserRoleByRoleId(Long roleId);
 
+	/**
+	 * 通过角色ID查询已分配该角色的用户ID
+	 * 
+	 * @param roleId 角色ID
+	 * @return 用户ID列表
+	 */
+	public List<Long> selectUserIdsByRoleId(Long roleId);
+
 	/**
 	 * 批量新增用户角色信息
 	 * 
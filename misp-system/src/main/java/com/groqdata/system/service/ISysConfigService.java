@@ -73,6 +73,13 @@ public interface ISysConfigService {
 	 */
 	public void clearConfigCache();
 
+	/**
+	 * 删除指定参数缓存
+	 * 
+	 * @param configKey 参数键
+	 */
+	public void removeConfigCache(String configKey);
+
 	/**
 	 * 重置参数缓存数据
 	 */
@@ -58,6 +58,14 @@ public interface ISysDeptService {
 	 */
 	public SysDept selectDeptById(Long deptId);
 
+	/**
+	 * 根据部门ID查询本部门及所有下级部门的ID
+	 * 
+	 * @param deptId 部门ID
+	 * @return 部门ID列表
+	 */
+	public List<Long> selectDeptAndChildIds(Long deptId);
+
 	/**
 	 * 根据ID查询所有子部门（正常状态）
 	 * 
@@ -1,6 +1,7 @@
 package com.groqdata.system.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import com.groqdata.system.domain.SysLogininfor;
 
 /**
@@ -16,6 +17,13 @@ public interface ISysLogininforService {
 	 */
 	public void insertLogininfor(SysLogininfor logininfor);
 
+	/**
+	 * 批量新增系统登录日志
+	 * 
+	 * @param logininfors 访问日志集合
+	 */
+	public void insertLogininforBatch(List<SysLogininfor> logininfors);
+
 	/**
 	 * 查询系统登录日志集合
 	 * 
@@ -24,6 +32,14 @@ public interface ISysLogininforService {
 	 */
 	public List<SysLogininfor> selectLogininforList(SysLogininfor logininfor);
 
+	/**
+	 * 逐行查询系统登录日志，每读取一行即交给 consumer 处理，用于大数据量导出
+	 * 
+	 * @param logininfor 访问日志对象
+	 * @param consumer 行处理回调
+	 */
+	public void selectLogininforList(SysLogininfor logininfor, Consumer<SysLogininfor> consumer);
+
 	/**
 	 * 批量删除系统登录日志
 	 * 
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Set;
 import com.groqdata.common.core.domain.TreeSelect;
 import com.groqdata.common.core.domain.entity.SysMenu;
+import com.groqdata.common.core.domain.entity.SysUser;
 import com.groqdata.system.domain.vo.RouterVo;
 
 /**
@@ -69,6 +70,26 @@ public interface ISysMenuService {
 	 */
 	public List<RouterVo> buildMenus(List<SysMenu> menus);
 
+	/**
+	 * 查询用户的前端路由，角色集合相同的用户共享同一份缓存
+	 *
+	 * @param user 用户信息（含角色）
+	 * @return 路由列表
+	 */
+	public List<RouterVo> selectRoutersByUser(SysUser user);
+
+	/**
+	 * 清空全部菜单缓存（本节点及其他节点），菜单变更后调用
+	 */
+	public void clearMenuCache();
+
+	/**
+	 * 清空指定角色的权限与菜单缓存（本节点及其他节点），角色或角色菜单变更后调用
+	 *
+	 * @param roleIds 角色ID
+	 */
+	public void clearRoleMenuCache(Long... roleIds);
+
 	/**
 	 * 构建前端所需要树结构
 	 * 
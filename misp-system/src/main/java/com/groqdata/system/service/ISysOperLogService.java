@@ -1,6 +1,7 @@
 package com.groqdata.system.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import com.groqdata.system.domain.SysOperLog;
 
 /**
@@ -16,6 +17,13 @@ public interface ISysOperLogService {
 	 */
 	public void insertOperlog(SysOperLog operLog);
 
+	/**
+	 * 批量新增操作日志
+	 * 
+	 * @param operLogs 操作日志集合
+	 */
+	public void insertOperlogBatch(List<SysOperLog> operLogs);
+
 	/**
 	 * 查询系统操作日志集合
 	 * 
@@ -24,6 +32,14 @@ public interface ISysOperLogService {
 	 */
 	public List<SysOperLog> selectOperLogList(SysOperLog operLog);
 
+	/**
+	 * 逐行查询系统操作日志，每读取一行即交给 consumer 处理，用于大数据量导出
+	 * 
+	 * @param operLog 操作日志对象
+	 * @param consumer 行处理回调
+	 */
+	public void selectOperLogList(SysOperLog operLog, Consumer<SysOperLog> consumer);
+
 	/**
 	 * 批量删除系统操作日志
 	 * 
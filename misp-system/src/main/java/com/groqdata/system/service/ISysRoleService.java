@@ -169,4 +169,24 @@ public interface ISysRoleService {
 	 * @return 结果
 	 */
 	public int insertAuthUsers(Long roleId, Long[] userIds);
+
+	/**
+	 * 查询角色自定义数据权限关联的部门ID
+	 * 
+	 * @param roleIds 角色ID集合
+	 * @return 部门ID列表
+	 */
+	public List<Long> selectDeptIdsByRoleIds(List<Long> roleIds);
+
+	/**
+	 * 获取当前的数据权限版本号，版本号变化表示已缓存的用户数据权限需要重新计算
+	 * 
+	 * @return 版本号
+	 */
+	public long getDataScopeVersion();
+
+	/**
+	 * 使所有节点上缓存的用户数据权限失效，角色部门或部门层级变更后调用
+	 */
+	public void clearDataScopeCache();
 }
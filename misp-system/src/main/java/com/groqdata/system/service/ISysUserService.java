@@ -1,6 +1,7 @@
 package com.groqdata.system.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import com.groqdata.common.core.domain.entity.SysUser;
 
 /**
@@ -17,6 +18,14 @@ public interface ISysUserService {
 	 */
 	public List<SysUser> selectUserList(SysUser user);
 
+	/**
+	 * 逐行查询用户，每读取一行即交给 consumer 处理，用于大数据量导出
+	 * 
+	 * @param user 用户信息
+	 * @param consumer 行处理回调
+	 */
+	public void selectUserList(SysUser user, Consumer<SysUser> consumer);
+
 	/**
 	 * 根据条件分页查询已分配用户角色列表
 	 * 
@@ -202,4 +211,14 @@ public interface ISysUserService {
 	 * @return 结果
 	 */
 	public String importUser(List<SysUser> userList, Boolean isUpdateSupport, String operName);
+
+	/**
+	 * 逐行导入用户数据，用于大文件导入，内存占用与行数无关
+	 * 
+	 * @param source 数据源，调用时传入逐行处理的回调
+	 * @param isUpdateSupport 是否更新支持，如果已存在，则进行更新数据
+	 * @param operName 操作用户
+	 * @return 结果
+	 */
+	public String importUser(Consumer<Consumer<SysUser>> source, Boolean isUpdateSupport, String operName);
 }
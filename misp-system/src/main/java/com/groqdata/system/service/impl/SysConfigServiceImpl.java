@@ -1,17 +1,26 @@
 package com.groqdata.system.service.impl;
 
-import java.util.Collection;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import com.groqdata.common.annotation.DataSource;
 import com.groqdata.common.constant.CacheConstants;
 import com.groqdata.common.constant.UserConstants;
+import com.groqdata.common.core.cache.LocalCacheRegistry;
 import com.groqdata.common.core.redis.RedisCache;
 import com.groqdata.common.core.text.Convert;
 import com.groqdata.common.enums.DataSourceType;
@@ -43,12 +52,48 @@ public class SysConfigServiceImpl implements ISysConfigService {
 		this.redisCache = redisCache;
 	}
 
+	private RedisMessageListenerContainer listenerContainer;
+
+	@Autowired
+	public void setListenerContainer(RedisMessageListenerContainer listenerContainer) {
+		this.listenerContainer = listenerContainer;
+	}
+
+	/**
+	 * 全部参数失效的通知消息
+	 */
+	private static final String EVICT_ALL = "*";
+
+	/**
+	 * 是否缓存不存在的参数键，避免未知键每次都查询数据库
+	 */
+	@Value("${sys.config.negativeCache:true}")
+	private boolean negativeCacheEnabled;
+
 	/**
-	 * 项目启动时，初始化参数到缓存
+	 * 本地参数缓存，兜底过期时间用于防止失效通知丢失
+	 */
+	private final Cache<String, String> localCache = Caffeine.newBuilder()
+			.maximumSize(5000)
+			.expireAfterWrite(10, TimeUnit.MINUTES)
+			.recordStats()
+			.build();
+
+	/**
+	 * 本地缓存版本号，每次失效时递增，用于丢弃失效前开始加载的值
+	 */
+	private final AtomicLong localCacheVersion = new AtomicLong();
+
+	/**
+	 * 项目启动时，初始化参数到缓存，并订阅其他节点的参数失效通知
 	 */
 	@PostConstruct
 	public void init() {
+		LocalCacheRegistry.register("config", localCache);
 		loadingConfigCache();
+		listenerContainer.addMessageListener((message, pattern) -> evictLocalCache(
+				new String(message.getBody(), StandardCharsets.UTF_8)),
+				new ChannelTopic(CacheConstants.SYS_CONFIG_EVICT_TOPIC));
 	}
 
 	/**
@@ -73,6 +118,29 @@ public class SysConfigServiceImpl implements ISysConfigService {
 	 */
 	@Override
 	public String selectConfigByKey(String configKey) {
+		String localValue = localCache.getIfPresent(configKey);
+		if (localValue != null) {
+			return localValue;
+		}
+		long version = localCacheVersion.get();
+		String configValue = loadConfigValue(configKey);
+		if (configValue != null || negativeCacheEnabled) {
+			localCache.put(configKey, StringUtils.defaultString(configValue));
+			// 加载期间发生过失效，丢弃可能过期的值
+			if (version != localCacheVersion.get()) {
+				localCache.invalidate(configKey);
+			}
+		}
+		return StringUtils.defaultString(configValue);
+	}
+
+	/**
+	 * 从redis或数据库加载参数值
+	 * 
+	 * @param configKey 参数key
+	 * @return 参数键值，不存在时返回null
+	 */
+	private String loadConfigValue(String configKey) {
 		String configValue = Convert.toStr(redisCache.getCacheObject(getCacheKey(configKey)));
 		if (StringUtils.isNotEmpty(configValue)) {
 			return configValue;
@@ -84,7 +152,7 @@ public class SysConfigServiceImpl implements ISysConfigService {
 			redisCache.setCacheObject(getCacheKey(configKey), retConfig.getConfigValue());
 			return retConfig.getConfigValue();
 		}
-		return StringUtils.EMPTY;
+		return null;
 	}
 
 	/**
@@ -123,6 +191,7 @@ public class SysConfigServiceImpl implements ISysConfigService {
 		int row = configMapper.insertConfig(config);
 		if (row > 0) {
 			redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
+			publishEvict(config.getConfigKey());
 		}
 		return row;
 	}
@@ -138,11 +207,13 @@ public class SysConfigServiceImpl implements ISysConfigService {
 		SysConfig temp = configMapper.selectConfigById(config.getConfigId());
 		if (!StringUtils.equals(temp.getConfigKey(), config.getConfigKey())) {
 			redisCache.deleteObject(getCacheKey(temp.getConfigKey()));
+			publishEvict(temp.getConfigKey());
 		}
 
 		int row = configMapper.updateConfig(config);
 		if (row > 0) {
 			redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
+			publishEvict(config.getConfigKey());
 		}
 		return row;
 	}
@@ -161,6 +232,7 @@ public class SysConfigServiceImpl implements ISysConfigService {
 			}
 			configMapper.deleteConfigById(configId);
 			redisCache.deleteObject(getCacheKey(config.getConfigKey()));
+			publishEvict(config.getConfigKey());
 		}
 	}
 
@@ -172,6 +244,7 @@ public class SysConfigServiceImpl implements ISysConfigService {
 		List<SysConfig> configsList = configMapper.selectConfigList(new SysConfig());
 		for (SysConfig config : configsList) {
 			redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
+			localCache.put(config.getConfigKey(), StringUtils.defaultString(config.getConfigValue()));
 		}
 	}
 
@@ -180,8 +253,19 @@ public class SysConfigServiceImpl implements ISysConfigService {
 	 */
 	@Override
 	public void clearConfigCache() {
-		Collection<String> keys = redisCache.keys(CacheConstants.SYS_CONFIG_KEY + "*");
-		redisCache.deleteObject(keys);
+		redisCache.deleteByPattern(CacheConstants.SYS_CONFIG_KEY + "*");
+		publishEvict(EVICT_ALL);
+	}
+
+	/**
+	 * 删除指定参数缓存
+	 * 
+	 * @param configKey 参数键
+	 */
+	@Override
+	public void removeConfigCache(String configKey) {
+		redisCache.deleteObject(getCacheKey(configKey));
+		publishEvict(configKey);
 	}
 
 	/**
@@ -209,6 +293,30 @@ public class SysConfigServiceImpl implements ISysConfigService {
 		return UserConstants.UNIQUE;
 	}
 
+	/**
+	 * 失效本地参数缓存
+	 * 
+	 * @param configKey 参数键，* 表示全部
+	 */
+	private void evictLocalCache(String configKey) {
+		localCacheVersion.incrementAndGet();
+		if (EVICT_ALL.equals(configKey)) {
+			localCache.invalidateAll();
+		} else {
+			localCache.invalidate(configKey);
+		}
+	}
+
+	/**
+	 * 失效本节点参数缓存并通知其他节点
+	 * 
+	 * @param configKey 参数键，* 表示全部
+	 */
+	private void publishEvict(String configKey) {
+		evictLocalCache(configKey);
+		redisCache.publish(CacheConstants.SYS_CONFIG_EVICT_TOPIC, configKey);
+	}
+
 	/**
 	 * 设置cache key
 	 * 
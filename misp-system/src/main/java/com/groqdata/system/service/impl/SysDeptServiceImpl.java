@@ -1,11 +1,11 @@
 package com.groqdata.system.service.impl;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.groqdata.common.annotation.DataScope;
 import com.groqdata.common.constant.UserConstants;
@@ -16,11 +16,13 @@ import com.groqdata.common.core.domain.entity.SysUser;
 import com.groqdata.common.core.text.Convert;
 import com.groqdata.common.exception.ServiceException;
 import com.groqdata.common.utils.SecurityUtils;
+import com.groqdata.common.utils.TreeUtils;
 import com.groqdata.common.utils.basic.StringHelper;
 import com.groqdata.common.utils.spring.SpringUtils;
 import com.groqdata.system.mapper.SysDeptMapper;
 import com.groqdata.system.mapper.SysRoleMapper;
 import com.groqdata.system.service.ISysDeptService;
+import com.groqdata.system.service.ISysRoleService;
 
 /**
  * 部门管理 服务实现
@@ -44,6 +46,13 @@ public class SysDeptServiceImpl implements ISysDeptService {
 		this.roleMapper = roleMapper;
 	}
 
+	private ISysRoleService roleService;
+
+	@Autowired
+	public void setRoleService(ISysRoleService roleService) {
+		this.roleService = roleService;
+	}
+
 	/**
 	 * 查询部门管理数据
 	 * 
@@ -76,19 +85,7 @@ public class SysDeptServiceImpl implements ISysDeptService {
 	 */
 	@Override
 	public List<SysDept> buildDeptTree(List<SysDept> depts) {
-		List<SysDept> returnList = new ArrayList<>();
-		List<Long> tempList = depts.stream().map(SysDept::getDeptId).toList();
-		for (SysDept dept : depts) {
-			// 如果是顶级节点, 遍历该父节点的所有子节点
-			if (!tempList.contains(dept.getParentId())) {
-				recursionFn(depts, dept);
-				returnList.add(dept);
-			}
-		}
-		if (returnList.isEmpty()) {
-			returnList = depts;
-		}
-		return returnList;
+		return TreeUtils.buildTree(depts, SysDept::getDeptId, SysDept::getParentId, SysDept::setChildren);
 	}
 
 	/**
@@ -126,6 +123,17 @@ public class SysDeptServiceImpl implements ISysDeptService {
 		return deptMapper.selectDeptById(deptId);
 	}
 
+	/**
+	 * 根据部门ID查询本部门及所有下级部门的ID
+	 * 
+	 * @param deptId 部门ID
+	 * @return 部门ID列表
+	 */
+	@Override
+	public List<Long> selectDeptAndChildIds(Long deptId) {
+		return deptMapper.selectDeptAndChildIds(deptId);
+	}
+
 	/**
 	 * 根据ID查询所有子部门（正常状态）
 	 * 
@@ -201,6 +209,7 @@ public class SysDeptServiceImpl implements ISysDeptService {
 	 * @return 结果
 	 */
 	@Override
+	@Transactional
 	public int insertDept(SysDept dept) {
 		SysDept info = deptMapper.selectDeptById(dept.getParentId());
 		// 如果父节点不为正常状态,则不允许新增子节点
@@ -208,7 +217,11 @@ public class SysDeptServiceImpl implements ISysDeptService {
 			throw new ServiceException("部门停用，不允许新增");
 		}
 		dept.setAncestors(info.getAncestors() + "," + dept.getParentId());
-		return deptMapper.insertDept(dept);
+		int result = deptMapper.insertDept(dept);
+		deptMapper.insertDeptClosure(dept.getDeptId(), dept.getParentId());
+		// 新部门会进入上级部门的“本部门及以下”数据范围
+		roleService.clearDataScopeCache();
+		return result;
 	}
 
 	/**
@@ -218,6 +231,7 @@ public class SysDeptServiceImpl implements ISysDeptService {
 	 * @return 结果
 	 */
 	@Override
+	@Transactional
 	public int updateDept(SysDept dept) {
 		SysDept newParentDept = deptMapper.selectDeptById(dept.getParentId());
 		SysDept oldDept = deptMapper.selectDeptById(dept.getDeptId());
@@ -226,6 +240,12 @@ public class SysDeptServiceImpl implements ISysDeptService {
 			String oldAncestors = oldDept.getAncestors();
 			dept.setAncestors(newAncestors);
 			updateDeptChildren(dept.getDeptId(), newAncestors, oldAncestors);
+			if (!newParentDept.getDeptId().equals(oldDept.getParentId())) {
+				// 部门移动，重建子树与新祖先之间的闭包关系
+				deptMapper.deleteDeptClosureAncestors(dept.getDeptId());
+				deptMapper.insertDeptClosureAncestors(dept.getDeptId(), newParentDept.getDeptId());
+				roleService.clearDataScopeCache();
+			}
 		}
 		int result = deptMapper.updateDept(dept);
 		if (UserConstants.DEPT_NORMAL.equals(dept.getStatus()) && StringUtils.isNotEmpty(dept.getAncestors())
@@ -274,38 +294,4 @@ public class SysDeptServiceImpl implements ISysDeptService {
 	public int deleteDeptById(Long deptId) {
 		return deptMapper.deleteDeptById(deptId);
 	}
-
-	/**
-	 * 递归列表
-	 */
-	private void recursionFn(List<SysDept> list, SysDept t) {
-		// 得到子节点列表
-		List<SysDept> childList = getChildList(list, t);
-		t.setChildren(childList);
-		for (SysDept tChild : childList) {
-			if (hasChild(list, tChild)) {
-				recursionFn(list, tChild);
-			}
-		}
-	}
-
-	/**
-	 * 得到子节点列表
-	 */
-	private List<SysDept> getChildList(List<SysDept> list, SysDept t) {
-		List<SysDept> tlist = new ArrayList<>();
-		for (SysDept n : list) {
-			if (StringHelper.isNotNull(n.getParentId()) && n.getParentId().longValue() == t.getDeptId().longValue()) {
-				tlist.add(n);
-			}
-		}
-		return tlist;
-	}
-
-	/**
-	 * 判断是否有子节点
-	 */
-	private boolean hasChild(List<SysDept> list, SysDept t) {
-		return !getChildList(list, t).isEmpty();
-	}
 }
@@ -1,5 +1,6 @@
 package com.groqdata.system.service.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -8,9 +9,12 @@ import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.groqdata.common.constant.CacheConstants;
 import com.groqdata.common.constant.UserConstants;
 import com.groqdata.common.core.domain.entity.SysDictData;
 import com.groqdata.common.core.domain.entity.SysDictType;
@@ -44,12 +48,22 @@ public class SysDictTypeServiceImpl implements ISysDictTypeService {
 		this.dictDataMapper = dictDataMapper;
 	}
 
+	private RedisMessageListenerContainer listenerContainer;
+
+	@Autowired
+	public void setListenerContainer(RedisMessageListenerContainer listenerContainer) {
+		this.listenerContainer = listenerContainer;
+	}
+
 	/**
-	 * 项目启动时，初始化字典到缓存
+	 * 项目启动时，初始化字典到缓存，并订阅其他节点的字典失效通知
 	 */
 	@PostConstruct
 	public void init() {
 		loadingDictCache();
+		listenerContainer.addMessageListener((message, pattern) -> DictUtils
+				.evictLocalDictCache(new String(message.getBody(), StandardCharsets.UTF_8)),
+				new ChannelTopic(CacheConstants.SYS_DICT_EVICT_TOPIC));
 	}
 
 	/**
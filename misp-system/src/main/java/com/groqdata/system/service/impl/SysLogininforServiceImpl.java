@@ -1,8 +1,10 @@
 package com.groqdata.system.service.impl;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.groqdata.system.domain.SysLogininfor;
 import com.groqdata.system.mapper.SysLogininforMapper;
 import com.groqdata.system.service.ISysLogininforService;
@@ -32,6 +34,19 @@ public class SysLogininforServiceImpl implements ISysLogininforService {
 		logininforMapper.insertLogininfor(logininfor);
 	}
 
+	/**
+	 * 批量新增系统登录日志
+	 * 
+	 * @param logininfors 访问日志集合
+	 */
+	@Override
+	public void insertLogininforBatch(List<SysLogininfor> logininfors) {
+		if (logininfors == null || logininfors.isEmpty()) {
+			return;
+		}
+		logininforMapper.insertLogininforBatch(logininfors);
+	}
+
 	/**
 	 * 查询系统登录日志集合
 	 * 
@@ -43,6 +58,20 @@ public class SysLogininforServiceImpl implements ISysLogininforService {
 		return logininforMapper.selectLogininforList(logininfor);
 	}
 
+	/**
+	 * 逐行查询系统登录日志，每读取一行即交给 consumer 处理，用于大数据量导出
+	 * <p>
+	 * 只读事务使 PostgreSQL 驱动按 fetchSize 分批拉取，而不是一次读入整个结果集
+	 * 
+	 * @param logininfor 访问日志对象
+	 * @param consumer 行处理回调
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void selectLogininforList(SysLogininfor logininfor, Consumer<SysLogininfor> consumer) {
+		logininforMapper.selectLogininforList(logininfor, context -> consumer.accept(context.getResultObject()));
+	}
+
 	/**
 	 * 批量删除系统登录日志
 	 * 
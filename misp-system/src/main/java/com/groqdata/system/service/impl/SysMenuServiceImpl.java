@@ -1,23 +1,44 @@
 package com.groqdata.system.service.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.groqdata.common.constant.CacheConstants;
 import com.groqdata.common.constant.Constants;
 import com.groqdata.common.constant.UserConstants;
+import com.groqdata.common.core.cache.LocalCacheRegistry;
 import com.groqdata.common.core.domain.TreeSelect;
 import com.groqdata.common.core.domain.entity.SysMenu;
 import com.groqdata.common.core.domain.entity.SysRole;
 import com.groqdata.common.core.domain.entity.SysUser;
+import com.groqdata.common.core.redis.RedisCache;
 import com.groqdata.common.utils.SecurityUtils;
+import com.groqdata.common.utils.TreeUtils;
+import com.groqdata.common.utils.bean.BeanHelper;
+import com.groqdata.common.utils.spring.SpringUtils;
 import com.groqdata.common.utils.basic.StringHelper;
 import com.groqdata.system.domain.vo.MetaVo;
 import com.groqdata.system.domain.vo.RouterVo;
@@ -56,6 +77,75 @@ public class SysMenuServiceImpl implements ISysMenuService {
 		this.roleMenuMapper = roleMenuMapper;
 	}
 
+	private RedisCache redisCache;
+
+	@Autowired
+	public void setRedisCache(RedisCache redisCache) {
+		this.redisCache = redisCache;
+	}
+
+	private RedisMessageListenerContainer listenerContainer;
+
+	@Autowired
+	public void setListenerContainer(RedisMessageListenerContainer listenerContainer) {
+		this.listenerContainer = listenerContainer;
+	}
+
+	/**
+	 * 管理员的路由缓存键
+	 */
+	private static final String ADMIN_SIGNATURE = "admin";
+
+	/**
+	 * 全部缓存失效的通知消息，其余消息为逗号分隔的角色ID
+	 */
+	private static final String EVICT_ALL = "*";
+
+	/**
+	 * 路由本地缓存，key 为角色集合签名；兜底过期时间用于防止失效通知丢失
+	 */
+	private final Cache<String, List<RouterVo>> routerCache = Caffeine.newBuilder()
+			.maximumSize(1000)
+			.expireAfterWrite(30, TimeUnit.MINUTES)
+			.recordStats()
+			.build();
+
+	/**
+	 * 角色权限标识本地缓存，key 为角色ID
+	 */
+	private final Cache<Long, Set<String>> rolePermsCache = Caffeine.newBuilder()
+			.maximumSize(1000)
+			.expireAfterWrite(30, TimeUnit.MINUTES)
+			.recordStats()
+			.build();
+
+	/**
+	 * 角色可见菜单（目录与菜单，平铺）本地缓存，key 为角色ID；缓存中的对象只读，构建树前需复制
+	 */
+	private final Cache<Long, List<SysMenu>> roleMenuCache = Caffeine.newBuilder()
+			.maximumSize(1000)
+			.expireAfterWrite(30, TimeUnit.MINUTES)
+			.recordStats()
+			.build();
+
+	/**
+	 * 菜单缓存版本号，每次失效时递增，用于丢弃失效前开始加载的值
+	 */
+	private final AtomicLong menuCacheVersion = new AtomicLong();
+
+	/**
+	 * 登记本地缓存，并订阅其他节点的菜单失效通知
+	 */
+	@PostConstruct
+	public void init() {
+		LocalCacheRegistry.register("routers", routerCache);
+		LocalCacheRegistry.register("rolePerms", rolePermsCache);
+		LocalCacheRegistry.register("roleMenus", roleMenuCache);
+		listenerContainer.addMessageListener((message, pattern) -> evictLocalCache(
+				new String(message.getBody(), StandardCharsets.UTF_8)),
+				new ChannelTopic(CacheConstants.SYS_MENU_EVICT_TOPIC));
+	}
+
 	/**
 	 * 根据用户查询系统菜单列表
 	 * 
@@ -105,21 +195,23 @@ public class SysMenuServiceImpl implements ISysMenuService {
 	}
 
 	/**
-	 * 根据角色ID查询权限
+	 * 根据角色ID查询权限，结果按角色缓存，返回的集合不可修改
 	 * 
 	 * @param roleId 角色ID
 	 * @return 权限列表
 	 */
 	@Override
 	public Set<String> selectMenuPermsByRoleId(Long roleId) {
-		List<String> perms = menuMapper.selectMenuPermsByRoleId(roleId);
-		Set<String> permsSet = new HashSet<>();
-		for (String perm : perms) {
-			if (StringUtils.isNotEmpty(perm)) {
-				permsSet.addAll(Arrays.asList(perm.trim().split(",")));
+		return getCached(rolePermsCache, roleId, key -> {
+			List<String> perms = menuMapper.selectMenuPermsByRoleId(key);
+			Set<String> permsSet = new HashSet<>();
+			for (String perm : perms) {
+				if (StringUtils.isNotEmpty(perm)) {
+					permsSet.addAll(Arrays.asList(perm.trim().split(",")));
+				}
 			}
-		}
-		return permsSet;
+			return Collections.unmodifiableSet(permsSet);
+		});
 	}
 
 	/**
@@ -159,11 +251,141 @@ public class SysMenuServiceImpl implements ISysMenuService {
 	 */
 	@Override
 	public List<RouterVo> buildMenus(List<SysMenu> menus) {
+		return buildMenus(menus, new RouteNameResolver(menus));
+	}
+
+	/**
+	 * 查询用户的前端路由，角色集合相同的用户共享同一份缓存
+	 *
+	 * @param user 用户信息（含角色）
+	 * @return 路由列表
+	 */
+	@Override
+	public List<RouterVo> selectRoutersByUser(SysUser user) {
+		if (user.isAdmin()) {
+			return getCached(routerCache, ADMIN_SIGNATURE,
+					key -> buildMenus(getChildPerms(menuMapper.selectMenuTreeAll(), 0)));
+		}
+		List<Long> roleIds = getNormalRoleIds(user);
+		return getCached(routerCache, StringUtils.join(roleIds, ","),
+				key -> buildMenus(getChildPerms(mergeRoleMenus(roleIds), 0)));
+	}
+
+	/**
+	 * 清空全部菜单缓存（本节点及其他节点），菜单变更后调用；存在事务时在提交后执行
+	 */
+	@Override
+	public void clearMenuCache() {
+		SpringUtils.afterCommit(() -> publishEvict(EVICT_ALL));
+	}
+
+	/**
+	 * 清空指定角色的权限、菜单缓存及包含这些角色的路由缓存，角色或角色菜单变更后调用；存在事务时在提交后执行
+	 *
+	 * @param roleIds 角色ID
+	 */
+	@Override
+	public void clearRoleMenuCache(Long... roleIds) {
+		if (roleIds == null || roleIds.length == 0) {
+			return;
+		}
+		String message = StringUtils.join(roleIds, ",");
+		SpringUtils.afterCommit(() -> publishEvict(message));
+	}
+
+	/**
+	 * 合并多个角色的可见菜单，按菜单ID去重并复制，排序与数据库查询一致（父菜单ID、显示顺序）
+	 */
+	private List<SysMenu> mergeRoleMenus(List<Long> roleIds) {
+		Map<Long, SysMenu> merged = new HashMap<>();
+		for (Long roleId : roleIds) {
+			List<SysMenu> roleMenus = getCached(roleMenuCache, roleId,
+					key -> Collections.unmodifiableList(menuMapper.selectMenuTreeByRoleIds(List.of(key))));
+			for (SysMenu menu : roleMenus) {
+				merged.computeIfAbsent(menu.getMenuId(), key -> {
+					SysMenu copy = new SysMenu();
+					BeanHelper.copyBeanProp(copy, menu);
+					return copy;
+				});
+			}
+		}
+		List<SysMenu> menus = new ArrayList<>(merged.values());
+		menus.sort(Comparator.comparing(SysMenu::getParentId, Comparator.nullsFirst(Comparator.naturalOrder()))
+				.thenComparing(SysMenu::getOrderNum, Comparator.nullsFirst(Comparator.naturalOrder())));
+		return menus;
+	}
+
+	/**
+	 * 读取本地缓存，未命中时加载；加载期间发生过失效则不保留加载结果
+	 */
+	private <K, V> V getCached(Cache<K, V> cache, K key, Function<K, V> loader) {
+		V value = cache.getIfPresent(key);
+		if (value != null) {
+			return value;
+		}
+		long version = menuCacheVersion.get();
+		value = loader.apply(key);
+		cache.put(key, value);
+		if (version != menuCacheVersion.get()) {
+			cache.invalidate(key);
+		}
+		return value;
+	}
+
+	/**
+	 * 用户正常状态的角色ID，升序去重，作为路由缓存的签名
+	 */
+	private List<Long> getNormalRoleIds(SysUser user) {
+		if (StringHelper.isEmpty(user.getRoles())) {
+			return new ArrayList<>();
+		}
+		return user.getRoles().stream()
+				.filter(role -> role.getRoleId() != null && UserConstants.NORMAL.equals(role.getStatus()))
+				.map(SysRole::getRoleId)
+				.distinct()
+				.sorted()
+				.toList();
+	}
+
+	/**
+	 * 失效本节点菜单缓存并通知其他节点
+	 *
+	 * @param message * 表示全部，否则为逗号分隔的角色ID
+	 */
+	private void publishEvict(String message) {
+		evictLocalCache(message);
+		redisCache.publish(CacheConstants.SYS_MENU_EVICT_TOPIC, message);
+	}
+
+	/**
+	 * 失效本节点菜单缓存
+	 *
+	 * @param message * 表示全部，否则为逗号分隔的角色ID
+	 */
+	private void evictLocalCache(String message) {
+		menuCacheVersion.incrementAndGet();
+		if (EVICT_ALL.equals(message)) {
+			routerCache.invalidateAll();
+			rolePermsCache.invalidateAll();
+			roleMenuCache.invalidateAll();
+			return;
+		}
+		Set<String> roleIds = new HashSet<>(Arrays.asList(StringUtils.split(message, ',')));
+		for (String roleId : roleIds) {
+			rolePermsCache.invalidate(Long.valueOf(roleId));
+			roleMenuCache.invalidate(Long.valueOf(roleId));
+		}
+		// 路由缓存键为角色ID签名，只失效包含这些角色的组合
+		routerCache.asMap().keySet().removeIf(signature -> !ADMIN_SIGNATURE.equals(signature)
+				&& Arrays.stream(StringUtils.split(signature, ',')).anyMatch(roleIds::contains));
+	}
+
+	private List<RouterVo> buildMenus(List<SysMenu> menus, RouteNameResolver resolver) {
 		List<RouterVo> routers = new LinkedList<>();
 		for (SysMenu menu : menus) {
 			RouterVo router = new RouterVo();
 			router.setHidden("1".equals(menu.getVisible()));
-			router.setName(getRouteName(menu));
+			router.setName(getRouteName(menu, resolver));
 			router.setPath(getRouterPath(menu));
 			router.setComponent(getComponent(menu));
 			router.setQuery(menu.getQuery());
@@ -173,7 +395,7 @@ public class SysMenuServiceImpl implements ISysMenuService {
 			if (StringHelper.isNotEmpty(cMenus) && UserConstants.TYPE_DIR.equals(menu.getMenuType())) {
 				router.setAlwaysShow(true);
 				router.setRedirect("noRedirect");
-				router.setChildren(buildMenus(cMenus));
+				router.setChildren(buildMenus(cMenus, resolver));
 			} else if (isMenuFrame(menu)) {
 				router.setMeta(null);
 				List<RouterVo> childrenList = new ArrayList<>();
@@ -212,19 +434,7 @@ public class SysMenuServiceImpl implements ISysMenuService {
 	 */
 	@Override
 	public List<SysMenu> buildMenuTree(List<SysMenu> menus) {
-		List<SysMenu> returnList = new ArrayList<>();
-		List<Long> tempList = menus.stream().map(SysMenu::getMenuId).toList();
-		for (SysMenu menu : menus) {
-			// 如果是顶级节点, 遍历该父节点的所有子节点
-			if (!tempList.contains(menu.getParentId())) {
-				recursionFn(menus, menu);
-				returnList.add(menu);
-			}
-		}
-		if (returnList.isEmpty()) {
-			returnList = menus;
-		}
-		return returnList;
+		return TreeUtils.buildTree(menus, SysMenu::getMenuId, SysMenu::getParentId, SysMenu::setChildren);
 	}
 
 	/**
@@ -282,7 +492,9 @@ public class SysMenuServiceImpl implements ISysMenuService {
 	 */
 	@Override
 	public int insertMenu(SysMenu menu) {
-		return menuMapper.insertMenu(menu);
+		int rows = menuMapper.insertMenu(menu);
+		clearMenuCache();
+		return rows;
 	}
 
 	/**
@@ -293,7 +505,9 @@ public class SysMenuServiceImpl implements ISysMenuService {
 	 */
 	@Override
 	public int updateMenu(SysMenu menu) {
-		return menuMapper.updateMenu(menu);
+		int rows = menuMapper.updateMenu(menu);
+		clearMenuCache();
+		return rows;
 	}
 
 	/**
@@ -304,7 +518,9 @@ public class SysMenuServiceImpl implements ISysMenuService {
 	 */
 	@Override
 	public int deleteMenuById(Long menuId) {
-		return menuMapper.deleteMenuById(menuId);
+		int rows = menuMapper.deleteMenuById(menuId);
+		clearMenuCache();
+		return rows;
 	}
 
 	/**
@@ -330,6 +546,10 @@ public class SysMenuServiceImpl implements ISysMenuService {
 	 * @return 路由名称
 	 */
 	public String getRouteName(SysMenu menu) {
+		return getRouteName(menu, new RouteNameResolver(new ArrayList<>()));
+	}
+
+	private String getRouteName(SysMenu menu, RouteNameResolver resolver) {
 		// 非外链并且是一级目录（类型为目录）
 		if (isMenuFrame(menu)) {
 			return StringUtils.EMPTY;
@@ -340,32 +560,8 @@ public class SysMenuServiceImpl implements ISysMenuService {
 			return menu.getRouteName();
 		}
 
-		// 构建全路径（父路径 + 当前路径）
-		StringBuilder fullPath = new StringBuilder();
-
-		// 递归查找所有父菜单路径
-		SysMenu current = menu;
-		List<String> pathSegments = new ArrayList<>();
-
-		while (current != null && current.getParentId() != null) {
-			// 跳过顶级菜单（通常为 Layout）
-			if (current.getMenuId() != 0) {
-				pathSegments.add(0, current.getPath());
-			}
-			current = menuMapper.selectMenuById(current.getParentId());
-		}
-
-		// 拼接完整路径作为路由名称
-		for (String segment : pathSegments) {
-			fullPath.append(segment).append("/");
-		}
-
-		// 移除最后一个斜杠
-		if (!fullPath.isEmpty()) {
-			fullPath.deleteCharAt(fullPath.length() - 1);
-		}
-
-		return fullPath.toString();
+		// 拼接完整路径（父路径 + 当前路径）作为路由名称
+		return resolver.getFullPath(menu);
 	}
 
 	/**
@@ -462,61 +658,69 @@ public class SysMenuServiceImpl implements ISysMenuService {
 	 * @return String
 	 */
 	public List<SysMenu> getChildPerms(List<SysMenu> list, int parentId) {
-		List<SysMenu> returnList = new ArrayList<>();
-		for (SysMenu t : list) {
-			// 根据传入的某个父节点ID,遍历该父节点的所有子节点
-			if (t.getParentId() == parentId) {
-				recursionFn(list, t);
-				returnList.add(t);
-			}
-		}
-		return returnList;
+		return TreeUtils.buildTree(list, (long) parentId, SysMenu::getMenuId, SysMenu::getParentId,
+				SysMenu::setChildren);
 	}
 
 	/**
-	 * 递归列表
+	 * 内链域名特殊字符替换
 	 * 
-	 * @param list 分类表
-	 * @param t 子节点
-	 */
-	private void recursionFn(List<SysMenu> list, SysMenu t) {
-		// 得到子节点列表
-		List<SysMenu> childList = getChildList(list, t);
-		t.setChildren(childList);
-		for (SysMenu tChild : childList) {
-			if (hasChild(list, tChild)) {
-				recursionFn(list, tChild);
-			}
-		}
+	 * @return 替换后的内链域名
+	 */
+	public String innerLinkReplaceEach(String path) {
+		return StringUtils.replaceEach(path, new String[]{Constants.HTTP, Constants.HTTPS, Constants.WWW, ".", ":" },
+				new String[]{"", "", "", "/", "/" });
 	}
 
 	/**
-	 * 得到子节点列表
+	 * 路由全路径解析
+	 * <p>
+	 * 父菜单优先从已加载的菜单树中查找，不在树中时才查询数据库（结果同样记入索引），
+	 * 每个菜单的全路径只计算一次，子菜单直接复用父菜单的结果。
 	 */
-	private List<SysMenu> getChildList(List<SysMenu> list, SysMenu t) {
-		List<SysMenu> tlist = new ArrayList<>();
-		for (SysMenu n : list) {
-			if (n.getParentId().longValue() == t.getMenuId().longValue()) {
-				tlist.add(n);
+	private final class RouteNameResolver {
+		private final Map<Long, SysMenu> menuIndex = new HashMap<>();
+
+		private final Map<Long, String> fullPaths = new HashMap<>();
+
+		RouteNameResolver(List<SysMenu> menus) {
+			indexMenus(menus);
+		}
+
+		private void indexMenus(List<SysMenu> menus) {
+			for (SysMenu menu : menus) {
+				menuIndex.put(menu.getMenuId(), menu);
+				if (StringHelper.isNotEmpty(menu.getChildren())) {
+					indexMenus(menu.getChildren());
+				}
 			}
 		}
-		return tlist;
-	}
 
-	/**
-	 * 判断是否有子节点
-	 */
-	private boolean hasChild(List<SysMenu> list, SysMenu t) {
-		return !getChildList(list, t).isEmpty();
-	}
+		String getFullPath(SysMenu menu) {
+			Long menuId = menu.getMenuId();
+			String fullPath = fullPaths.get(menuId);
+			if (fullPath != null) {
+				return fullPath;
+			}
+			String path = String.valueOf(menu.getPath());
+			// 先记入自身路径，父子关系成环时不会无限递归
+			fullPaths.put(menuId, path);
+			SysMenu parent = getParent(menu);
+			fullPath = parent == null ? path : getFullPath(parent) + "/" + path;
+			fullPaths.put(menuId, fullPath);
+			return fullPath;
+		}
 
-	/**
-	 * 内链域名特殊字符替换
-	 * 
-	 * @return 替换后的内链域名
-	 */
-	public String innerLinkReplaceEach(String path) {
-		return StringUtils.replaceEach(path, new String[]{Constants.HTTP, Constants.HTTPS, Constants.WWW, ".", ":" },
-				new String[]{"", "", "", "/", "/" });
+		private SysMenu getParent(SysMenu menu) {
+			Long parentId = menu.getParentId();
+			// 顶级菜单的父ID为0
+			if (parentId == null || parentId == 0) {
+				return null;
+			}
+			if (!menuIndex.containsKey(parentId)) {
+				menuIndex.put(parentId, menuMapper.selectMenuById(parentId));
+			}
+			return menuIndex.get(parentId);
+		}
 	}
 }
@@ -1,8 +1,10 @@
 package com.groqdata.system.service.impl;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.groqdata.system.domain.SysOperLog;
 import com.groqdata.system.mapper.SysOperLogMapper;
 import com.groqdata.system.service.ISysOperLogService;
@@ -32,6 +34,19 @@ public class SysOperLogServiceImpl implements ISysOperLogService {
 		operLogMapper.insertOperlog(operLog);
 	}
 
+	/**
+	 * 批量新增操作日志
+	 * 
+	 * @param operLogs 操作日志集合
+	 */
+	@Override
+	public void insertOperlogBatch(List<SysOperLog> operLogs) {
+		if (operLogs == null || operLogs.isEmpty()) {
+			return;
+		}
+		operLogMapper.insertOperlogBatch(operLogs);
+	}
+
 	/**
 	 * 查询系统操作日志集合
 	 * 
@@ -43,6 +58,20 @@ public class SysOperLogServiceImpl implements ISysOperLogService {
 		return operLogMapper.selectOperLogList(operLog);
 	}
 
+	/**
+	 * 逐行查询系统操作日志，每读取一行即交给 consumer 处理，用于大数据量导出
+	 * <p>
+	 * 只读事务使 PostgreSQL 驱动按 fetchSize 分批拉取，而不是一次读入整个结果集
+	 * 
+	 * @param operLog 操作日志对象
+	 * @param consumer 行处理回调
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void selectOperLogList(SysOperLog operLog, Consumer<SysOperLog> consumer) {
+		operLogMapper.selectOperLogList(operLog, context -> consumer.accept(context.getResultObject()));
+	}
+
 	/**
 	 * 批量删除系统操作日志
 	 * 
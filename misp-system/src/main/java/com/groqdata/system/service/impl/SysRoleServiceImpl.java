@@ -5,15 +5,22 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.groqdata.common.annotation.DataScope;
+import com.groqdata.common.constant.CacheConstants;
 import com.groqdata.common.constant.UserConstants;
 import com.groqdata.common.core.domain.entity.SysRole;
 import com.groqdata.common.core.domain.entity.SysUser;
+import com.groqdata.common.core.redis.RedisCache;
 import com.groqdata.common.exception.ServiceException;
 import com.groqdata.common.utils.SecurityUtils;
 import com.groqdata.common.utils.basic.StringHelper;
@@ -21,10 +28,12 @@ import com.groqdata.common.utils.spring.SpringUtils;
 import com.groqdata.system.domain.SysRoleDept;
 import com.groqdata.system.domain.SysRoleMenu;
 import com.groqdata.system.domain.SysUserRole;
+import com.groqdata.system.event.UserRolesChangedEvent;
 import com.groqdata.system.mapper.SysRoleDeptMapper;
 import com.groqdata.system.mapper.SysRoleMapper;
 import com.groqdata.system.mapper.SysRoleMenuMapper;
 import com.groqdata.system.mapper.SysUserRoleMapper;
+import com.groqdata.system.service.ISysMenuService;
 import com.groqdata.system.service.ISysRoleService;
 
 /**
@@ -63,6 +72,41 @@ public class SysRoleServiceImpl implements ISysRoleService {
 		this.roleDeptMapper = roleDeptMapper;
 	}
 
+	private ISysMenuService menuService;
+
+	@Autowired
+	public void setMenuService(ISysMenuService menuService) {
+		this.menuService = menuService;
+	}
+
+	private RedisCache redisCache;
+
+	@Autowired
+	public void setRedisCache(RedisCache redisCache) {
+		this.redisCache = redisCache;
+	}
+
+	private RedisMessageListenerContainer listenerContainer;
+
+	@Autowired
+	public void setListenerContainer(RedisMessageListenerContainer listenerContainer) {
+		this.listenerContainer = listenerContainer;
+	}
+
+	/**
+	 * 数据权限版本号，每次角色部门或部门层级变更时递增
+	 */
+	private final AtomicLong dataScopeVersion = new AtomicLong();
+
+	/**
+	 * 订阅其他节点的数据权限失效通知
+	 */
+	@PostConstruct
+	public void init() {
+		listenerContainer.addMessageListener((message, pattern) -> dataScopeVersion.incrementAndGet(),
+				new ChannelTopic(CacheConstants.DATA_SCOPE_EVICT_TOPIC));
+	}
+
 	/**
 	 * 根据条件分页查询角色数据
 	 * 
@@ -231,6 +275,7 @@ public class SysRoleServiceImpl implements ISysRoleService {
 	public int insertRole(SysRole role) {
 		// 新增角色信息
 		roleMapper.insertRole(role);
+		menuService.clearRoleMenuCache(role.getRoleId());
 		return insertRoleMenu(role);
 	}
 
@@ -247,6 +292,8 @@ public class SysRoleServiceImpl implements ISysRoleService {
 		roleMapper.updateRole(role);
 		// 删除角色与菜单关联
 		roleMenuMapper.deleteRoleMenuByRoleId(role.getRoleId());
+		menuService.clearRoleMenuCache(role.getRoleId());
+		UserRolesChangedEvent.publish(userRoleMapper.selectUserIdsByRoleId(role.getRoleId()));
 		return insertRoleMenu(role);
 	}
 
@@ -258,7 +305,10 @@ public class SysRoleServiceImpl implements ISysRoleService {
 	 */
 	@Override
 	public int updateRoleStatus(SysRole role) {
-		return roleMapper.updateRole(role);
+		int rows = roleMapper.updateRole(role);
+		menuService.clearRoleMenuCache(role.getRoleId());
+		UserRolesChangedEvent.publish(userRoleMapper.selectUserIdsByRoleId(role.getRoleId()));
+		return rows;
 	}
 
 	/**
@@ -275,6 +325,7 @@ public class SysRoleServiceImpl implements ISysRoleService {
 		// 删除角色与部门关联
 		roleDeptMapper.deleteRoleDeptByRoleId(role.getRoleId());
 		// 新增角色和部门信息（数据权限）
+		clearDataScopeCache();
 		return insertRoleDept(role);
 	}
 
@@ -333,6 +384,8 @@ public class SysRoleServiceImpl implements ISysRoleService {
 		roleMenuMapper.deleteRoleMenuByRoleId(roleId);
 		// 删除角色与部门关联
 		roleDeptMapper.deleteRoleDeptByRoleId(roleId);
+		menuService.clearRoleMenuCache(roleId);
+		clearDataScopeCache();
 		return roleMapper.deleteRoleById(roleId);
 	}
 
@@ -357,6 +410,8 @@ public class SysRoleServiceImpl implements ISysRoleService {
 		roleMenuMapper.deleteRoleMenu(roleIds);
 		// 删除角色与部门关联
 		roleDeptMapper.deleteRoleDept(roleIds);
+		menuService.clearRoleMenuCache(roleIds);
+		clearDataScopeCache();
 		return roleMapper.deleteRoleByIds(roleIds);
 	}
 
@@ -368,7 +423,9 @@ public class SysRoleServiceImpl implements ISysRoleService {
 	 */
 	@Override
 	public int deleteAuthUser(SysUserRole userRole) {
-		return userRoleMapper.deleteUserRoleInfo(userRole);
+		int rows = userRoleMapper.deleteUserRoleInfo(userRole);
+		UserRolesChangedEvent.publish(Arrays.asList(userRole.getUserId()));
+		return rows;
 	}
 
 	/**
@@ -380,7 +437,9 @@ public class SysRoleServiceImpl implements ISysRoleService {
 	 */
 	@Override
 	public int deleteAuthUsers(Long roleId, Long[] userIds) {
-		return userRoleMapper.deleteUserRoleInfos(roleId, userIds);
+		int rows = userRoleMapper.deleteUserRoleInfos(roleId, userIds);
+		UserRolesChangedEvent.publish(Arrays.asList(userIds));
+		return rows;
 	}
 
 	/**
@@ -400,6 +459,43 @@ public class SysRoleServiceImpl implements ISysRoleService {
 			ur.setRoleId(roleId);
 			list.add(ur);
 		}
-		return userRoleMapper.batchUserRole(list);
+		int rows = userRoleMapper.batchUserRole(list);
+		UserRolesChangedEvent.publish(Arrays.asList(userIds));
+		return rows;
+	}
+
+	/**
+	 * 查询角色自定义数据权限关联的部门ID
+	 * 
+	 * @param roleIds 角色ID集合
+	 * @return 部门ID列表
+	 */
+	@Override
+	public List<Long> selectDeptIdsByRoleIds(List<Long> roleIds) {
+		if (StringHelper.isEmpty(roleIds)) {
+			return new ArrayList<>();
+		}
+		return roleDeptMapper.selectDeptIdsByRoleIds(roleIds);
+	}
+
+	/**
+	 * 获取当前的数据权限版本号
+	 * 
+	 * @return 版本号
+	 */
+	@Override
+	public long getDataScopeVersion() {
+		return dataScopeVersion.get();
+	}
+
+	/**
+	 * 使所有节点上缓存的用户数据权限失效，存在事务时在提交后执行
+	 */
+	@Override
+	public void clearDataScopeCache() {
+		SpringUtils.afterCommit(() -> {
+			dataScopeVersion.incrementAndGet();
+			redisCache.publish(CacheConstants.DATA_SCOPE_EVICT_TOPIC, "*");
+		});
 	}
 }
@@ -1,7 +1,9 @@
 package com.groqdata.system.service.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.validation.Validator;
@@ -26,6 +28,7 @@ import com.groqdata.common.utils.spring.SpringUtils;
 import com.groqdata.system.domain.SysPost;
 import com.groqdata.system.domain.SysUserPost;
 import com.groqdata.system.domain.SysUserRole;
+import com.groqdata.system.event.UserRolesChangedEvent;
 import com.groqdata.system.mapper.SysPostMapper;
 import com.groqdata.system.mapper.SysRoleMapper;
 import com.groqdata.system.mapper.SysUserMapper;
@@ -45,6 +48,11 @@ public class SysUserServiceImpl implements ISysUserService {
 	private static final Logger log = LoggerFactory.getLogger(SysUserServiceImpl.class);
 	public static final String HTML_TAG_BR = "<br/>";
 
+	/**
+	 * 导入结果中成功、失败明细各自最多保留的条数，超出部分只计数
+	 */
+	private static final int IMPORT_MSG_DETAIL_LIMIT = 100;
+
 	private SysUserMapper userMapper;
 
 	@Autowired
@@ -113,6 +121,21 @@ public class SysUserServiceImpl implements ISysUserService {
 		return userMapper.selectUserList(user);
 	}
 
+	/**
+	 * 逐行查询用户，每读取一行即交给 consumer 处理，用于大数据量导出
+	 * <p>
+	 * 只读事务使 PostgreSQL 驱动按 fetchSize 分批拉取，而不是一次读入整个结果集
+	 * 
+	 * @param user 用户信息
+	 * @param consumer 行处理回调
+	 */
+	@Override
+	@DataScope(deptAlias = "d", userAlias = "u")
+	@Transactional(readOnly = true)
+	public void selectUserList(SysUser user, Consumer<SysUser> consumer) {
+		userMapper.selectUserList(user, context -> consumer.accept(context.getResultObject()));
+	}
+
 	/**
 	 * 根据条件分页查询已分配用户角色列表
 	 * 
@@ -313,6 +336,7 @@ public class SysUserServiceImpl implements ISysUserService {
 		userPostMapper.deleteUserPostByUserId(userId);
 		// 新增用户与岗位管理
 		insertUserPost(user);
+		UserRolesChangedEvent.publish(List.of(userId));
 		return userMapper.updateUser(user);
 	}
 
@@ -327,6 +351,7 @@ public class SysUserServiceImpl implements ISysUserService {
 	public void insertUserAuth(Long userId, Long[] roleIds) {
 		userRoleMapper.deleteUserRoleByUserId(userId);
 		insertUserRole(userId, roleIds);
+		UserRolesChangedEvent.publish(List.of(userId));
 	}
 
 	/**
@@ -448,6 +473,7 @@ public class SysUserServiceImpl implements ISysUserService {
 		userRoleMapper.deleteUserRoleByUserId(userId);
 		// 删除用户与岗位表
 		userPostMapper.deleteUserPostByUserId(userId);
+		UserRolesChangedEvent.publish(List.of(userId));
 		return userMapper.deleteUserById(userId);
 	}
 
@@ -468,6 +494,7 @@ public class SysUserServiceImpl implements ISysUserService {
 		userRoleMapper.deleteUserRole(userIds);
 		// 删除用户与岗位关联
 		userPostMapper.deleteUserPost(userIds);
+		UserRolesChangedEvent.publish(Arrays.asList(userIds));
 		return userMapper.deleteUserByIds(userIds);
 	}
 
@@ -484,53 +511,106 @@ public class SysUserServiceImpl implements ISysUserService {
 		if (StringHelper.isNull(userList) || userList.isEmpty()) {
 			throw new ServiceException("导入用户数据不能为空！");
 		}
-		int successNum = 0;
-		int failureNum = 0;
-		StringBuilder successMsg = new StringBuilder();
-		StringBuilder failureMsg = new StringBuilder();
-		for (SysUser user : userList) {
-			try {
-				// 验证是否存在这个用户
-				SysUser u = userMapper.selectUserByUserName(user.getUserName());
-				if (StringHelper.isNull(u)) {
-					BeanValidators.validateWithException(validator, user);
-					deptService.checkDeptDataScope(user.getDeptId());
-					String password = configService.selectConfigByKey("sys.user.initPassword");
-					user.setPassword(SecurityUtils.encryptPassword(password));
-					user.setCreateBy(operName);
-					userMapper.insertUser(user);
-					successNum++;
-					successMsg.append(HTML_TAG_BR).append(successNum).append("、账号 ").append(user.getUserName())
-							.append(" 导入成功");
-				} else if (Boolean.TRUE.equals(isUpdateSupport)) {
-					BeanValidators.validateWithException(validator, user);
-					checkUserAllowed(u);
-					checkUserDataScope(u.getUserId());
-					deptService.checkDeptDataScope(user.getDeptId());
-					user.setUserId(u.getUserId());
-					user.setUpdateBy(operName);
-					userMapper.updateUser(user);
-					successNum++;
-					successMsg.append(HTML_TAG_BR).append(successNum).append("、账号 ").append(user.getUserName())
-							.append(" 更新成功");
-				} else {
-					failureNum++;
-					failureMsg.append(HTML_TAG_BR).append(failureNum).append("、账号 ").append(user.getUserName())
-							.append(" 已存在");
-				}
-			} catch (Exception e) {
-				failureNum++;
-				String msg = HTML_TAG_BR + failureNum + "、账号 " + user.getUserName() + " 导入失败：";
-				failureMsg.append(msg).append(e.getMessage());
-				log.error(msg, e);
+		return importUser(userList::forEach, isUpdateSupport, operName);
+	}
+
+	/**
+	 * 逐行导入用户数据，每行读取后立即处理，不在内存中保留已导入的数据
+	 * 
+	 * @param source 数据源，调用时传入逐行处理的回调
+	 * @param isUpdateSupport 是否更新支持，如果已存在，则进行更新数据
+	 * @param operName 操作用户
+	 * @return 结果
+	 */
+	@Override
+	public String importUser(Consumer<Consumer<SysUser>> source, Boolean isUpdateSupport, String operName) {
+		ImportResult result = new ImportResult();
+		String password = configService.selectConfigByKey("sys.user.initPassword");
+		source.accept(user -> importUser(user, isUpdateSupport, operName, password, result));
+		if (result.successNum == 0 && result.failureNum == 0) {
+			throw new ServiceException("导入用户数据不能为空！");
+		}
+		if (result.failureNum > 0) {
+			result.failureMsg.insert(0, "很抱歉，导入失败！共 " + result.failureNum + " 条数据格式不正确，错误如下：");
+			appendOmitted(result.failureMsg, result.failureNum);
+			throw new ServiceException(result.failureMsg.toString());
+		}
+		result.successMsg.insert(0, "恭喜您，数据已全部导入成功！共 " + result.successNum + " 条，数据如下：");
+		appendOmitted(result.successMsg, result.successNum);
+		return result.successMsg.toString();
+	}
+
+	/**
+	 * 导入单个用户
+	 *
+	 * @param password 初始密码（明文）
+	 */
+	private void importUser(SysUser user, Boolean isUpdateSupport, String operName, String password,
+			ImportResult result) {
+		try {
+			// 验证是否存在这个用户
+			SysUser u = userMapper.selectUserByUserName(user.getUserName());
+			if (StringHelper.isNull(u)) {
+				BeanValidators.validateWithException(validator, user);
+				deptService.checkDeptDataScope(user.getDeptId());
+				// 每个用户单独加密，盐值各不相同
+				user.setPassword(SecurityUtils.encryptPassword(password));
+				user.setCreateBy(operName);
+				userMapper.insertUser(user);
+				result.success(user.getUserName(), " 导入成功");
+			} else if (Boolean.TRUE.equals(isUpdateSupport)) {
+				BeanValidators.validateWithException(validator, user);
+				checkUserAllowed(u);
+				checkUserDataScope(u.getUserId());
+				deptService.checkDeptDataScope(user.getDeptId());
+				user.setUserId(u.getUserId());
+				user.setUpdateBy(operName);
+				userMapper.updateUser(user);
+				result.success(user.getUserName(), " 更新成功");
+			} else {
+				result.failure(user.getUserName(), " 已存在");
+			}
+		} catch (Exception e) {
+			String msg = result.failure(user.getUserName(), " 导入失败：" + e.getMessage());
+			log.error(msg, e);
+		}
+	}
+
+	/**
+	 * 明细超过上限时追加省略说明
+	 */
+	private static void appendOmitted(StringBuilder msg, int total) {
+		if (total > IMPORT_MSG_DETAIL_LIMIT) {
+			msg.append(HTML_TAG_BR).append("……其余 ").append(total - IMPORT_MSG_DETAIL_LIMIT).append(" 条明细已省略");
+		}
+	}
+
+	/**
+	 * 导入结果统计，明细只保留前 {@link #IMPORT_MSG_DETAIL_LIMIT} 条
+	 */
+	private static class ImportResult {
+		private int successNum;
+
+		private int failureNum;
+
+		private final StringBuilder successMsg = new StringBuilder();
+
+		private final StringBuilder failureMsg = new StringBuilder();
+
+		void success(String userName, String detail) {
+			successNum++;
+			if (successNum <= IMPORT_MSG_DETAIL_LIMIT) {
+				successMsg.append(HTML_TAG_BR).append(successNum).append("、账号 ").append(userName).append(detail);
 			}
 		}
-		if (failureNum > 0) {
-			failureMsg.insert(0, "很抱歉，导入失败！共 " + failureNum + " 条数据格式不正确，错误如下：");
-			throw new ServiceException(failureMsg.toString());
-		} else {
-			successMsg.insert(0, "恭喜您，数据已全部导入成功！共 " + successNum + " 条，数据如下：");
+
+		String failure(String userName, String detail) {
+			failureNum++;
+			String msg = HTML_TAG_BR + failureNum + "、账号 " + userName + detail;
+			if (failureNum <= IMPORT_MSG_DETAIL_LIMIT) {
+				failureMsg.append(msg);
+			}
+			return msg;
 		}
-		return successMsg.toString();
 	}
 }
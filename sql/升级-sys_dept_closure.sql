@@ -0,0 +1,35 @@
+-- ----------------------------
+-- 已有库升级：部门层级闭包表 sys_dept_closure
+-- 可重复执行：表与索引已存在时跳过，已有记录不重复写入
+-- 闭包记录按 sys_dept.ancestors 生成（自身层级为0，直接上级为1，依次递增；根节点的父级0不写入）
+-- ----------------------------
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS "misp"."sys_dept_closure" (
+                                     "ancestor_id" int8 NOT NULL,
+                                     "descendant_id" int8 NOT NULL,
+                                     "depth" int4 NOT NULL,
+                                     CONSTRAINT "sys_dept_closure_pkey" PRIMARY KEY ("ancestor_id", "descendant_id")
+)
+;
+COMMENT ON COLUMN "misp"."sys_dept_closure"."ancestor_id" IS '祖先部门id';
+COMMENT ON COLUMN "misp"."sys_dept_closure"."descendant_id" IS '后代部门id（含自身）';
+COMMENT ON COLUMN "misp"."sys_dept_closure"."depth" IS '层级距离（自身为0）';
+COMMENT ON TABLE "misp"."sys_dept_closure" IS '部门层级闭包表';
+
+CREATE INDEX IF NOT EXISTS "idx_sys_dept_closure_descendant" ON "misp"."sys_dept_closure" USING btree ("descendant_id", "ancestor_id");
+
+-- 自身
+INSERT INTO "misp"."sys_dept_closure" ("ancestor_id", "descendant_id", "depth")
+SELECT "dept_id", "dept_id", 0 FROM "misp"."sys_dept"
+ON CONFLICT ("ancestor_id", "descendant_id") DO NOTHING;
+
+-- 祖级列表中的各级上级
+INSERT INTO "misp"."sys_dept_closure" ("ancestor_id", "descendant_id", "depth")
+SELECT "a"."ancestor"::int8, "d"."dept_id", cardinality(string_to_array("d"."ancestors", ',')) - "a"."ord" + 1
+FROM "misp"."sys_dept" "d"
+         CROSS JOIN LATERAL unnest(string_to_array("d"."ancestors", ',')) WITH ORDINALITY AS "a"("ancestor", "ord")
+WHERE "d"."ancestors" IS NOT NULL AND "d"."ancestors" <> '' AND "a"."ancestor" <> '0'
+ON CONFLICT ("ancestor_id", "descendant_id") DO NOTHING;
+
+COMMIT;
@@ -441,6 +441,33 @@ INSERT INTO "misp"."sys_dept" VALUES (103, 101, '0,100,101', '研发部门', 1,
 INSERT INTO "misp"."sys_dept" VALUES (101, 100, '0,100', '深圳总公司', 1, '猫头虎', '15888888888', 'ry@qq.com', '0', '0', 'admin', '2021-05-26 18:56:27', 'admin', '2021-05-27 09:05:25.091901');
 INSERT INTO "misp"."sys_dept" VALUES (100, 0, '0', '若依科技', 0, '猫头虎', '15888888888', 'ry@qq.com', '0', '0', 'admin', '2021-05-26 18:56:27', 'admin', '2021-05-27 10:00:30.143076');
 
+-- ----------------------------
+-- Table structure for sys_dept_closure
+-- ----------------------------
+DROP TABLE IF EXISTS "misp"."sys_dept_closure";
+CREATE TABLE "misp"."sys_dept_closure" (
+                                     "ancestor_id" int8 NOT NULL,
+                                     "descendant_id" int8 NOT NULL,
+                                     "depth" int4 NOT NULL
+)
+;
+COMMENT ON COLUMN "misp"."sys_dept_closure"."ancestor_id" IS '祖先部门id';
+COMMENT ON COLUMN "misp"."sys_dept_closure"."descendant_id" IS '后代部门id（含自身）';
+COMMENT ON COLUMN "misp"."sys_dept_closure"."depth" IS '层级距离（自身为0）';
+COMMENT ON TABLE "misp"."sys_dept_closure" IS '部门层级闭包表';
+
+-- ----------------------------
+-- Records of sys_dept_closure（按 sys_dept.parent_id 生成，已有库升级请执行 升级-sys_dept_closure.sql）
+-- ----------------------------
+INSERT INTO "misp"."sys_dept_closure" ("ancestor_id", "descendant_id", "depth")
+WITH RECURSIVE "t" AS (
+    SELECT "dept_id" AS "ancestor_id", "dept_id" AS "descendant_id", 0 AS "depth" FROM "misp"."sys_dept"
+    UNION ALL
+    SELECT "t"."ancestor_id", "d"."dept_id", "t"."depth" + 1
+    FROM "t" JOIN "misp"."sys_dept" "d" ON "d"."parent_id" = "t"."descendant_id"
+)
+SELECT "ancestor_id", "descendant_id", "depth" FROM "t";
+
 -- ----------------------------
 -- Table structure for sys_dict_data
 -- ----------------------------
@@ -1255,6 +1282,16 @@ ALTER TABLE "misp"."sys_config" ADD CONSTRAINT "sys_config_pkey" PRIMARY KEY ("c
 -- ----------------------------
 ALTER TABLE "misp"."sys_dept" ADD CONSTRAINT "sys_dept_pkey" PRIMARY KEY ("dept_id");
 
+-- ----------------------------
+-- Primary Key structure for table sys_dept_closure
+-- ----------------------------
+ALTER TABLE "misp"."sys_dept_closure" ADD CONSTRAINT "sys_dept_closure_pkey" PRIMARY KEY ("ancestor_id", "descendant_id");
+
+-- ----------------------------
+-- Indexes structure for table sys_dept_closure
+-- ----------------------------
+CREATE INDEX "idx_sys_dept_closure_descendant" ON "misp"."sys_dept_closure" USING btree ("descendant_id", "ancestor_id");
+
 -- ----------------------------
 -- Primary Key structure for table __data
 -- ----------------------------